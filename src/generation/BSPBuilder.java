@@ -2,6 +2,14 @@ package generation;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import gui.Constants;
 
@@ -26,6 +34,31 @@ public class BSPBuilder {
 	// only usage is in updateProgressBar to estimate progress made in the BSP tree construction
 	int partiters = 0 ; // relocated from MazeBuilder attribute partiters here. 
 	private final Order order ; 		// current order
+	/**
+	 * Lists the ways to grade candidate splitters.
+	 * Sampled tries about 50 candidates per node and grades each against
+	 * a sample of about 50 walls, see {@link Wall#calculateGrade(List)}; it is the default.
+	 * Sorted grades all candidates against all walls with exact counts
+	 * from sorted coordinates of the walls of a node, see {@link SortedGrading}.
+	 * MazeBuilder uses the grading of the order, see {@link Order#getGrading()}.
+	 */
+	public enum Grading { Sampled, Sorted } ;
+	private Grading grading = Grading.Sampled ; // grading of candidate splitters
+	/**
+	 * Nodes with fewer walls grade their candidates sequentially, larger ones
+	 * in parallel if the builder has more than one thread.
+	 */
+	private int parallelThreshold = 1 << 11;
+	/**
+	 * Nodes with fewer walls build both of their subtrees on the same thread,
+	 * larger ones fork them if the builder has more than one thread.
+	 */
+	private int forkThreshold = 1 << 8;
+	private int parallelism = 1 ; // number of threads to build subtrees and grade candidates, 1 for a sequential build
+	private ForkJoinPool pool ; // threads to build subtrees and grade candidates, only exists during generateBSPNodes
+	// partition iterations of a parallel build, counted by the threads of the pool and reported by the calling thread
+	private AtomicInteger progress ;
+	private volatile boolean cancelled ; // set if the calling thread stops a parallel build
 	/**
 	 * Constructor
 	 * @param order provides the spec for the maze to be generated, will receive the result
@@ -48,6 +81,51 @@ public class BSPBuilder {
 		partiters = 0 ; // counter for keeping track of progress made in BSP calculation, starts at 0
 	}
 
+	/**
+	 * Selects how candidate splitters are graded, the choice affects the shape of the tree
+	 * but not the maze.
+	 * @param grading the grading to use for the next BSP tree
+	 */
+	public void setGrading(Grading grading) {
+		this.grading = grading ;
+	}
+
+	/**
+	 * Selects the number of threads that build subtrees of large nodes
+	 * and grade candidate splitters of large nodes.
+	 * The tree is the same for any number of threads.
+	 * MazeBuilder uses all processors for mazes of at least {@link MazeBuilder#PARALLEL_BSP_CELLS} cells.
+	 * A parallel build reports progress from the calling thread every 10 ms
+	 * while it waits for the pool, instead of sleeping 10 ms in every 32nd
+	 * partition iteration as {@link #updateProgressBar(int)} does, so it
+	 * yields to the UI differently than the sequential build.
+	 * @param parallelism the number of threads, 1 for sequential grading, {@code 0 < parallelism}
+	 */
+	public void setParallelism(int parallelism) {
+		assert parallelism > 0 : "Invalid number of threads";
+		this.parallelism = parallelism ;
+	}
+
+	/**
+	 * Sets the number of walls from which a node grades its candidate splitters in parallel.
+	 * Test suites lower it to grade the small nodes of small mazes in parallel.
+	 * @param parallelThreshold the number of walls, {@code 0 <= parallelThreshold}
+	 */
+	void setParallelThreshold(int parallelThreshold) {
+		assert parallelThreshold >= 0 : "Invalid threshold";
+		this.parallelThreshold = parallelThreshold ;
+	}
+
+	/**
+	 * Sets the number of walls from which a node builds its two subtrees as tasks of the pool.
+	 * Test suites lower it to fork the small nodes of small mazes.
+	 * @param forkThreshold the number of walls, {@code 0 <= forkThreshold}
+	 */
+	void setForkThreshold(int forkThreshold) {
+		assert forkThreshold >= 0 : "Invalid threshold";
+		this.forkThreshold = forkThreshold ;
+	}
+
 	/**
 	 * Create tree of BSP nodes for a given list of walls.
 	 * The binary space partitioning algorithm is recursive.
@@ -79,7 +157,11 @@ public class BSPBuilder {
 		// Criterion: from the ones that have a partition bit set to false, 
 		// pick a candidate with a low grade
 		// Note: the splitter remains an element of the walls list but is marked as partitioned
-		Wall splitter = findSplitter(walls);
+		Wall splitter;
+		if (pool != null && walls.size() >= parallelThreshold)
+			splitter = findSplitterInParallel(walls);
+		else
+			splitter = (grading == Grading.Sorted) ? findSplitterBySortedGrading(walls) : findSplitter(walls);
 		splitter.setPartition(true);
 		
 		// Step: split all walls into two lists
@@ -101,6 +183,17 @@ public class BSPBuilder {
 		
 		// Case: two sided recursion, need to create a node
 		// and recursively calculate subtrees for both sides.
+		// In a parallel build, large nodes build both sides as tasks of the pool.
+		// Each wall is in exactly one of the lists, either as is or as a new part,
+		// so the tasks set partition bits on disjoint sets of walls.
+		if (progress != null && walls.size() >= forkThreshold) {
+			final Subtree leftTree = new Subtree(left);
+			final Subtree rightTree = new Subtree(right);
+			ForkJoinTask.invokeAll(leftTree, rightTree);
+			return new BSPBranch(splitter.getStartPositionX(), splitter.getStartPositionY(), 
+					splitter.getExtensionX(), splitter.getExtensionY(), 
+					leftTree.join(), rightTree.join());
+		}
 		return new BSPBranch(splitter.getStartPositionX(), splitter.getStartPositionY(), 
 				splitter.getExtensionX(), splitter.getExtensionY(), 
 				genNodes(left), genNodes(right)); 
@@ -142,10 +235,7 @@ public class BSPBuilder {
 			if (wall.isPartition())
 				continue;
 			// provide feedback for progress bar every 32 iterations
-			partiters++;
-			if ((partiters & 31) == 0) {
-				updateProgressBar(partiters); // side effect: update progress bar
-			}
+			countPartiter(); // side effect: update progress bar
 			// check grade and keep track of minimum
 			int grade = wall.calculateGrade(walls);
 			if (grade < bestgrade) {
@@ -156,6 +246,106 @@ public class BSPBuilder {
 		return result;
 	}
 
+	/**
+	 * It finds the wall which has the minimum grade value with exact counts.
+	 * All walls where the partition flag is not set are candidates, the first one
+	 * with the smallest grade wins.
+	 * Progress is reported for the same candidates as in {@link #findSplitter(List)}
+	 * such that the expected number of partition iterations still applies.
+	 * @param walls list of walls, remains unchanged
+	 * @return wall that is best candidate according to grade partition (smallest grade)
+	 * @throws InterruptedException if its executing thread is interrupted
+	 */
+	private Wall findSplitterBySortedGrading(List<Wall> walls) throws InterruptedException {
+		final SortedGrading grades = new SortedGrading(walls);
+		Wall result = null ;
+		int bestgrade = Integer.MAX_VALUE; // exact grades are not bounded by the sample size
+		final int skip = Math.max(1, walls.size() / 50); // same stride as findSplitter for progress
+		for (int i = 0; i < walls.size(); i++) {
+			Wall wall = walls.get(i);
+			if (wall.isPartition())
+				continue;
+			if (i % skip == 0) {
+				countPartiter(); // side effect: update progress bar
+			}
+			int grade = grades.grade(wall);
+			if (grade < bestgrade) {
+				bestgrade = grade;
+				result = wall;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * It finds the wall which has the minimum grade value with the threads of the pool.
+	 * Candidates and grades are the same as for the sequential search of the grading,
+	 * see {@link #findSplitter(List)} and {@link #findSplitterBySortedGrading(List)}.
+	 * Candidates are collected and partition iterations are counted on the executing thread first,
+	 * then chunks of candidates are graded in parallel and the first candidate with
+	 * the smallest grade wins, so the result is the same as for the sequential search.
+	 * @param walls list of walls, remains unchanged
+	 * @return wall that is best candidate according to grade partition (smallest grade)
+	 * @throws InterruptedException if its executing thread is interrupted
+	 */
+	private Wall findSplitterInParallel(List<Wall> walls) throws InterruptedException {
+		final boolean sorted = (grading == Grading.Sorted);
+		final SortedGrading grades = sorted ? new SortedGrading(walls) : null;
+		final int skip = Math.max(1, walls.size() / 50); // stride of findSplitter
+		final int step = sorted ? 1 : skip;
+		final int[] candidates = new int[(walls.size() + step - 1) / step];
+		int count = 0;
+		for (int i = 0; i < walls.size(); i += step) {
+			if (walls.get(i).isPartition())
+				continue;
+			if (i % skip == 0) {
+				countPartiter(); // side effect: update progress bar
+			}
+			candidates[count++] = i;
+		}
+		if (count == 0)
+			return null;
+		// grades only read the walls, each chunk writes its own range of the array
+		final int[] candidateGrades = new int[count];
+		final int total = count;
+		final int chunks = Math.min(count, 4*parallelism);
+		pool.invoke(new ChunkTask(0, chunks, chunk -> {
+			final int end = (int) ((long) (chunk + 1) * total / chunks);
+			for (int c = (int) ((long) chunk * total / chunks); c < end; c++) {
+				final Wall wall = walls.get(candidates[c]);
+				candidateGrades[c] = sorted ? grades.grade(wall) : wall.calculateGrade(walls);
+			}
+		}));
+		Wall result = null ;
+		int bestgrade = sorted ? Integer.MAX_VALUE : 5000; // same initial values as the sequential searches
+		for (int c = 0; c < count; c++) {
+			if (candidateGrades[c] < bestgrade) {
+				bestgrade = candidateGrades[c];
+				result = walls.get(candidates[c]);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Counts a partition iteration and updates the progress bar every 32 iterations.
+	 * In a parallel build, the iteration is only counted and the calling thread
+	 * reports progress, see {@link #generateInParallel(List)}.
+	 * @throws InterruptedException if its executing thread is interrupted or the parallel build is stopped
+	 */
+	private void countPartiter() throws InterruptedException {
+		if (progress != null) {
+			progress.incrementAndGet();
+			if (cancelled)
+				throw new InterruptedException("BSP construction stopped");
+			return;
+		}
+		partiters++;
+		if ((partiters & 31) == 0) {
+			updateProgressBar(partiters);
+		}
+	}
+
 	/**
 	 * Push information on progress into maze such that UI can update progress bar
 	 * @param partiters counting partition iterations (precise semantics obscure)
@@ -218,7 +408,84 @@ public class BSPBuilder {
 		
 		// Start the recursive BSP calculation for the list of polygons
 		// and return the root node of the tree
-		return genNodes(walls); 
+		if (parallelism == 1)
+			return genNodes(walls);
+		pool = new ForkJoinPool(parallelism);
+		progress = new AtomicInteger(partiters);
+		cancelled = false;
+		try {
+			return generateInParallel(walls);
+		}
+		finally {
+			// tasks that still run stop at their next partition iteration,
+			// wait for them such that no task changes walls after this method returns
+			cancelled = true;
+			pool.shutdownNow();
+			try {
+				pool.awaitTermination(10, TimeUnit.SECONDS);
+			}
+			catch (InterruptedException ex) {
+				// keep the interrupt for the caller, the build itself is complete or already stopped
+				Thread.currentThread().interrupt();
+			}
+			pool = null;
+			partiters = progress.get();
+			progress = null;
+		}
+	}
+
+	/**
+	 * Builds the tree on the threads of the pool, while the calling thread
+	 * waits for it, reports progress and notices if it is interrupted.
+	 * The tree is the same as for a sequential build as each subtree only
+	 * depends on its list of walls.
+	 * @param walls the list of walls (polygons) to partition
+	 * @return root node for BSP tree
+	 * @throws InterruptedException if the calling thread is interrupted
+	 */
+	private BSPNode generateInParallel(List<Wall> walls) throws InterruptedException {
+		final Subtree root = new Subtree(walls);
+		pool.execute(root);
+		while (true) {
+			try {
+				// wait as long as updateProgressBar sleeps to give the main thread a chance
+				return root.get(10, TimeUnit.MILLISECONDS);
+			}
+			catch (TimeoutException ex) {
+				if (null != order)
+					order.updateProgress(progress.get()*100/expectedPartiters);
+			}
+			catch (ExecutionException ex) {
+				if (ex.getCause() instanceof RuntimeException)
+					throw (RuntimeException) ex.getCause();
+				if (ex.getCause() instanceof Error)
+					throw (Error) ex.getCause();
+				throw new IllegalStateException(ex.getCause());
+			}
+		}
+	}
+
+	/**
+	 * Builds the subtree for a list of walls as a fork-join task.
+	 */
+	private class Subtree extends RecursiveTask<BSPNode> {
+		private static final long serialVersionUID = 1L;
+		private final List<Wall> walls;
+
+		Subtree(List<Wall> walls) {
+			this.walls = walls;
+		}
+
+		@Override
+		protected BSPNode compute() {
+			try {
+				return genNodes(walls);
+			}
+			catch (InterruptedException ex) {
+				// only happens if the calling thread stopped the build
+				throw new CancellationException(ex.getMessage());
+			}
+		}
 	}
 
 	/**
@@ -0,0 +1,238 @@
+package generation;
+
+import java.util.BitSet;
+
+/**
+ * Storage for a Floorplan that keeps one bitset per flag,
+ * a bit plane, instead of one integer per cell.
+ * There is a plane for each of the four wallboards, each of the four borders,
+ * the visited flag and the in-room flag, i.e. for the bits
+ * {@code CW_TOP} up to {@code CW_IN_ROOM} of the Floorplan encoding.
+ * Bits above {@code CW_IN_ROOM} are not stored and read as zero.
+ *
+ * Each plane is a long array with one bit per cell in row-major order
+ * such that bulk operations over rows or rectangles process 64 cells
+ * with a single instruction. The representation also needs 10 bits
+ * per cell instead of 32.
+ */
+final class BitPlaneCellStorage implements CellStorage {
+	/** number of bit planes, bits 0 (CW_TOP) to 9 (CW_IN_ROOM) */
+	static final int PLANES = 10;
+	/** bitmask for all bits that are represented with a plane */
+	static final int PLANE_MASK = (1 << PLANES) - 1;
+
+	private final int width;
+	private final int height;
+	private final int size; // width*height
+	private final long[][] planes; // planes[p] holds bit p of all cells, cell i at bit (i & 63) of word (i >>> 6)
+
+	/**
+	 * Constructor, all values are zero.
+	 * @param width of the grid, {@code 0 <= width}
+	 * @param height of the grid, {@code 0 <= height}
+	 */
+	BitPlaneCellStorage(int width, int height) {
+		this.width = width;
+		this.height = height;
+		size = width*height;
+		planes = new long[PLANES][(size+63) >>> 6];
+	}
+	/**
+	 * Copy constructor
+	 * @param other provides dimensions and values
+	 */
+	private BitPlaneCellStorage(BitPlaneCellStorage other) {
+		width = other.width;
+		height = other.height;
+		size = other.size;
+		planes = new long[PLANES][];
+		for (int p = 0; p < PLANES; p++)
+			planes[p] = other.planes[p].clone();
+	}
+	@Override
+	public int getWidth() {
+		return width;
+	}
+	@Override
+	public int getHeight() {
+		return height;
+	}
+	@Override
+	public int get(int index) {
+		final int word = index >>> 6;
+		final long bit = 1L << index; // shift distance is taken modulo 64
+		int value = 0;
+		for (int p = 0; p < PLANES; p++) {
+			if ((planes[p][word] & bit) != 0)
+				value |= 1 << p;
+		}
+		return value;
+	}
+	@Override
+	public void set(int index, int value) {
+		final int word = index >>> 6;
+		final long bit = 1L << index;
+		for (int p = 0; p < PLANES; p++) {
+			if ((value & (1 << p)) != 0)
+				planes[p][word] |= bit;
+			else
+				planes[p][word] &= ~bit;
+		}
+	}
+	@Override
+	public void setBits(int index, int bitmask) {
+		final int word = index >>> 6;
+		final long bit = 1L << index;
+		for (int m = bitmask & PLANE_MASK; m != 0; m &= m-1) {
+			planes[Integer.numberOfTrailingZeros(m)][word] |= bit;
+		}
+	}
+	@Override
+	public void clearBits(int index, int bitmask) {
+		final int word = index >>> 6;
+		final long bit = 1L << index;
+		for (int m = bitmask & PLANE_MASK; m != 0; m &= m-1) {
+			planes[Integer.numberOfTrailingZeros(m)][word] &= ~bit;
+		}
+	}
+	@Override
+	public boolean hasBits(int index, int bitmask) {
+		final int word = index >>> 6;
+		final long bit = 1L << index;
+		for (int m = bitmask & PLANE_MASK; m != 0; m &= m-1) {
+			if ((planes[Integer.numberOfTrailingZeros(m)][word] & bit) != 0)
+				return true;
+		}
+		return false;
+	}
+	@Override
+	public CellStorage copy() {
+		return new BitPlaneCellStorage(this);
+	}
+	/////////////////////// bulk operations, word parallel /////////////////
+	@Override
+	public void setBitsInArea(int x0, int y0, int x1, int y1, int bitmask) {
+		for (int m = bitmask & PLANE_MASK; m != 0; m &= m-1) {
+			final long[] plane = planes[Integer.numberOfTrailingZeros(m)];
+			if (x0 == 0 && x1 == width-1) { // full rows form a single range
+				setRange(plane, y0*width, (y1+1)*width);
+				continue;
+			}
+			for (int y = y0; y <= y1; y++)
+				setRange(plane, y*width+x0, y*width+x1+1);
+		}
+	}
+	@Override
+	public void clearBitsInArea(int x0, int y0, int x1, int y1, int bitmask) {
+		for (int m = bitmask & PLANE_MASK; m != 0; m &= m-1) {
+			final long[] plane = planes[Integer.numberOfTrailingZeros(m)];
+			if (x0 == 0 && x1 == width-1) { // full rows form a single range
+				clearRange(plane, y0*width, (y1+1)*width);
+				continue;
+			}
+			for (int y = y0; y <= y1; y++)
+				clearRange(plane, y*width+x0, y*width+x1+1);
+		}
+	}
+	@Override
+	public boolean hasBitsInArea(int x0, int y0, int x1, int y1, int bitmask) {
+		for (int m = bitmask & PLANE_MASK; m != 0; m &= m-1) {
+			final long[] plane = planes[Integer.numberOfTrailingZeros(m)];
+			for (int y = y0; y <= y1; y++) {
+				if (anyInRange(plane, y*width+x0, y*width+x1+1))
+					return true;
+			}
+		}
+		return false;
+	}
+	@Override
+	public int countCells(int bitmask) {
+		// bits beyond size are never set, so whole words can be counted
+		int result = 0;
+		final int words = (size+63) >>> 6;
+		for (int w = 0; w < words; w++) {
+			long union = 0;
+			for (int m = bitmask & PLANE_MASK; m != 0; m &= m-1) {
+				union |= planes[Integer.numberOfTrailingZeros(m)][w];
+			}
+			result += Long.bitCount(union);
+		}
+		return result;
+	}
+	@Override
+	public void markDifferences(CellStorage other, BitSet result) {
+		if (!(other instanceof BitPlaneCellStorage)) {
+			CellStorage.super.markDifferences(other, result);
+			return;
+		}
+		final long[][] o = ((BitPlaneCellStorage)other).planes;
+		final int words = (size+63) >>> 6;
+		for (int w = 0; w < words; w++) {
+			long diff = 0;
+			for (int p = 0; p < PLANES; p++) {
+				diff |= planes[p][w] ^ o[p][w];
+			}
+			for (; diff != 0; diff &= diff-1) {
+				result.set((w << 6) + Long.numberOfTrailingZeros(diff));
+			}
+		}
+	}
+	/**
+	 * Sets bits {@code [from,to)} of the given plane to one.
+	 */
+	private static void setRange(long[] plane, int from, int to) {
+		if (from >= to)
+			return;
+		final int first = from >>> 6;
+		final int last = (to-1) >>> 6;
+		final long firstMask = -1L << from; // shift distances are taken modulo 64
+		final long lastMask = -1L >>> -to;
+		if (first == last) {
+			plane[first] |= firstMask & lastMask;
+			return;
+		}
+		plane[first] |= firstMask;
+		for (int w = first+1; w < last; w++)
+			plane[w] = -1L;
+		plane[last] |= lastMask;
+	}
+	/**
+	 * Sets bits {@code [from,to)} of the given plane to zero.
+	 */
+	private static void clearRange(long[] plane, int from, int to) {
+		if (from >= to)
+			return;
+		final int first = from >>> 6;
+		final int last = (to-1) >>> 6;
+		final long firstMask = -1L << from;
+		final long lastMask = -1L >>> -to;
+		if (first == last) {
+			plane[first] &= ~(firstMask & lastMask);
+			return;
+		}
+		plane[first] &= ~firstMask;
+		for (int w = first+1; w < last; w++)
+			plane[w] = 0L;
+		plane[last] &= ~lastMask;
+	}
+	/**
+	 * Tells if any of the bits {@code [from,to)} of the given plane is one.
+	 */
+	private static boolean anyInRange(long[] plane, int from, int to) {
+		if (from >= to)
+			return false;
+		final int first = from >>> 6;
+		final int last = (to-1) >>> 6;
+		final long firstMask = -1L << from;
+		final long lastMask = -1L >>> -to;
+		if (first == last)
+			return (plane[first] & firstMask & lastMask) != 0;
+		if ((plane[first] & firstMask) != 0)
+			return true;
+		for (int w = first+1; w < last; w++) {
+			if (plane[w] != 0)
+				return true;
+		}
+		return (plane[last] & lastMask) != 0;
+	}
+}
@@ -0,0 +1,65 @@
+package generation;
+
+/**
+ * Storage with a single byte per cell in row-major order
+ * for values in {@code [0,255]}, e.g. encoded directions during
+ * maze generation. Values outside this range are truncated
+ * to their lowest 8 bits.
+ */
+final class ByteCellStorage implements CellStorage {
+	private final int width;
+	private final int height;
+	private final byte[] cells; // cell (x,y) is at cells[y*width+x]
+
+	/**
+	 * Constructor, all values are zero.
+	 * @param width of the grid, {@code 0 <= width}
+	 * @param height of the grid, {@code 0 <= height}
+	 */
+	ByteCellStorage(int width, int height) {
+		this.width = width;
+		this.height = height;
+		cells = new byte[width*height];
+	}
+	/**
+	 * Copy constructor
+	 * @param other provides dimensions and values
+	 */
+	private ByteCellStorage(ByteCellStorage other) {
+		width = other.width;
+		height = other.height;
+		cells = other.cells.clone();
+	}
+	@Override
+	public int getWidth() {
+		return width;
+	}
+	@Override
+	public int getHeight() {
+		return height;
+	}
+	@Override
+	public int get(int index) {
+		return cells[index] & 0xFF;
+	}
+	@Override
+	public void set(int index, int value) {
+		cells[index] = (byte) value;
+	}
+	@Override
+	public void setBits(int index, int bitmask) {
+		cells[index] |= (byte) bitmask;
+	}
+	@Override
+	public void clearBits(int index, int bitmask) {
+		cells[index] &= (byte) ~bitmask;
+	}
+	@Override
+	public boolean hasBits(int index, int bitmask) {
+		return (cells[index] & 0xFF & bitmask) != 0;
+	}
+	@Override
+	public CellStorage copy() {
+		return new ByteCellStorage(this);
+	}
+}
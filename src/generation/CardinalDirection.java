@@ -24,6 +24,16 @@ package generation;
  */
 public enum CardinalDirection {
 	North, East, South, West ;
+	
+	// (dx,dy) pairs indexed by ordinal, same as Floorplan.DX_BY_DIRECTION and DY_BY_DIRECTION
+	private static final int[] DX = { 0, 1, 0, -1 };
+	private static final int[] DY = { -1, 0, 1, 0 };
+	/**
+	 * All directions indexed by ordinal. Unlike values() this does not 
+	 * create a new array with each call. Do not modify.
+	 */
+	static final CardinalDirection[] VALUES = values();
+	
 	/** 
 	 * Gives the direction that results from a 90 degree clockwise rotation
 	 * applied to the current direction. 
@@ -113,7 +123,26 @@ public enum CardinalDirection {
 		}
 	}
 	/**
-	 * Gives the (dx,dy) pair as in Floorplan.java for the current direction
+	 * Gives the x component of the (dx,dy) pair as in Floorplan.java
+	 * for the current direction. Same as getDirection()[0] but 
+	 * without allocating an array.
+	 * @return dx in {-1,0,1}
+	 */
+	public int getDx() {
+		return DX[ordinal()] ;
+	}
+	/**
+	 * Gives the y component of the (dx,dy) pair as in Floorplan.java
+	 * for the current direction. Same as getDirection()[1] but 
+	 * without allocating an array.
+	 * @return dy in {-1,0,1}
+	 */
+	public int getDy() {
+		return DY[ordinal()] ;
+	}
+	/**
+	 * Gives the (dx,dy) pair as in Floorplan.java for the current direction.
+	 * Each call delivers a new array, loops should use getDx() and getDy() instead.
 	 * @return (dx,dy) pair, dx,dy in {-1,0,1}
 	 */
 	public int[] getDirection() {
@@ -0,0 +1,224 @@
+package generation;
+
+import java.util.BitSet;
+
+/**
+ * Stores one integer value per cell of a rectangular grid for the Floorplan.
+ * The Floorplan class is responsible for the meaning of the bits,
+ * a storage only keeps values and performs bit operations on them.
+ * Storages that keep full integers also serve for distance values
+ * and other per cell data of the maze generation.
+ *
+ * Cells are addressed by an index in row-major order,
+ * cell (x,y) has index {@code y*width+x}.
+ *
+ * The bulk operations on rectangular areas have a default implementation
+ * that works cell by cell. Implementations override them if their
+ * representation allows for something faster.
+ *
+ * All methods assume that indices and coordinates are in their legal
+ * range such that no additional parameter checks are performed.
+ */
+interface CellStorage {
+	/**
+	 * Creates a storage for floorplan cells with the given representation.
+	 * @param storage the kind of representation, not null
+	 * @param width of the grid, {@code 0 <= width}
+	 * @param height of the grid, {@code 0 <= height}
+	 * @return a new storage where all values are zero
+	 */
+	static CellStorage create(Floorplan.Storage storage, int width, int height) {
+		switch (storage) {
+		case BitPlane :
+			return new BitPlaneCellStorage(width, height);
+		case Mapped :
+			return new MappedCellStorage(width, height);
+		case Tiled :
+			return new TiledCellStorage(width, height);
+		case Dense :
+		default:
+			return new DenseCellStorage(width, height);
+		}
+	}
+	/**
+	 * Creates a storage for arbitrary integer values such as distances
+	 * that keeps its content in the same place as the given representation,
+	 * i.e. in a mapped file for Mapped, in lazily allocated tiles for Tiled
+	 * and in a single array on the heap otherwise.
+	 * Bit planes only hold the flags of a floorplan, so they are
+	 * replaced by a dense storage.
+	 * @param storage the kind of representation, not null
+	 * @param width of the grid, {@code 0 <= width}
+	 * @param height of the grid, {@code 0 <= height}
+	 * @return a new storage where all values are zero
+	 */
+	static CellStorage createForIntegers(Floorplan.Storage storage, int width, int height) {
+		switch (storage) {
+		case Mapped :
+			return new MappedCellStorage(width, height);
+		case Tiled :
+			return new TiledCellStorage(width, height);
+		default:
+			return new DenseCellStorage(width, height);
+		}
+	}
+	/**
+	 * Creates a storage for small values in {@code [0,255]} such as encoded directions
+	 * that keeps its content in the same place as the given representation.
+	 * On the heap, a single byte per cell is used unless the representation is Tiled.
+	 * @param storage the kind of representation, not null
+	 * @param width of the grid, {@code 0 <= width}
+	 * @param height of the grid, {@code 0 <= height}
+	 * @return a new storage where all values are zero
+	 */
+	static CellStorage createForBytes(Floorplan.Storage storage, int width, int height) {
+		switch (storage) {
+		case Mapped :
+		case Tiled :
+			return createForIntegers(storage, width, height);
+		default:
+			return new ByteCellStorage(width, height);
+		}
+	}
+	/**
+	 * Gives the width of the grid.
+	 * @return the width
+	 */
+	int getWidth();
+	/**
+	 * Gives the height of the grid.
+	 * @return the height
+	 */
+	int getHeight();
+	/**
+	 * Gets the value of a cell.
+	 * @param index of the cell, {@code 0 <= index < width*height}
+	 * @return the value of the cell
+	 */
+	int get(int index);
+	/**
+	 * Sets the value of a cell.
+	 * @param index of the cell, {@code 0 <= index < width*height}
+	 * @param value the new value
+	 */
+	void set(int index, int value);
+	/**
+	 * Sets all bits of the given bitmask to one for a cell.
+	 * @param index of the cell, {@code 0 <= index < width*height}
+	 * @param bitmask the bits to set
+	 */
+	void setBits(int index, int bitmask);
+	/**
+	 * Sets all bits of the given bitmask to zero for a cell.
+	 * @param index of the cell, {@code 0 <= index < width*height}
+	 * @param bitmask the bits to clear
+	 */
+	void clearBits(int index, int bitmask);
+	/**
+	 * Tells if any bit of the given bitmask is one for a cell.
+	 * @param index of the cell, {@code 0 <= index < width*height}
+	 * @param bitmask the bits to check
+	 * @return true if {@code (value & bitmask) != 0}, false otherwise
+	 */
+	boolean hasBits(int index, int bitmask);
+	/**
+	 * Delivers an independent copy of this storage with the same content
+	 * and the same kind of representation.
+	 * @return the copy
+	 */
+	CellStorage copy();
+
+	/////////////////////// bulk operations ////////////////////////////////
+	/**
+	 * Sets all cells to the given value.
+	 * @param value the new value for all cells
+	 */
+	default void fill(int value) {
+		final int size = getWidth()*getHeight();
+		for (int i = 0; i < size; i++) {
+			set(i, value);
+		}
+	}
+	/**
+	 * Sets all bits of the given bitmask to one for all cells
+	 * in the rectangular area with corners (x0,y0) and (x1,y1).
+	 * Precondition {@code 0 <= x0 <= x1 < width, 0 <= y0 <= y1 < height}
+	 * @param x0 upper left corner, x coordinate
+	 * @param y0 upper left corner, y coordinate
+	 * @param x1 lower right corner, x coordinate
+	 * @param y1 lower right corner, y coordinate
+	 * @param bitmask the bits to set
+	 */
+	default void setBitsInArea(int x0, int y0, int x1, int y1, int bitmask) {
+		for (int y = y0; y <= y1; y++) {
+			for (int x = x0; x <= x1; x++) {
+				setBits(y*getWidth()+x, bitmask);
+			}
+		}
+	}
+	/**
+	 * Sets all bits of the given bitmask to zero for all cells
+	 * in the rectangular area with corners (x0,y0) and (x1,y1).
+	 * Precondition {@code 0 <= x0 <= x1 < width, 0 <= y0 <= y1 < height}
+	 * @param x0 upper left corner, x coordinate
+	 * @param y0 upper left corner, y coordinate
+	 * @param x1 lower right corner, x coordinate
+	 * @param y1 lower right corner, y coordinate
+	 * @param bitmask the bits to clear
+	 */
+	default void clearBitsInArea(int x0, int y0, int x1, int y1, int bitmask) {
+		for (int y = y0; y <= y1; y++) {
+			for (int x = x0; x <= x1; x++) {
+				clearBits(y*getWidth()+x, bitmask);
+			}
+		}
+	}
+	/**
+	 * Tells if any cell in the rectangular area with corners (x0,y0) and (x1,y1)
+	 * has any bit of the given bitmask set to one.
+	 * Precondition {@code 0 <= x0 <= x1 < width, 0 <= y0 <= y1 < height}
+	 * @param x0 upper left corner, x coordinate
+	 * @param y0 upper left corner, y coordinate
+	 * @param x1 lower right corner, x coordinate
+	 * @param y1 lower right corner, y coordinate
+	 * @param bitmask the bits to check
+	 * @return true if there is such a cell, false otherwise
+	 */
+	default boolean hasBitsInArea(int x0, int y0, int x1, int y1, int bitmask) {
+		for (int y = y0; y <= y1; y++) {
+			for (int x = x0; x <= x1; x++) {
+				if (hasBits(y*getWidth()+x, bitmask))
+					return true;
+			}
+		}
+		return false;
+	}
+	/**
+	 * Counts the cells that have any bit of the given bitmask set to one.
+	 * @param bitmask the bits to check
+	 * @return the number of cells with {@code (value & bitmask) != 0}
+	 */
+	default int countCells(int bitmask) {
+		int result = 0;
+		final int size = getWidth()*getHeight();
+		for (int i = 0; i < size; i++) {
+			if (hasBits(i, bitmask))
+				result++;
+		}
+		return result;
+	}
+	/**
+	 * Sets the bit for each cell index where the value differs from
+	 * the value in the other storage.
+	 * Precondition: both storages have the same dimensions.
+	 * @param other the storage to compare with, not null
+	 * @param result receives the indices of cells that differ, not null
+	 */
+	default void markDifferences(CellStorage other, BitSet result) {
+		final int size = getWidth()*getHeight();
+		for (int i = 0; i < size; i++) {
+			if (get(i) != other.get(i))
+				result.set(i);
+		}
+	}
+}
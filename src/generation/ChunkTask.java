@@ -0,0 +1,42 @@
+package generation;
+
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+/**
+ * A fork-join task that performs an action for each chunk in a range of chunks.
+ * It splits the range in halves until a single chunk remains, so the chunks
+ * run on the threads of the pool that invokes the task.
+ * What a chunk stands for, e.g. a range of indices or a tile of the maze,
+ * is up to the action.
+ *
+ * It is used by the builders that run parts of the generation in parallel.
+ */
+final class ChunkTask extends RecursiveAction {
+	private static final long serialVersionUID = 1L;
+	private final int from; // first chunk
+	private final int to; // chunk after the last one
+	private final IntConsumer action; // takes the number of a chunk
+
+	/**
+	 * Constructor
+	 * @param from the first chunk
+	 * @param to the chunk after the last one, {@code from < to}
+	 * @param action the action to perform for each chunk
+	 */
+	ChunkTask(int from, int to, IntConsumer action) {
+		this.from = from;
+		this.to = to;
+		this.action = action;
+	}
+
+	@Override
+	protected void compute() {
+		if (to - from == 1) {
+			action.accept(from);
+			return;
+		}
+		final int middle = (from + to) >>> 1;
+		invokeAll(new ChunkTask(from, middle, action), new ChunkTask(middle, to, action));
+	}
+}
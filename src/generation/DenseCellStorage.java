@@ -0,0 +1,94 @@
+package generation;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Default storage for a Floorplan with a single int array
+ * in row-major order, one integer per cell.
+ */
+final class DenseCellStorage implements CellStorage {
+	private final int width;
+	private final int height;
+	private final int[] cells; // cell (x,y) is at cells[y*width+x]
+
+	/**
+	 * Constructor, all values are zero.
+	 * @param width of the grid, {@code 0 <= width}
+	 * @param height of the grid, {@code 0 <= height}
+	 */
+	DenseCellStorage(int width, int height) {
+		this.width = width;
+		this.height = height;
+		cells = new int[width*height];
+	}
+	/**
+	 * Copy constructor
+	 * @param other provides dimensions and values
+	 */
+	private DenseCellStorage(DenseCellStorage other) {
+		width = other.width;
+		height = other.height;
+		cells = other.cells.clone();
+	}
+	@Override
+	public int getWidth() {
+		return width;
+	}
+	@Override
+	public int getHeight() {
+		return height;
+	}
+	@Override
+	public int get(int index) {
+		return cells[index];
+	}
+	@Override
+	public void set(int index, int value) {
+		cells[index] = value;
+	}
+	@Override
+	public void setBits(int index, int bitmask) {
+		cells[index] |= bitmask;
+	}
+	@Override
+	public void clearBits(int index, int bitmask) {
+		cells[index] &= ~bitmask;
+	}
+	@Override
+	public boolean hasBits(int index, int bitmask) {
+		return (cells[index] & bitmask) != 0;
+	}
+	@Override
+	public CellStorage copy() {
+		return new DenseCellStorage(this);
+	}
+	@Override
+	public void fill(int value) {
+		Arrays.fill(cells, value);
+	}
+	@Override
+	public void setBitsInArea(int x0, int y0, int x1, int y1, int bitmask) {
+		for (int y = y0; y <= y1; y++) {
+			final int end = y*width+x1;
+			for (int i = y*width+x0; i <= end; i++) {
+				cells[i] |= bitmask;
+			}
+		}
+	}
+	@Override
+	public void markDifferences(CellStorage other, BitSet result) {
+		if (other instanceof DenseCellStorage) {
+			final int[] o = ((DenseCellStorage)other).cells;
+			// fast path, most floorplans that are compared are equal
+			if (Arrays.equals(cells, o))
+				return;
+			for (int i = 0; i < cells.length; i++) {
+				if (cells[i] != o[i])
+					result.set(i);
+			}
+			return;
+		}
+		CellStorage.super.markDifferences(other, result);
+	}
+}
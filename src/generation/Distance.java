@@ -3,10 +3,13 @@ package generation;
 /**
  * This class has the responsibility to provide the distance
  * for each cell to the exit of a maze.
- * It represents this information as a matrix, a 2D integer array.
+ * It represents this information as a matrix with one integer per cell.
  * Its dimensions and positioning of (x,y) coordinates matches
  * with the same notion in the Cells.java class
  * that represents the walls for the maze.
+ * The values are kept on the heap by default or in a memory-mapped
+ * file for mazes that are too large for the heap, 
+ * see {@link #Distance(int, int, Floorplan.Storage)}.
  *  
  * All methods assume that given (x,y) coordinates are
  * with its legal range {@code[0,width-1],[0,height-1]}
@@ -40,14 +43,24 @@ public class Distance {
 	/**
 	 * A matrix of dimension (width x height) with 
 	 * distance values to the exit of a maze.
-	 * The use of indices between Distance and Cells internal 2D matrices
-	 * is consistent such that (i,j) in dists refers to the same 
-	 * position in cells.
-	 * Warning: class does not enforce encapsulation
-	 * on dists. There are ways to set this reference,
-	 * obtain it and manipulate its content. 
-	 */
-	private int[][] dists; 
+	 * The indexing is the same row-major order as in the Floorplan
+	 * such that index y*width+x in dists refers to the same 
+	 * position (x,y) in cells.
+	 */
+	private CellStorage dists; 
+	/**
+	 * The representation used for dists, also used for directions.
+	 */
+	private Floorplan.Storage storage = Floorplan.Storage.Dense;
+	/**
+	 * Direction towards the exit for each cell, computed alongside the distances.
+	 * Holds 2 bits per cell, the ordinal of a CardinalDirection, and 16 cells per integer,
+	 * cell i of the floorplan is at bits {@code 2*(i & 15)} of value {@code i >>> 4}.
+	 * The value for the exit position is meaningless.
+	 * Allocated on first use, only valid if hasDirections is true.
+	 */
+	private CellStorage directions;
+	private boolean hasDirections; // true if directions match the current distance values
 	/** 
 	 * The exit position has a distance of 1
 	 * which is also the minimum of all values in dists.
@@ -65,6 +78,11 @@ public class Distance {
 	 * to this instance.
 	 */
 	private int[] startPosition;
+	/**
+	 * Work queue for the breadth first search in computeDists,
+	 * allocated on first use and reused for subsequent computations.
+	 */
+	private IntRingBuffer queue;
 	// Memo: the start position is also stored in the MazeContainer, supports a set method
 	// this could lead to inconsistent settings between MazeContainer and Distance object at runtime.
 	// TODO: avoid redundancy of start position, remove startPosition from Distance, replease with getPositionWithMaxDistance
@@ -75,14 +93,26 @@ public class Distance {
 	 * @param h is the height of the maze in the vertical direction
 	 */
 	public Distance(int w, int h) {
-		// note: method call below sets width, height, dists,
-		// exitPosition and startPosition
-		setAllDistanceValues(new int[w][h]);
+		this(w, h, Floorplan.Storage.Dense);
+	}
+	/**
+	 * Constructor that keeps distance values in the same place
+	 * as a floorplan with the given representation.
+	 * For Mapped, values are kept in a memory-mapped file outside of the heap,
+	 * otherwise they are kept in an array on the heap.
+	 * @param w is the width of the maze in the horizontal direction
+	 * @param h is the height of the maze in the vertical direction
+	 * @param storage the representation of the corresponding floorplan, not null
+	 */
+	public Distance(int w, int h, Floorplan.Storage storage) {
+		width = w;
+		height = h;
+		this.storage = storage;
+		dists = CellStorage.createForIntegers(storage, w, h);
 	}
 	/**
-	 * Constructor that directly uses the given reference.
-	 * Warning: the given parameter is shared, not copied. 
-	 * This breaks encapsulation and can have side effects.
+	 * Constructor that takes its values from the given matrix.
+	 * The values are copied, later changes to the matrix have no effect.
 	 * This constructor is currently only used in the
 	 * MazeFileReader to hand a 2D array
 	 * that is parsed from a file to a Distance object. 
@@ -94,19 +124,28 @@ public class Distance {
 		setAllDistanceValues(distances);
 	}
 	/**
-	 * Sets the internal attribute to the given parameter value.
-	 * Can be used to provide precomputed distance values to an object
-	 * or to use an existing array and have its values computed
-	 * by a subsequent call to {@link #computeDistances(Floorplan)} computeDistances.
-	 * Warning, the array is not copied but directly shared with the environment
-	 * that provides it! This can have undesired side effects. Handle with care!
+	 * Sets all distance values to the values of the given matrix.
+	 * Can be used to provide precomputed distance values to an object.
+	 * The values are copied, the matrix is not shared with this object.
+	 * If the dimensions match the current ones, the current representation
+	 * is kept, otherwise values are kept on the heap.
 	 * @param distances is an array with distance values to the exit, can not be null
 	 */
 	public void setAllDistanceValues(int[][] distances) {
 		// side constraint: dists must be of dimension width x height
-		width = distances.length;
-		height = distances[0].length;
-		this.dists = distances;
+		if (null == dists || width != distances.length || height != distances[0].length) {
+			width = distances.length;
+			height = distances[0].length;
+			storage = Floorplan.Storage.Dense;
+			dists = new DenseCellStorage(width, height);
+			directions = null;
+		}
+		for (int x = 0; x < width; x++) {
+			for (int y = 0; y < height; y++) {
+				dists.set(y*width+x, distances[x][y]);
+			}
+		}
+		hasDirections = false;
 		// reset exit and start positions
 		// note: lazy evaluation in the sense that positions are
 		// computed on demand and then cached on corresponding
@@ -115,14 +154,22 @@ public class Distance {
 		startPosition = null;
 	}
 	/**
-	 * Gets access to a width x height array of distances. 
-	 * Warning, this exposes the internal attribute
-	 * and is intended for read access only. 
-	 * Do not modify entries of the returned array.
+	 * Gets a width x height array of distances. 
+	 * The array is a copy, changes to it have no effect on this object.
+	 * Each call allocates a new copy, so callers that need it more than once
+	 * keep the result instead of calling it in a loop.
+	 * Note that the array is allocated on the heap, for very large mazes
+	 * use {@link #getDistanceValue(int, int)} instead.
 	 * @return array with distance values
 	 */
 	public int[][] getAllDistanceValues() {
-		return dists;
+		int[][] result = new int[width][height];
+		for (int x = 0; x < width; x++) {
+			for (int y = 0; y < height; y++) {
+				result[x][y] = dists.get(y*width+x);
+			}
+		}
+		return result;
 	}
 	/**
 	 * Gets the distance value for the given (x,y) position
@@ -131,7 +178,7 @@ public class Distance {
 	 * @return the distance value for the given (x,y) position
 	 */
 	public int getDistanceValue(int x, int y) {
-		return dists[x][y] ;
+		return dists.get(y*width+x) ;
 	}
 	/**
 	 * Compute distances for given cells object of a maze.
@@ -164,8 +211,133 @@ public class Distance {
 		exitPosition = getPositionWithMaxDistanceOnBorder();
 		// Step 2: compute distances with regards to the exit position
 		computeDists(cells, exitPosition[0], exitPosition[1]);
+		// Step 3: memorize the direction towards the exit for each cell
+		computeDirectionsToExit(cells);
 		return exitPosition ;
 	}
+	/**
+	 * Computes distances to the given target position instead of an exit
+	 * position that is chosen on the border. The target takes the role of 
+	 * the exit position, it has the minimum distance 1, and directions towards
+	 * the exit lead to the target. Cells are not modified.
+	 * @param cells with information on wallboards for a maze, can not be null, read only
+	 * @param x is the x coordinate of the target, {@code 0 <= x < width}
+	 * @param y is the y coordinate of the target, {@code 0 <= y < height}
+	 */
+	public void computeDistancesTo(Floorplan cells, int x, int y) {
+		computeDists(cells, x, y);
+		exitPosition = new int[] {x, y};
+		startPosition = null;
+		computeDirectionsToExit(cells);
+	}
+	/**
+	 * Computes distances to the given target position as
+	 * {@link #computeDistancesTo(Floorplan, int, int)} does, but searches
+	 * the junction graph of the maze instead of the grid of cells such that
+	 * corridors are passed in a single step.
+	 * @param graph is the junction graph of a maze of size (width x height), can not be null, read only
+	 * @param x is the x coordinate of the target, {@code 0 <= x < width}
+	 * @param y is the y coordinate of the target, {@code 0 <= y < height}
+	 */
+	public void computeDistancesTo(JunctionGraph graph, int x, int y) {
+		assert graph.getWidth() == width && graph.getHeight() == height : "Graph must match dimensions";
+		hasDirections = false;
+		graph.computeDistances(x, y, dists);
+		assert (0 == countInfinity()) : "All positions should have a finite distance to the target";
+		exitPosition = new int[] {x, y};
+		startPosition = null;
+		computeDirectionsToExit(graph.getFloorplan());
+	}
+	/**
+	 * Gives the number of bytes that this object uses for distance values
+	 * and directions, an estimate for the memory it occupies.
+	 * @return the size in bytes
+	 */
+	public long getSizeInBytes() {
+		final long size = (long)width*height;
+		return 4*size + 4*((size+15) >>> 4);
+	}
+	/**
+	 * Computes the direction towards the exit for all positions
+	 * from the current distance values. This happens as part of 
+	 * {@link #computeDistances(Floorplan) computeDistances} and only
+	 * needs to be called if distance values are set directly.
+	 * For each position, the direction leads to the first neighbor
+	 * in the order North, East, South, West that is reachable without
+	 * crossing a wallboard and that is one step closer to the exit.
+	 * @param cells with information on wallboards for a maze, can not be null, read only
+	 */
+	public void computeDirectionsToExit(Floorplan cells) {
+		final int size = width*height;
+		if (null == directions)
+			directions = CellStorage.createForIntegers(
+					(storage == Floorplan.Storage.Mapped) ? storage : Floorplan.Storage.Dense, (size+15) >>> 4, 1);
+		int word = 0;
+		for (int index = 0; index < size; index++) {
+			final int closer = dists.get(index) - 1;
+			if (closer > 0) { // the exit position has no direction
+				final int x = index % width;
+				final int y = index / width;
+				final int value = cells.getValueOfCell(index);
+				int dir = 0;
+				// note: the exit of the maze has no wallboard towards the outside,
+				// so bounds need to be checked if distances refer to some other position
+				while (dir < 4 && ((value & Floorplan.CW_BY_DIRECTION[dir]) != 0 
+						|| !isInside(x+Floorplan.DX_BY_DIRECTION[dir], y+Floorplan.DY_BY_DIRECTION[dir])
+						|| dists.get(index + neighborOffset(dir)) != closer)) {
+					dir++;
+				}
+				assert dir < 4 : "no neighbor closer to exit at " + x + ", " + y;
+				word |= (dir & 3) << ((index & 15) << 1);
+			}
+			if ((index & 15) == 15 || index == size-1) {
+				directions.set(index >>> 4, word);
+				word = 0;
+			}
+		}
+		hasDirections = true;
+	}
+	/**
+	 * Tells if directions towards the exit are available for the current distance values.
+	 * @return true if available, false if {@link #computeDirectionsToExit(Floorplan)} needs to be called
+	 */
+	public boolean hasDirectionsToExit() {
+		return hasDirections;
+	}
+	/**
+	 * Gives the direction towards the exit for the given (x,y) position.
+	 * Following this direction leads to an adjacent position whose distance
+	 * value is one less, there is no wallboard in between.
+	 * The method does not allocate memory, each step along the path to the 
+	 * exit takes constant time.
+	 * Assumes that computeDistances() was called before.
+	 * @param x is the x coordinate, {@code 0 <= x < width}
+	 * @param y is the y coordinate, {@code 0 <= y < height}
+	 * @return the direction towards the exit, null if (x,y) is the exit position
+	 */
+	public CardinalDirection getDirectionToExit(int x, int y) {
+		final int index = y*width+x;
+		if (dists.get(index) <= 1)
+			return null;
+		return CardinalDirection.VALUES[(directions.get(index >>> 4) >>> ((index & 15) << 1)) & 3];
+	}
+	/**
+	 * Tells if (x,y) is a position inside the maze.
+	 * @param x is the x coordinate
+	 * @param y is the y coordinate
+	 * @return true if {@code 0 <= x < width} and {@code 0 <= y < height}
+	 */
+	private boolean isInside(int x, int y) {
+		return 0 <= x && x < width && 0 <= y && y < height;
+	}
+	/**
+	 * Gives the difference of indices to the neighbor in the given direction.
+	 * @param dir ordinal of a CardinalDirection
+	 * @return the index offset
+	 */
+	private int neighborOffset(int dir) {
+		return Floorplan.DY_BY_DIRECTION[dir]*width + Floorplan.DX_BY_DIRECTION[dir];
+	}
 
 	/**
 	 * Gets the starting position.
@@ -251,9 +423,16 @@ public class Distance {
 	private int[] getPositionWithMaxDistance() {
 		int d = 0;
 		int[] result = new int[2] ;
-		for (int x = 0; x < width; x++) {
-			for (int y = 0; y < height; y++) {
-				d = keepMaxDistance(x, y, d, result);
+		// scan in storage order, ties go to the smallest x, then the smallest y
+		// which is the first maximum in a column by column scan
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				final int value = dists.get(y*width+x);
+				if (value > d || (value == d && x < result[0])) {
+					result[0] = x;
+					result[1] = y;
+					d = value;
+				}
 			}
 		}
 		//maxDistance = d ; // memorize maximal distance for other purposes
@@ -271,10 +450,11 @@ public class Distance {
 	 * @return the new maximum distance after the comparison
 	 */
 	private int keepMaxDistance(int x, int y, int d, int[] result) {
-		if (dists[x][y] > d) {
+		final int value = getDistanceValue(x, y);
+		if (value > d) {
 			result[0] = x;
 			result[1] = y;
-			d = dists[x][y];
+			d = value;
 		}
 		return d;
 	}
@@ -287,12 +467,14 @@ public class Distance {
 	private int[] getPositionWithMinDistance() {
 		int d = INFINITY ;
 		int[] result = new int[2] ;
-		for (int x = 0; x != width; x++)
-			for (int y = 0; y != height; y++) {
-				if (dists[x][y] < d) {
+		// scan in storage order, ties go to the smallest x, then the smallest y
+		for (int y = 0; y != height; y++)
+			for (int x = 0; x != width; x++) {
+				final int value = dists.get(y*width+x);
+				if (value < d || (value == d && x < result[0])) {
 					result[0] = x;
 					result[1] = y;
-					d = dists[x][y];
+					d = value;
 				}
 			}
 		return result ;
@@ -307,33 +489,99 @@ public class Distance {
 
 	/**
 	 * Computes distances to the given position (ax,ay) for all cells in array dists.
+	 * Performs a breadth first search that starts at (ax,ay) such that each cell
+	 * is put on the queue exactly once and receives its final (minimal) value
+	 * at that time. This is linear in the number of cells. 
 	 * @param cells with information on wallboards for a maze, can not be null
 	 * @param ax, position, x coordinate
 	 * @param ay, position, y coordinate
 	 */
 	private void computeDists(Floorplan cells, int ax, int ay) {
+		hasDirections = false; // no longer valid
+		// initialize the distance array with a value for infinity 
+		setAllDistanceValues(INFINITY) ;
+		// set the final distance at the exit position
+		dists.set(cells.getIndex(ax, ay), 1);
+		// the queue holds cells encoded with their index in the floorplan, i.e. y*width+x
+		// the frontier of a breadth first search in a maze is typically small
+		// so we start with a buffer proportional to the perimeter and let it grow if needed
+		if (null == queue)
+			queue = new IntRingBuffer(2*(width+height));
+		queue.clear();
+		queue.addLast(cells.getIndex(ax, ay));
+		while (!queue.isEmpty()) {
+			final int cell = queue.removeFirst();
+			final int x = cell % width;
+			final int y = cell / width;
+			final int nextDistance = dists.get(cell) + 1;
+			// check all four directions, no need to check for walls
+			// towards the outside as the border prevents that
+			// note: walls are checked from the perspective of the current cell
+			// exactly as in updateNeighborDistancesAndDirection
+			final int value = cells.getValueOfCell(cell);
+			if ((value & Floorplan.CW_TOP) == 0 && 0 < y)
+				visit(cell-width, nextDistance);
+			if ((value & Floorplan.CW_RIGHT) == 0 && x < width-1)
+				visit(cell+1, nextDistance);
+			if ((value & Floorplan.CW_BOT) == 0 && y < height-1)
+				visit(cell+width, nextDistance);
+			if ((value & Floorplan.CW_LEFT) == 0 && 0 < x)
+				visit(cell-1, nextDistance);
+		}
+		assert (0 == countInfinity()) : "All positions should have a finite distance to the exit";
+	}
+	/**
+	 * Assigns the given distance to a cell and puts it on the queue
+	 * if the cell has not been reached before. In a breadth first search
+	 * the first distance assigned to a cell is already its minimum.
+	 * @param index is the index of the cell in the floorplan
+	 * @param distance is the distance value for the cell
+	 */
+	private void visit(int index, int distance) {
+		if (dists.get(index) == INFINITY) {
+			dists.set(index, distance);
+			queue.addLast(index);
+		}
+	}
+	/**
+	 * Computes distances with the original fix-point iteration,
+	 * otherwise same as {@link #computeDistances(Floorplan) computeDistances}.
+	 * The computation is quadratic in the worst case and only 
+	 * kept as a reference for regression tests of the breadth first search.
+	 * @param cells with information on wallboards for a maze, can not be null, read only
+	 * @return exit position somewhere on the  border
+	 */
+	int[] computeDistancesByFixpoint(Floorplan cells) {
+		hasDirections = false;
+		computeDistsByFixpoint(cells, width/2, height/2);
+		exitPosition = getPositionWithMaxDistanceOnBorder();
+		computeDistsByFixpoint(cells, exitPosition[0], exitPosition[1]);
+		return exitPosition ;
+	}
+	/**
+	 * Computes distances to the given position (ax,ay) for all cells in array dists.
+	 * Original fix-point iteration that repeatedly scans the whole matrix.
+	 * @param cells with information on wallboards for a maze, can not be null
+	 * @param ax, position, x coordinate
+	 * @param ay, position, y coordinate
+	 */
+	private void computeDistsByFixpoint(Floorplan cells, int ax, int ay) {
 		//int x, y;
 		// initialize the distance array with a value for infinity 
 		setAllDistanceValues(INFINITY) ;
 		// set the final distance at the exit position
-		dists[ax][ay] = 1;
+		setDistanceValue(ax, ay, 1);
 		// distribute values from this position to get started
 		pushDistanceValuesDFS2(cells, ax, ay);
 		int toDoCounter = countInfinity();
 		int progress; // used to recognize fixpoint, no progress, then stop
 		// go over this array as long as we can find something to do
-		// MEMO: there are likely to be much smarter ways to distribute distances in a breadth first manner...
-		// why not push identified cells with infinite distance on a "work to do" heap
-		// TODO: limit iterations to upperbound which is #cells == width * height
-		// in each iteration at least one cell should benefit from neighbor
-		// in each iteration at least one cell should receive its final value
-		// TODO: do a final checkup for enclosed areas left over with Max Int
 		do {
 			// check all entries in the distance array
 			for (int x = 0; x != width; x++) {
 				for (int y = 0; y != height; y++) 
 				{
-					if (dists[x][y] == INFINITY) {
+					if (getDistanceValue(x, y) == INFINITY) {
 						continue;
 					}
 					// if the distance is not infinite, 
@@ -345,8 +593,6 @@ public class Distance {
 			progress = toDoCounter - countInfinity();
 			toDoCounter -= progress; // update to current value
 		} while (0 < progress);
-		//if (0 < countInfinity())
-		//	System.out.println("Distance: ERROR: All positions should have a finite distance to the exit, counted: " + countInfinity() );
 		assert (0 == countInfinity()) : "All positions should have a finite distance to the exit";
 		// the computation is not good enough to have truly minimum values
 		saturateDistances(cells);
@@ -364,9 +610,8 @@ public class Distance {
 			if (nextn == null)
 				break; // exit the loop if we cannot find another cell to proceed with
 			// update coordinates for next cell
-			int[] dir = nextn.getDirection();
-			sx += dir[0];
-			sy += dir[1];
+			sx += nextn.getDx();
+			sy += nextn.getDy();
 			// follow the nextn node on a depth-first-search path
 		}
 	}
@@ -377,11 +622,16 @@ public class Distance {
 	 * @param value
 	 */
 	private void setAllDistanceValues(int value) {
-		for (int x = 0; x < width; x++) {
-			for (int y = 0; y < height; y++) {
-				dists[x][y] = value ;
-			}
-		}
+		dists.fill(value) ; // a tiled storage keeps all tiles unallocated
+	}
+	/**
+	 * Sets the distance value for the given (x,y) position
+	 * @param x is the x coordinate, {@code 0 <= x < width}
+	 * @param y is the y coordinate, {@code 0 <= y < height}
+	 * @param value is the new distance value
+	 */
+	private void setDistanceValue(int x, int y, int value) {
+		dists.set(y*width+x, value) ;
 	}
 	/**
 	 * Counts how often infinity values is present in matrix
@@ -389,11 +639,10 @@ public class Distance {
 	 */
 	private int countInfinity() {
 		int result = 0;
-		for (int x = 0; x < width; x++) {
-			for (int y = 0; y < height; y++) {
-				if (dists[x][y] == INFINITY)
-					result++;
-			}
+		final int size = width*height;
+		for (int i = 0; i < size; i++) {
+			if (dists.get(i) == INFINITY)
+				result++;
 		}
 		return result;
 	}
@@ -407,25 +656,23 @@ public class Distance {
 	 */
 	private CardinalDirection updateNeighborDistancesAndDirection(Floorplan cells, int currentX, int currentY) {
 		CardinalDirection result = null; // returns null by default
-		int nextDistance = dists[currentX][currentY] + 1; // distance of a neighbor
-		int[] dir;
+		int nextDistance = getDistanceValue(currentX, currentY) + 1; // distance of a neighbor
 		int nextX;
 		int nextY;
 		// check all four directions, update distance as needed
-		for (CardinalDirection cd: CardinalDirection.values()) {
+		for (CardinalDirection cd: CardinalDirection.VALUES) {
 			// check for reachable neighbors
 			if (cells.hasNoWall(currentX, currentY, cd)) {
 				// check if neighbor is on board
-				dir = cd.getDirection();
-				nextX = currentX+dir[0];
-				nextY = currentY+dir[1];
+				nextX = currentX+cd.getDx();
+				nextY = currentY+cd.getDy();
 				// check if cell at (nextX,nextY) is within bounds
 				if ((0 <= nextX && nextX < width) && (0 <= nextY && nextY < height)) {
 					// check if neigbor's distance needs update
-					if (dists[nextX][nextY] > nextDistance) {
+					if (getDistanceValue(nextX, nextY) > nextDistance) {
 						// update the neighbor's distance value
 						// mark that cell as the next one
-						dists[nextX][nextY] = nextDistance;
+						setDistanceValue(nextX, nextY, nextDistance);
 						result = cd;
 					}
 				}
@@ -441,7 +688,6 @@ public class Distance {
 	private void saturateDistances(Floorplan cells) {
 		boolean progress = false; 
 		//int count = 0;
-		int[] dir = null;
 		CardinalDirection nextn;
 		do {
 			progress = false; // reset termination criterion
@@ -454,8 +700,7 @@ public class Distance {
 					if (null != nextn) {
 						progress = true; // something changed
 						// follow neighbor on a depth-first-search path
-						dir = nextn.getDirection();
-						pushDistanceValuesDFS2(cells, x+dir[0], y+dir[1]);		
+						pushDistanceValuesDFS2(cells, x+nextn.getDx(), y+nextn.getDy());		
 					}
 				}
 			}
@@ -0,0 +1,165 @@
+package generation;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * This class has the responsibility to provide distances to arbitrary
+ * target positions of a maze, not just to the exit.
+ * For a given target, it computes a distance field, a Distance object
+ * that holds the distance of each cell to the target, with Dijkstra's algorithm
+ * on the junction graph of the maze, which passes each corridor in a single step,
+ * see {@link JunctionGraph}. Corridor cells are filled in from both ends of their corridor.
+ *
+ * Distance fields are kept in a cache such that repeated queries for the same
+ * targets are answered without any computation. The cache is bounded by
+ * the number of bytes that its distance fields occupy and evicts the
+ * least recently used fields first. The junction graph is not part of that
+ * limit, it is built once, on the first miss, unless it is given at construction.
+ * Hits and misses are counted
+ * to evaluate how well the cache works for a given usage pattern.
+ *
+ * The floorplan is expected not to change while the cache is in use.
+ * Methods are synchronized as robots and the user interface may query
+ * distances from different threads.
+ */
+public class DistanceFieldCache {
+	/**
+	 * Default limit for the cache size, 16MB are sufficient for
+	 * more than 50 distance fields at the highest skill level.
+	 */
+	public static final long DEFAULT_MAX_BYTES = 16L*1024*1024;
+
+	private final Floorplan floorplan; // the maze layout, read only
+	private final int width;
+	private final int height;
+	private final long maxBytes; // upper limit for the sum of sizes of all cached fields
+	private JunctionGraph graph; // contracted view of the floorplan, searched for each miss
+	private long bytes; // current sum of sizes of all cached fields
+	private long hits; // number of queries answered from the cache
+	private long misses; // number of queries that required a computation
+	/**
+	 * Cached distance fields, the key is the index y*width+x of the target.
+	 * Iteration order is access order, so the first entry is the least recently used.
+	 */
+	private final LinkedHashMap<Integer, Distance> fields = new LinkedHashMap<>(16, 0.75f, true);
+
+	/**
+	 * Constructor
+	 * @param floorplan the maze layout to compute distances for, not null
+	 * @param width the width of the maze
+	 * @param height the height of the maze
+	 * @param maxBytes the maximum number of bytes for cached distance fields, {@code 0 <= maxBytes}
+	 */
+	public DistanceFieldCache(Floorplan floorplan, int width, int height, long maxBytes) {
+		this.floorplan = floorplan;
+		this.width = width;
+		this.height = height;
+		this.maxBytes = maxBytes;
+	}
+	/**
+	 * Constructor for a cache that computes fields on an existing junction graph,
+	 * e.g. the one that a maze shares with robot drivers.
+	 * @param graph the junction graph of the maze layout, not null
+	 * @param maxBytes the maximum number of bytes for cached distance fields, {@code 0 <= maxBytes}
+	 */
+	public DistanceFieldCache(JunctionGraph graph, long maxBytes) {
+		this(graph.getFloorplan(), graph.getWidth(), graph.getHeight(), maxBytes);
+		this.graph = graph;
+	}
+	/**
+	 * Gives the distance field for the given target position.
+	 * In the field, the target has distance 1 and takes the role of the
+	 * exit position, i.e. {@link Distance#getExitPosition()} gives the target and
+	 * {@link Distance#getDirectionToExit(int, int)} leads towards the target.
+	 * The returned object is shared and must not be modified.
+	 * A field that is larger than the maximum size of the cache
+	 * is computed but not cached.
+	 * @param x is the x coordinate of the target, {@code 0 <= x < width}
+	 * @param y is the y coordinate of the target, {@code 0 <= y < height}
+	 * @return the distance field for the target
+	 */
+	public synchronized Distance getDistanceField(int x, int y) {
+		assert 0 <= x && x < width && 0 <= y && y < height : "Invalid target position";
+		final Integer key = y*width+x;
+		Distance result = fields.get(key);
+		if (null != result) {
+			hits++;
+			return result;
+		}
+		misses++;
+		if (null == graph)
+			graph = new JunctionGraph(floorplan, width, height);
+		result = new Distance(width, height);
+		result.computeDistancesTo(graph, x, y);
+		final long size = result.getSizeInBytes();
+		if (size > maxBytes)
+			return result;
+		// evict least recently used fields until the new one fits
+		final Iterator<Map.Entry<Integer, Distance>> it = fields.entrySet().iterator();
+		while (bytes + size > maxBytes) {
+			bytes -= it.next().getValue().getSizeInBytes();
+			it.remove();
+		}
+		fields.put(key, result);
+		bytes += size;
+		return result;
+	}
+	/**
+	 * Gives the distance between two positions of the maze,
+	 * the number of steps to get from one position to the other.
+	 * Uses the distance field for the target position.
+	 * @param fromX is the x coordinate of the origin, {@code 0 <= fromX < width}
+	 * @param fromY is the y coordinate of the origin, {@code 0 <= fromY < height}
+	 * @param toX is the x coordinate of the target, {@code 0 <= toX < width}
+	 * @param toY is the y coordinate of the target, {@code 0 <= toY < height}
+	 * @return the number of steps, 0 if both positions are the same
+	 */
+	public int getDistance(int fromX, int fromY, int toX, int toY) {
+		// distance values start with 1 at the target
+		return getDistanceField(toX, toY).getDistanceValue(fromX, fromY) - 1;
+	}
+	/**
+	 * Removes all distance fields from the cache, counters are kept.
+	 */
+	public synchronized void clear() {
+		fields.clear();
+		bytes = 0;
+	}
+	/**
+	 * Gives the number of queries that were answered from the cache.
+	 * @return the number of hits
+	 */
+	public synchronized long getHits() {
+		return hits;
+	}
+	/**
+	 * Gives the number of queries that required a computation.
+	 * @return the number of misses
+	 */
+	public synchronized long getMisses() {
+		return misses;
+	}
+	/**
+	 * Gives the number of distance fields in the cache.
+	 * @return the number of cached fields
+	 */
+	public synchronized int size() {
+		return fields.size();
+	}
+	/**
+	 * Gives the number of bytes that cached distance fields occupy.
+	 * @return the current size in bytes, at most the maximum size
+	 */
+	public synchronized long getSizeInBytes() {
+		return bytes;
+	}
+	/**
+	 * Gives the maximum number of bytes for cached distance fields.
+	 * @return the maximum size in bytes
+	 */
+	public long getMaxBytes() {
+		return maxBytes;
+	}
+}
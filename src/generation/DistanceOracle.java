@@ -0,0 +1,591 @@
+package generation;
+
+import java.util.Arrays;
+
+/**
+ * This class has the responsibility to answer distance queries between
+ * two arbitrary positions of a maze, many of them and fast.
+ * A breadth first search per query as in {@link DistanceFieldCache}
+ * is linear in the number of cells, which is too slow for millions of queries.
+ *
+ * The oracle precomputes distance fields for a handful of landmark positions
+ * with the breadth first search of the {@link Distance} class. Landmarks are
+ * chosen far apart: each landmark is a position with the largest distance
+ * to all landmarks chosen before. By the triangle inequality, each landmark L
+ * gives a lower bound {@code |d(L,s) - d(L,t)|} and an upper bound
+ * {@code d(L,s) + d(L,t)} for the distance d(s,t) of two positions s and t.
+ *
+ * Queries are answered exactly with tree paths where the layout permits:
+ * <ul>
+ * <li>A perfect maze has no cycles, its cells form a tree. The unique path
+ * from s to t leads through their lowest common ancestor a such that
+ * {@code d(s,t) = depth(s) + depth(t) - 2 depth(a)}. The lowest common ancestor
+ * is found with a table of ancestors at distances of powers of 2, so a query
+ * takes logarithmic time.</li>
+ * <li>In a maze with rooms, cycles only run through rooms: corridors outside of
+ * rooms form a forest and each room is an open rectangle. A shortest path
+ * either stays within a corridor tree, or within a room where it has the
+ * Manhattan distance, or it passes through doors, i.e. room cells with an
+ * opening to a corridor. The oracle precomputes the distances between all
+ * pairs of doors with a breadth first search per door, and a query combines
+ * the paths from s to the doors of its corridor tree or room, the precomputed
+ * distance between doors, and the paths from the doors of t's corridor tree or
+ * room to t. As there are only a few doors per tree and room, this takes
+ * little more time than a query for a perfect maze.</li>
+ * <li>Any other layout, e.g. a corridor that runs in a circle, is answered with
+ * an A* search from s to t that uses the best landmark lower bound as its
+ * heuristic (ALT: A*, landmarks, triangle inequality). If lower and upper bound
+ * already match, no search is necessary.</li>
+ * </ul>
+ * Distances are measured in steps, i.e. a position has distance 0 to itself,
+ * which matches {@link DistanceFieldCache#getDistance(int, int, int, int)}.
+ *
+ * The floorplan is expected not to change after construction.
+ * Queries use internal scratch space, so an instance must not be shared
+ * between threads without external synchronization.
+ */
+public class DistanceOracle {
+	/**
+	 * Default number of landmarks, a compromise between memory
+	 * (one integer per cell and landmark) and tightness of the bounds.
+	 */
+	public static final int DEFAULT_LANDMARKS = 8;
+	/**
+	 * Limit for the number of entries in the table of distances between doors.
+	 * Mazes with more pairs of doors are answered with an A* search.
+	 */
+	static final long MAX_DOOR_PAIRS = 1L << 24;
+
+	private final Floorplan floorplan; // the maze layout, read only
+	private final int width;
+	private final int height;
+	private final int[][] landmarks; // (x,y) positions of landmarks
+	/**
+	 * Distances of all cells to all landmarks in steps, interleaved such that
+	 * the distances of one cell are next to each other:
+	 * the distance of cell i to landmark l is at {@code i*landmarks.length + l}.
+	 */
+	private final int[] landmarkDistances;
+
+	// tree structure, all null if the layout requires an A* search
+	/**
+	 * Regions of cells: a corridor tree has a number in 0,...,trees-1,
+	 * a room has a number in trees,...,regions-1.
+	 */
+	private int[] region;
+	private int trees; // number of corridor trees
+	private int[] depth; // distance of a corridor cell to the root of its tree
+	/**
+	 * ancestors[j][i] is the ancestor of corridor cell i that is 2^j steps
+	 * closer to the root of its tree, or the root itself.
+	 */
+	private int[][] ancestors;
+	/**
+	 * Doors of each region, the entries of region r are at
+	 * regionStart[r],...,regionStart[r+1]-1. For an entry e,
+	 * regionDoor[e] is the number of the door and regionCell[e] is the cell
+	 * from where the door is measured: for a room the door cell itself, for a
+	 * corridor tree the corridor cell next to the door.
+	 */
+	private int[] regionStart;
+	private int[] regionDoor;
+	private int[] regionCell;
+	private int doors; // number of doors
+	private int[] doorDistances; // distance between door i and door j at i*doors+j
+	// scratch space for queries: doors of both end points and distances to them
+	private int[] fromDoor;
+	private int[] fromOffset;
+	private int[] toDoor;
+	private int[] toOffset;
+
+	// scratch space for the A* search, values are valid for the current query only
+	private int[] pathLength; // g value, length of the best known path from the origin
+	private int[] reached; // query number at which pathLength was set
+	private int[] settled; // query number at which the final path length was determined
+	private IntPriorityQueue open; // cells ordered by f value, the length of the path plus the estimate
+	private int query; // number of current query
+	private final int[] targetDistances; // landmark distances of the current target
+
+	/**
+	 * Constructor with the default number of landmarks.
+	 * @param floorplan the maze layout, not null, all positions must be reachable
+	 * @param width the width of the maze
+	 * @param height the height of the maze
+	 */
+	public DistanceOracle(Floorplan floorplan, int width, int height) {
+		this(floorplan, width, height, DEFAULT_LANDMARKS);
+	}
+	/**
+	 * Constructor, computes the landmark distance fields and the
+	 * tree structure if the layout permits.
+	 * @param floorplan the maze layout, not null, all positions must be reachable
+	 * @param width the width of the maze
+	 * @param height the height of the maze
+	 * @param numberOfLandmarks the number of landmarks to use, {@code 1 <= numberOfLandmarks}
+	 */
+	public DistanceOracle(Floorplan floorplan, int width, int height, int numberOfLandmarks) {
+		if (numberOfLandmarks < 1)
+			throw new IllegalArgumentException("At least one landmark is required");
+		this.floorplan = floorplan;
+		this.width = width;
+		this.height = height;
+		final int size = width*height;
+		final int k = Math.min(numberOfLandmarks, size);
+		landmarks = new int[k][];
+		landmarkDistances = new int[size*k];
+		targetDistances = new int[k];
+		// the first landmark is the position farthest from the center, as for the exit
+		final Distance field = new Distance(width, height);
+		field.computeDistancesTo(floorplan, width/2, height/2);
+		int[] next = farthest(field, null);
+		// minimum distance of each cell to any of the landmarks chosen so far
+		final int[] minDistance = new int[size];
+		Arrays.fill(minDistance, Integer.MAX_VALUE);
+		for (int l = 0; l < k; l++) {
+			landmarks[l] = next;
+			field.computeDistancesTo(floorplan, next[0], next[1]);
+			for (int i = 0; i < size; i++) {
+				final int d = field.getDistanceValue(i % width, i / width) - 1;
+				landmarkDistances[i*k + l] = d;
+				minDistance[i] = Math.min(minDistance[i], d);
+			}
+			next = farthest(null, minDistance);
+		}
+		if (!computeRegions() || !computeDoors(field)) {
+			// layout has cycles outside of rooms, leave it to the A* search
+			region = null;
+			depth = null;
+			ancestors = null;
+			regionStart = null;
+			regionDoor = null;
+			regionCell = null;
+			doorDistances = null;
+			doors = 0;
+		}
+	}
+	/**
+	 * Gives the number of steps to get from one position to the other.
+	 * @param fromX is the x coordinate of the origin, {@code 0 <= fromX < width}
+	 * @param fromY is the y coordinate of the origin, {@code 0 <= fromY < height}
+	 * @param toX is the x coordinate of the target, {@code 0 <= toX < width}
+	 * @param toY is the y coordinate of the target, {@code 0 <= toY < height}
+	 * @return the distance, 0 if both positions are the same
+	 */
+	public int getDistance(int fromX, int fromY, int toX, int toY) {
+		assert isInside(fromX, fromY) && isInside(toX, toY) : "Invalid position";
+		final int s = fromY*width + fromX;
+		final int t = toY*width + toX;
+		if (s == t)
+			return 0;
+		if (null != region)
+			return getDistanceInRegions(s, t);
+		final int lower = getLowerBound(s, t);
+		if (lower == getUpperBound(s, t))
+			return lower;
+		return search(s, t);
+	}
+	/**
+	 * Gives a lower bound for the distance between two positions from the landmarks.
+	 * @param fromX is the x coordinate of the origin, {@code 0 <= fromX < width}
+	 * @param fromY is the y coordinate of the origin, {@code 0 <= fromY < height}
+	 * @param toX is the x coordinate of the target, {@code 0 <= toX < width}
+	 * @param toY is the y coordinate of the target, {@code 0 <= toY < height}
+	 * @return a value that is less or equal to the distance
+	 */
+	public int getLowerBound(int fromX, int fromY, int toX, int toY) {
+		assert isInside(fromX, fromY) && isInside(toX, toY) : "Invalid position";
+		return getLowerBound(fromY*width + fromX, toY*width + toX);
+	}
+	/**
+	 * Gives an upper bound for the distance between two positions from the landmarks,
+	 * the length of the shortest path that runs through a landmark.
+	 * @param fromX is the x coordinate of the origin, {@code 0 <= fromX < width}
+	 * @param fromY is the y coordinate of the origin, {@code 0 <= fromY < height}
+	 * @param toX is the x coordinate of the target, {@code 0 <= toX < width}
+	 * @param toY is the y coordinate of the target, {@code 0 <= toY < height}
+	 * @return a value that is greater or equal to the distance
+	 */
+	public int getUpperBound(int fromX, int fromY, int toX, int toY) {
+		assert isInside(fromX, fromY) && isInside(toX, toY) : "Invalid position";
+		return getUpperBound(fromY*width + fromX, toY*width + toX);
+	}
+	/**
+	 * Tells if queries are answered from corridor trees and doors of rooms.
+	 * @return true if the layout permits, false if queries use an A* search
+	 */
+	public boolean hasTreeStructure() {
+		return null != region;
+	}
+	/**
+	 * Gives the number of doors, room cells with an opening to a corridor.
+	 * @return the number of doors, 0 for a perfect maze or if queries use an A* search
+	 */
+	public int getNumberOfDoors() {
+		return doors;
+	}
+	/**
+	 * Gives the number of landmarks.
+	 * @return the number of landmarks
+	 */
+	public int getNumberOfLandmarks() {
+		return landmarks.length;
+	}
+	/**
+	 * Gives the position of a landmark.
+	 * @param l the number of the landmark, {@code 0 <= l < getNumberOfLandmarks()}
+	 * @return the (x,y) position of the landmark
+	 */
+	public int[] getLandmark(int l) {
+		return landmarks[l].clone();
+	}
+	//////////////// private, internal methods ///////////////////////////////
+	private boolean isInside(int x, int y) {
+		return 0 <= x && x < width && 0 <= y && y < height;
+	}
+	/**
+	 * Gives the neighbor of a cell if there is no wallboard in between.
+	 * @param cell the index of the cell
+	 * @param dir ordinal of a CardinalDirection
+	 * @return the index of the neighbor, -1 if there is a wallboard or the border of the maze
+	 */
+	private int neighbor(int cell, int dir) {
+		if ((floorplan.getValueOfCell(cell) & Floorplan.CW_BY_DIRECTION[dir]) != 0)
+			return -1;
+		final int x = cell % width + Floorplan.DX_BY_DIRECTION[dir];
+		final int y = cell / width + Floorplan.DY_BY_DIRECTION[dir];
+		return isInside(x, y) ? y*width + x : -1;
+	}
+	private boolean isInRoom(int cell) {
+		return (floorplan.getValueOfCell(cell) & Floorplan.CW_IN_ROOM) != 0;
+	}
+	/**
+	 * Gives the position with the largest value in either the field
+	 * or the given array of minimum distances. Ties are broken in favor
+	 * of the first position in row major order.
+	 */
+	private int[] farthest(Distance field, int[] minDistance) {
+		int best = -1;
+		int index = 0;
+		for (int y = 0, i = 0; y < height; y++) {
+			for (int x = 0; x < width; x++, i++) {
+				final int d = (null != field) ? field.getDistanceValue(x, y) : minDistance[i];
+				if (d > best) {
+					best = d;
+					index = i;
+				}
+			}
+		}
+		return new int[] {index % width, index / width};
+	}
+	/**
+	 * Partitions cells into corridor trees and rooms with a breadth first search
+	 * per region and computes the depth and the table of ancestors for corridor cells.
+	 * @return true if corridors form a forest and rooms are open rectangles, false otherwise
+	 */
+	private boolean computeRegions() {
+		final int size = width*height;
+		region = new int[size];
+		Arrays.fill(region, -1);
+		depth = new int[size];
+		final int[] parent = new int[size];
+		final IntRingBuffer queue = new IntRingBuffer(2*(width+height));
+		// corridor trees, the first cell in row major order is the root
+		int maxDepth = 0;
+		long corridorCells = 0;
+		long openings = 0; // between corridor cells
+		for (int root = 0; root < size; root++) {
+			if (isInRoom(root) || region[root] >= 0)
+				continue;
+			region[root] = trees;
+			parent[root] = root;
+			queue.addLast(root);
+			while (!queue.isEmpty()) {
+				final int cell = queue.removeFirst();
+				corridorCells++;
+				for (int dir = 0; dir < 4; dir++) {
+					final int next = neighbor(cell, dir);
+					if (next < 0 || isInRoom(next))
+						continue;
+					openings++;
+					if (region[next] < 0) {
+						region[next] = trees;
+						parent[next] = cell;
+						depth[next] = depth[cell] + 1;
+						maxDepth = Math.max(maxDepth, depth[next]);
+						queue.addLast(next);
+					}
+				}
+			}
+			trees++;
+		}
+		// each opening was counted from both sides, a forest has one edge less than cells per tree
+		if (openings != 2*(corridorCells - trees))
+			return false;
+		// rooms, each must be an open rectangle
+		int regions = trees;
+		for (int first = 0; first < size; first++) {
+			if (region[first] >= 0)
+				continue;
+			int x0 = first % width;
+			int x1 = x0;
+			final int y0 = first / width;
+			int y1 = y0;
+			long count = 0;
+			region[first] = regions;
+			queue.addLast(first);
+			while (!queue.isEmpty()) {
+				final int cell = queue.removeFirst();
+				count++;
+				x0 = Math.min(x0, cell % width);
+				x1 = Math.max(x1, cell % width);
+				y1 = Math.max(y1, cell / width);
+				for (int dir = 0; dir < 4; dir++) {
+					final int next = neighbor(cell, dir);
+					if (next >= 0 && isInRoom(next) && region[next] < 0) {
+						region[next] = regions;
+						queue.addLast(next);
+					}
+				}
+			}
+			if (count != (long)(x1-x0+1)*(y1-y0+1))
+				return false;
+			for (int y = y0; y <= y1; y++) {
+				for (int x = x0; x <= x1; x++) {
+					final int value = floorplan.getValueOfCell(y*width + x);
+					if (region[y*width + x] != regions
+							|| (x < x1 && (value & Floorplan.CW_RIGHT) != 0)
+							|| (y < y1 && (value & Floorplan.CW_BOT) != 0))
+						return false;
+				}
+			}
+			regions++;
+		}
+		regionStart = new int[regions+1];
+		// table of ancestors, roots are their own ancestors
+		final int levels = Math.max(1, 32 - Integer.numberOfLeadingZeros(maxDepth));
+		ancestors = new int[levels][];
+		ancestors[0] = parent;
+		for (int j = 1; j < levels; j++) {
+			final int[] half = ancestors[j-1];
+			final int[] level = new int[size];
+			for (int i = 0; i < size; i++)
+				level[i] = (region[i] < trees) ? half[half[i]] : i;
+			ancestors[j] = level;
+		}
+		return true;
+	}
+	/**
+	 * Identifies the doors of all rooms, lists them for each region
+	 * and computes the distances between all pairs of doors.
+	 * @param field is used for the breadth first search from each door
+	 * @return true if doors lead to corridors and the table of distances is not too large
+	 */
+	private boolean computeDoors(Distance field) {
+		final int size = width*height;
+		final int regions = regionStart.length-1;
+		// count doors and entries per region, the start of region r is accumulated in regionStart[r+1]
+		for (int cell = 0; cell < size; cell++) {
+			if (region[cell] < trees)
+				continue;
+			boolean isDoor = false;
+			for (int dir = 0; dir < 4; dir++) {
+				final int next = neighbor(cell, dir);
+				if (next < 0 || region[next] == region[cell])
+					continue;
+				if (region[next] >= trees)
+					return false; // rooms next to each other
+				regionStart[region[next]+1]++;
+				isDoor = true;
+			}
+			if (isDoor) {
+				regionStart[region[cell]+1]++;
+				doors++;
+			}
+		}
+		if ((long)doors*doors > MAX_DOOR_PAIRS)
+			return false;
+		int maxEntries = 0;
+		for (int r = 0; r < regions; r++) {
+			maxEntries = Math.max(maxEntries, regionStart[r+1]);
+			regionStart[r+1] += regionStart[r];
+		}
+		regionDoor = new int[regionStart[regions]];
+		regionCell = new int[regionStart[regions]];
+		final int[] fill = Arrays.copyOf(regionStart, regions);
+		final int[] doorCells = new int[doors];
+		int door = 0;
+		for (int cell = 0; cell < size; cell++) {
+			if (region[cell] < trees)
+				continue;
+			boolean isDoor = false;
+			for (int dir = 0; dir < 4; dir++) {
+				final int next = neighbor(cell, dir);
+				if (next < 0 || region[next] == region[cell])
+					continue;
+				final int e = fill[region[next]]++;
+				regionDoor[e] = door;
+				regionCell[e] = next;
+				isDoor = true;
+			}
+			if (isDoor) {
+				final int e = fill[region[cell]]++;
+				regionDoor[e] = door;
+				regionCell[e] = cell;
+				doorCells[door++] = cell;
+			}
+		}
+		doorDistances = new int[doors*doors];
+		for (int i = 0; i < doors; i++) {
+			field.computeDistancesTo(floorplan, doorCells[i] % width, doorCells[i] / width);
+			for (int j = 0; j < doors; j++)
+				doorDistances[i*doors + j] = field.getDistanceValue(doorCells[j] % width, doorCells[j] / width) - 1;
+		}
+		fromDoor = new int[maxEntries];
+		fromOffset = new int[maxEntries];
+		toDoor = new int[maxEntries];
+		toOffset = new int[maxEntries];
+		return true;
+	}
+	/**
+	 * Computes the distance from the regions of s and t: the shortest path
+	 * either stays in the region if both are in the same region, or it
+	 * leaves the region of s through one of its doors and enters the
+	 * region of t through one of its doors.
+	 */
+	private int getDistanceInRegions(int s, int t) {
+		final int rs = region[s];
+		final int rt = region[t];
+		int result = Integer.MAX_VALUE;
+		if (rs == rt) {
+			if (rs >= trees) // nothing is shorter than a straight walk in the room
+				return Math.abs(s % width - t % width) + Math.abs(s / width - t / width);
+			result = getTreeDistance(s, t);
+		}
+		final int m = collectDoors(s, rs, fromDoor, fromOffset);
+		final int n = collectDoors(t, rt, toDoor, toOffset);
+		for (int i = 0; i < m; i++) {
+			final int base = fromDoor[i]*doors;
+			final int offset = fromOffset[i];
+			for (int j = 0; j < n; j++)
+				result = Math.min(result, offset + doorDistances[base + toDoor[j]] + toOffset[j]);
+		}
+		return result;
+	}
+	/**
+	 * Lists the doors of the given region together with the distance
+	 * from the given cell to each door without leaving the region.
+	 * @return the number of doors listed
+	 */
+	private int collectDoors(int cell, int r, int[] door, int[] offset) {
+		final int start = regionStart[r];
+		final int n = regionStart[r+1] - start;
+		for (int i = 0; i < n; i++) {
+			final int other = regionCell[start + i];
+			door[i] = regionDoor[start + i];
+			offset[i] = (r >= trees)
+					? Math.abs(cell % width - other % width) + Math.abs(cell / width - other / width)
+					: getTreeDistance(cell, other) + 1; // one more step through the door
+		}
+		return n;
+	}
+	/**
+	 * Computes the distance in a corridor tree from the depths of both cells
+	 * and the depth of their lowest common ancestor.
+	 */
+	private int getTreeDistance(int s, int t) {
+		int u = s;
+		int v = t;
+		// lift the deeper cell to the depth of the other one
+		int diff = depth[s] - depth[t];
+		if (diff < 0) {
+			u = t;
+			v = s;
+			diff = -diff;
+		}
+		for (int j = 0; diff != 0; j++, diff >>>= 1) {
+			if ((diff & 1) != 0)
+				u = ancestors[j][u];
+		}
+		if (u != v) {
+			// lift both as long as their ancestors differ
+			for (int j = ancestors.length-1; j >= 0; j--) {
+				final int[] level = ancestors[j];
+				if (level[u] != level[v]) {
+					u = level[u];
+					v = level[v];
+				}
+			}
+			u = ancestors[0][u];
+		}
+		return depth[s] + depth[t] - 2*depth[u];
+	}
+	private int getLowerBound(int s, int t) {
+		final int k = landmarks.length;
+		int result = 0;
+		for (int l = 0; l < k; l++)
+			result = Math.max(result, Math.abs(landmarkDistances[s*k + l] - landmarkDistances[t*k + l]));
+		return result;
+	}
+	private int getUpperBound(int s, int t) {
+		final int k = landmarks.length;
+		int result = Integer.MAX_VALUE;
+		for (int l = 0; l < k; l++)
+			result = Math.min(result, landmarkDistances[s*k + l] + landmarkDistances[t*k + l]);
+		return result;
+	}
+	/**
+	 * Performs an A* search from s to t with the landmark lower bound as heuristic.
+	 * The heuristic is consistent, so a cell is settled once it is removed
+	 * from the heap for the first time and the search stops at t.
+	 */
+	private int search(int s, int t) {
+		if (null == pathLength) {
+			final int size = width*height;
+			pathLength = new int[size];
+			reached = new int[size];
+			settled = new int[size];
+			open = new IntPriorityQueue(2*(width+height));
+		}
+		if (++query == 0) { // wrapped around, old marks would be misread as current
+			Arrays.fill(reached, 0);
+			Arrays.fill(settled, 0);
+			query = 1;
+		}
+		final int k = landmarks.length;
+		System.arraycopy(landmarkDistances, t*k, targetDistances, 0, k);
+		open.clear();
+		pathLength[s] = 0;
+		reached[s] = query;
+		open.add(s, estimate(s));
+		while (!open.isEmpty()) {
+			final int cell = open.removeFirst();
+			if (settled[cell] == query)
+				continue; // outdated entry, cell was settled with a shorter path
+			settled[cell] = query;
+			final int g = pathLength[cell];
+			if (cell == t)
+				return g;
+			for (int dir = 0; dir < 4; dir++) {
+				final int next = neighbor(cell, dir);
+				if (next >= 0)
+					relax(next, g+1);
+			}
+		}
+		throw new IllegalStateException("Position is not reachable");
+	}
+	private void relax(int cell, int g) {
+		if (settled[cell] == query || (reached[cell] == query && pathLength[cell] <= g))
+			return;
+		reached[cell] = query;
+		pathLength[cell] = g;
+		open.add(cell, g + estimate(cell));
+	}
+	private int estimate(int cell) {
+		final int k = landmarks.length;
+		final int base = cell*k;
+		int result = 0;
+		for (int l = 0; l < k; l++)
+			result = Math.max(result, Math.abs(landmarkDistances[base + l] - targetDistances[l]));
+		return result;
+	}
+}
@@ -2,6 +2,7 @@ package generation;
 
 import java.io.BufferedWriter;
 import java.io.FileWriter;
+import java.util.BitSet;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
 
@@ -11,7 +12,9 @@ import java.util.NoSuchElementException;
  * with a 2 dimensional grid and it encapsulates access to each 
  * cell in that grid.
  *  
- * The internal two-dimensional array matches with a grid of cells as follows:
+ * Cells are stored in row-major order, i.e. cell (x,y) has index {@code y*width+x}. 
+ * The actual representation is chosen per floorplan, see {@link Storage}.
+ * The grid of cells is organized as follows:
  * floorplan[0,y] form the left border, hence there is a wallboard on  left.
  * floorplan[width-1,y] form the right border, hence there is a wallboard on right.
  * floorplan[x,0] form the top border, hence there is a wallboard on top.
@@ -88,17 +91,36 @@ public class Floorplan {
 	//west  = (-1,0)
 	//north = (0,-1)
 	
+	// Direction tables indexed by the ordinal of a CardinalDirection: North, East, South, West
+	// they allow index based access without going through the enum type in hot loops
+	static final int[] CW_BY_DIRECTION = { CW_TOP, CW_RIGHT, CW_BOT, CW_LEFT };
+	static final int[] CW_OPPOSITE_BY_DIRECTION = { CW_BOT, CW_LEFT, CW_TOP, CW_RIGHT };
+	static final int[] DX_BY_DIRECTION = { 0, 1, 0, -1 };
+	static final int[] DY_BY_DIRECTION = { -1, 0, 1, 0 };
+	// encoding of wallboard bit for (dx,dy), indexed by (dx+1) + 3*(dy+1), 0 for illegal pairs
+	private static final int[] CW_BY_DXDY = { 0, CW_TOP, 0, CW_LEFT, 0, CW_RIGHT, 0, CW_BOT, 0 };
+	
+	/**
+	 * Lists the supported representations for the content of a floorplan.
+	 * Dense keeps a single integer per cell in one array and is the default.
+	 * BitPlane keeps one bitset per flag such that operations on rows and
+	 * rectangular areas process 64 cells at a time, it needs 10 bits per cell.
+	 * Mapped keeps a single integer per cell in a memory-mapped file outside
+	 * of the heap such that the size of a maze is limited by disk space.
+	 * Tiled keeps cells in tiles of 64 x 64 that are allocated on first change
+	 * such that memory scales with the area of the maze that is actually touched.
+	 */
+	public enum Storage { Dense, BitPlane, Mapped, Tiled } ;
+	
 	private int width;
 	private int height ;
-	private int[][] cells; // width x height array of cells, cells[width][height]
+	private final CellStorage cells; // width x height cells, cell (x,y) is at index y*width+x
 	// each cell contains an integer which encodes presence/absence of wallboards
-	// cells[i][j] can be read as (i,j) coordinates much like (x,y) coordinates
-	// where the first dimension x grows towards the right and 
+	// (x,y) coordinates are such that the first dimension x grows towards the right and 
 	// the second dimension y grows towards the bottom
 	// as if the (0,0) position is in the top-left corner.
-	// cells[i][j] is not intuitive in terms of rows and column indices in matrix notation 
-	// as position (i,j) would be column i and row j which is opposite to the normal  
-	// use of rows and columns indices for matrices.
+	private final Storage storage; // the kind of representation used for cells
+	private final int[] indexOffsets; // index difference to neighbor, indexed by direction ordinal
 	
 	/**
 	 * Constructor
@@ -106,9 +128,21 @@ public class Floorplan {
 	 * @param h height, {@code 0 < h}
 	 */
 	public Floorplan(int w, int h) {
+		this(w, h, Storage.Dense);
+	}
+	
+	/**
+	 * Constructor for a floorplan with a particular representation.
+	 * @param w width, {@code 0 < w}
+	 * @param h height, {@code 0 < h}
+	 * @param storage the representation for the content of cells, not null
+	 */
+	public Floorplan(int w, int h, Storage storage) {
 		width = w ;
 		height = h ;
-		cells = new int[w][h];
+		this.storage = storage ;
+		cells = CellStorage.create(storage, w, h);
+		indexOffsets = new int[] { -w, 1, w, -1 };
 	}
 
 	/**
@@ -118,20 +152,45 @@ public class Floorplan {
 	 * precondition input != null
 	 */
 	public Floorplan(int[][] input){
-		// Alternative, 2d array is a 1d array with arrays as elements
-		width = input.length ;
-		height = input[0].length ;
-		cells = new int[width][];
-		for(int i = 0; i < width; i++)
-		    cells[i] = input[i].clone(); // clone row
-		/* Basic version
-		this(input.length, input[0].length);
-		for (int i = 0; i < width; i++) {
-			for (int j = 0; j < height; j++) {
-				cells[i][j] = input[i][j];
+		this(input, Storage.Dense);
+	}
+
+	/**
+	 * Constructor that dimensions and initializes cells with the values from the given matrix
+	 * in the given representation.
+	 * @param input provides input data to copy cell content from
+	 * @param storage the representation of the cells
+	 * precondition input != null
+	 */
+	public Floorplan(int[][] input, Storage storage){
+		this(input.length, input[0].length, storage);
+		// input is indexed [x][y], copy it into row-major order
+		for (int x = 0; x < width; x++) {
+			for (int y = 0; y < height; y++) {
+				cells.set(y*width+x, input[x][y]);
 			}
 		}
-		*/
+	}
+	
+	/**
+	 * Copy constructor, delivers a duplicate of the given floorplan
+	 * with the same representation.
+	 * @param other provides dimensions and cell content to copy, not null
+	 */
+	public Floorplan(Floorplan other) {
+		width = other.width ;
+		height = other.height ;
+		storage = other.storage ;
+		cells = other.cells.copy();
+		indexOffsets = other.indexOffsets.clone();
+	}
+	
+	/**
+	 * Gives the representation used for the content of this floorplan.
+	 * @return the storage kind
+	 */
+	public Storage getStorage() {
+		return storage ;
 	}
 	
 	/**
@@ -141,25 +200,18 @@ public class Floorplan {
 	 * It is fully enclosed, there is no exit.
 	 */
 	public void initialize() {
-		int x, y;
+		if (0 == width || 0 == height)
+			return; // nothing to do
 		// Step 1: erect wallboards everywhere, reset visited flag
-		for (x = 0; x < width; x++) {
-			for (y = 0; y < height; y++) {
-				setBitToOne(x, y, (CW_VISITED | CW_ALL));
-			}
-		} 
+		cells.setBitsInArea(0, 0, width-1, height-1, (CW_VISITED | CW_ALL));
 		// Step 2: mark wallboards on exterior walls as a border
 		// Assumption: (0,0) at top-left corner
 		// mark exterior wallboards to top and bottom
-		for (x = 0; x < width; x++) {
-			setBitToOne(x, 0, getBoundForBit(CW_TOP));
-			setBitToOne(x, height-1, getBoundForBit(CW_BOT));
-		} 
+		cells.setBitsInArea(0, 0, width-1, 0, getBoundForBit(CW_TOP));
+		cells.setBitsInArea(0, height-1, width-1, height-1, getBoundForBit(CW_BOT));
 		// mark exterior wallboards to left and right 
-		for (y = 0; y < height; y++) {
-			setBitToOne(0, y, getBoundForBit(CW_LEFT));
-			setBitToOne(width-1, y, getBoundForBit(CW_RIGHT));
-		}
+		cells.setBitsInArea(0, 0, 0, height-1, getBoundForBit(CW_LEFT));
+		cells.setBitsInArea(width-1, 0, width-1, height-1, getBoundForBit(CW_RIGHT));
 	}
 	
 	/**
@@ -179,13 +231,7 @@ public class Floorplan {
 		final Floorplan o = (Floorplan)other ; // type cast safe after checking class objects
 		if ((width != o.width)||(height != o.height))
 			return false ;
-		for (int i = 0; i < width; i++) {
-			for (int j = 0; j < height; j++) {
-				if (cells[i][j] != o.cells[i][j])
-					return false ;
-			}
-		}
-		return true ;
+		return diff(o).isEmpty() ;
 	}
 	/**
 	 * Hashcode method is not implemented as it is not needed here.
@@ -197,6 +243,66 @@ public class Floorplan {
 		  assert false : "hashCode not designed";
 		  return 42; // any arbitrary constant will do
 	}
+	////////////////// bulk operations on areas and the whole floorplan //////////////////////////
+	// The rectangular area is given by its upper left corner (rx,ry) 
+	// and its lower right corner (rxl,ryl) as in markAreaAsRoom.
+	// Precondition {@code 0 <= rx <= rxl < width, 0 <= ry <= ryl < height}
+	/**
+	 * Sets the bits of the given bitmask to one for all cells in the given area. 
+	 * @param rx 1st corner, x coordinate
+	 * @param ry 1st corner, y coordinate
+	 * @param rxl 2nd corner, x coordinate
+	 * @param ryl 2nd corner, y coordinate
+	 * @param bitmask combination of CW_ constants
+	 */
+	public void setBitsInArea(int rx, int ry, int rxl, int ryl, int bitmask) {
+		cells.setBitsInArea(rx, ry, rxl, ryl, bitmask);
+	}
+	/**
+	 * Sets the bits of the given bitmask to zero for all cells in the given area. 
+	 * @param rx 1st corner, x coordinate
+	 * @param ry 1st corner, y coordinate
+	 * @param rxl 2nd corner, x coordinate
+	 * @param ryl 2nd corner, y coordinate
+	 * @param bitmask combination of CW_ constants
+	 */
+	public void clearBitsInArea(int rx, int ry, int rxl, int ryl, int bitmask) {
+		cells.clearBitsInArea(rx, ry, rxl, ryl, bitmask);
+	}
+	/**
+	 * Tells if any cell in the given area has any of the bits of the given bitmask set. 
+	 * @param rx 1st corner, x coordinate
+	 * @param ry 1st corner, y coordinate
+	 * @param rxl 2nd corner, x coordinate
+	 * @param ryl 2nd corner, y coordinate
+	 * @param bitmask combination of CW_ constants
+	 * @return true if such a cell exists, false otherwise
+	 */
+	public boolean hasBitsInArea(int rx, int ry, int rxl, int ryl, int bitmask) {
+		return cells.hasBitsInArea(rx, ry, rxl, ryl, bitmask);
+	}
+	/**
+	 * Counts the cells that have any of the bits of the given bitmask set,
+	 * e.g. countCells(CW_IN_ROOM) gives the number of cells inside rooms.
+	 * @param bitmask combination of CW_ constants
+	 * @return number of cells that match
+	 */
+	public int countCells(int bitmask) {
+		return cells.countCells(bitmask);
+	}
+	/**
+	 * Determines the cells where this floorplan and the given one differ.
+	 * Floorplans may use different representations.
+	 * Precondition: both floorplans have the same dimensions.
+	 * @param other the floorplan to compare with, not null
+	 * @return set of indices {@code y*width+x} of cells with different values, empty if equal
+	 */
+	public BitSet diff(Floorplan other) {
+		assert (width == other.width && height == other.height) : "Floorplans must have the same dimensions";
+		BitSet result = new BitSet();
+		cells.markDifferences(other.cells, result);
+		return result;
+	}
 	/**
 	 * Get the value of a cell at the given position (x,y).
 	 * @param x coordinate of cell
@@ -206,7 +312,96 @@ public class Floorplan {
 	 */
 	public int getValueOfCell( int x, int y )
 	{
-		return cells[x][y] ;
+		return cells.get(y*width+x) ;
+	}
+	
+	////////////////// index based access for hot loops //////////////////////////////////
+	// A cell (x,y) has index y*width+x. Directions are given as the ordinal 
+	// of a CardinalDirection (North, East, South, West) to avoid the enum type.
+	// Preconditions are the same as for the corresponding (x,y) methods and are not checked.
+	/**
+	 * Gives the index of cell (x,y) for the index based access methods.
+	 * @param x coordinate of cell, {@code 0 <= x < width}
+	 * @param y coordinate of cell, {@code 0 <= y < height}
+	 * @return the index of the cell, {@code y*width+x}
+	 */
+	public int getIndex(int x, int y) {
+		return y*width+x ;
+	}
+	/**
+	 * Gives the index of the adjacent cell in the given direction.
+	 * @param index of the cell
+	 * @param dir ordinal of a CardinalDirection
+	 * @return index of the neighbor, only valid if the neighbor is inside the maze
+	 */
+	public int getNeighborIndex(int index, int dir) {
+		return index + indexOffsets[dir] ;
+	}
+	/**
+	 * Get the value of a cell at the given index.
+	 * @param index of the cell, {@code 0 <= index < width*height}
+	 * @return value with internal encoding of wallboards and other attributes
+	 */
+	public int getValueOfCell(int index) {
+		return cells.get(index) ;
+	}
+	/**
+	 * Tells if the cell at the given index has a wallboard in the given direction.
+	 * @param index of the cell
+	 * @param dir ordinal of a CardinalDirection
+	 * @return true if there is a wallboard, false otherwise
+	 */
+	public boolean hasWall(int index, int dir) {
+		return cells.hasBits(index, CW_BY_DIRECTION[dir]) ;
+	}
+	/**
+	 * Index based version of {@link #canTearDown(Wallboard)}.
+	 * @param index of the cell
+	 * @param dir ordinal of a CardinalDirection
+	 * @return true if neighbor in the given direction is new and wallboard can be taken down, false otherwise
+	 */
+	public boolean canTearDown(int index, int dir) {
+		if (cells.hasBits(index, CW_BY_DIRECTION[dir] << CW_BOUND_SHIFT))
+			return false;
+		return cells.hasBits(index + indexOffsets[dir], CW_VISITED) ;
+	}
+	/**
+	 * Index based version of {@link #hasBorder(int, int, int, int)}.
+	 * @param index of the cell
+	 * @param dir ordinal of a CardinalDirection
+	 * @return true if that side is marked as a border, false otherwise
+	 */
+	public boolean hasBorder(int index, int dir) {
+		return cells.hasBits(index, CW_BY_DIRECTION[dir] << CW_BOUND_SHIFT);
+	}
+	/**
+	 * Tells if the cell has been visited, i.e. if {@link #setCellAsVisited(int)}
+	 * was called for it after initialization.
+	 * @param index of the cell
+	 * @return true if the cell has been visited, false if it is new
+	 */
+	public boolean isVisited(int index) {
+		return !cells.hasBits(index, CW_VISITED);
+	}
+	/**
+	 * Index based version of {@link #deleteWallboard(Wallboard)}.
+	 * @param index of the cell
+	 * @param dir ordinal of a CardinalDirection
+	 */
+	public void deleteWallboard(int index, int dir) {
+		cells.clearBits(index, CW_BY_DIRECTION[dir]) ;
+		cells.clearBits(index + indexOffsets[dir], CW_OPPOSITE_BY_DIRECTION[dir]) ;
+		/////////////////// THE FOLLOWING 2 LINES ARE USED FOR GRADING PROJECT 2, DO NOT ALTER OR DELETE /////////////////
+		if (deepdebugWall) // for debugging: track sequence of walls that are deleted
+			logWall(index % width, index / width, DX_BY_DIRECTION[dir], DY_BY_DIRECTION[dir]);
+		/////////////////// END OF SPECIAL CODE FOR GRADING //////////////////////////////////////////////////////////////
+	}
+	/**
+	 * Index based version of {@link #setCellAsVisited(int, int)}.
+	 * @param index of the cell
+	 */
+	public void setCellAsVisited(int index) {
+		cells.clearBits(index, CW_VISITED) ;
 	}
 	
 	/**
@@ -220,9 +415,8 @@ public class Floorplan {
 	public boolean canTearDown(Wallboard wallboard) {
 		int x = wallboard.getX();
 		int y = wallboard.getY();
-		int[] d = wallboard.getDirection().getDirection() ;
-		int dx = d[0];
-		int dy = d[1];
+		int dx = wallboard.getNeighborX() - x;
+		int dy = wallboard.getNeighborY() - y;
 		// borders limit rooms (but for potential doors) and the outside limit of the maze
 		if (hasBorder(x, y, dx, dy))
 			return false;
@@ -241,9 +435,8 @@ public class Floorplan {
 	public boolean isPartOfBorder(Wallboard wallboard) {
 		int x = wallboard.getX();
 		int y = wallboard.getY();
-		int[] d = wallboard.getDirection().getDirection() ;
-		int dx = d[0];
-		int dy = d[1];
+		int dx = wallboard.getNeighborX() - x;
+		int dy = wallboard.getNeighborY() - y;
 		// borders limit rooms (but for potential doors) 
 		// and the outside limit of the maze
 		return hasBorder(x, y, dx, dy);
@@ -399,15 +592,7 @@ public class Floorplan {
 		if (((startX < 0)||(startY < 0))||((stopX >= width)||(stopY >= height)))
 			return true ;
 		// check area
-		for (int x = startX; x <= stopX; x++)
-		{
-			for (int y = startY; y <= stopY; y++)
-			{
-				if (isInRoom(x, y))
-					return true ;
-			}
-		}
-		return false ;
+		return cells.hasBitsInArea(startX, startY, stopX, stopY, CW_IN_ROOM) ;
 	}
 	/**
 	 * Marks a given area as a room on the maze and positions up to five doors randomly.
@@ -429,11 +614,8 @@ public class Floorplan {
 		// mark all cells in area as being inside the room
 		int x;
 		int y;
-		for (x = rx; x <= rxl; x++)
-			for (y = ry; y <= ryl; y++) { 
-				setAllToZero(x, y);
-				setInRoomToOne(x, y);
-			} 
+		cells.clearBitsInArea(rx, ry, rxl, ryl, CW_ALL);
+		cells.setBitsInArea(rx, ry, rxl, ryl, CW_IN_ROOM);
 		// Step 2: set border flag at the perimeter
 		// this distinguishes these wallboards as special 
 		// and the mazebuilder algorithm can leave them in place
@@ -485,16 +667,18 @@ public class Floorplan {
 	 */
 	private void encloseArea(int rx, int ry, int rxl, int ryl) {
 		// add wallboards all around the area and mark them as border
-		// top and bottom
-		for (int x = rx; x <= rxl; x++) {
-			addBorderWallboard(x, ry, 0, -1);
-			addBorderWallboard(x, ryl, 0, 1);
-		} 
-		// left and right
-		for (int y = ry; y <= ryl; y++) {
-			addBorderWallboard(rx, y, -1, 0);
-			addBorderWallboard(rxl, y, 1, 0);
-		}
+		// a wallboard marked as border is added from both sides for each cell
+		// on the perimeter, row by row and column by column
+		// top and bottom, inside and outside of the area
+		cells.setBitsInArea(rx, ry, rxl, ry, CW_TOP | getBoundForBit(CW_TOP));
+		cells.setBitsInArea(rx, ry-1, rxl, ry-1, CW_BOT | getBoundForBit(CW_BOT));
+		cells.setBitsInArea(rx, ryl, rxl, ryl, CW_BOT | getBoundForBit(CW_BOT));
+		cells.setBitsInArea(rx, ryl+1, rxl, ryl+1, CW_TOP | getBoundForBit(CW_TOP));
+		// left and right, inside and outside of the area
+		cells.setBitsInArea(rx, ry, rx, ryl, CW_LEFT | getBoundForBit(CW_LEFT));
+		cells.setBitsInArea(rx-1, ry, rx-1, ryl, CW_RIGHT | getBoundForBit(CW_RIGHT));
+		cells.setBitsInArea(rxl, ry, rxl, ryl, CW_RIGHT | getBoundForBit(CW_RIGHT));
+		cells.setBitsInArea(rxl+1, ry, rxl+1, ryl, CW_LEFT | getBoundForBit(CW_LEFT));
 	}
 	////////////////// Methods that deal with wallboards and borders/bounds  ///////////////////////	
 	/**
@@ -523,19 +707,6 @@ public class Floorplan {
 		int bit = getBit(dx, dy);
 		setBitToZero(x,y,getBoundForBit(bit)) ; 
 	}
-	
-	/**
-	 * Sets the border and wallboard bit to one for a given cell and direction
-	 * @param x coordinate of cell, {@code 0 <= x < width}
-	 * @param y coordinate of cell, {@code 0 <= y < height}
-	 * @param dx direction x, in { -1, 0, 1} obtained from dirsx[]
-	 * @param dy direction y, in { -1, 0, 1} obtained from dirsy[]
-	 * precondition {@code 0 <= x < width, 0 <= y < height}
-	 */
-	private void setBorderAndWallToOne(int x, int y, int dx, int dy) {
-		int bit = getBit(dx, dy);
-		setBitToOne(x, y, (bit | getBoundForBit(bit)));
-	}
 
 	/**
 	 * Calculates the bitmask for a bound that corresponds to 
@@ -561,19 +732,6 @@ public class Floorplan {
 		setBorderToZero(x+dx, y+dy, -dx, -dy) ;
 	}
 
-	/**
-	 * Add a wallboard that contributes to a border between to adjacent cells (x,y) and (x+dx,y+dy).
-	 * Only used in markAreaAsRoom.
-	 * @param x coordinate of cell, {@code 0 <= x < width}
-	 * @param y coordinate of cell, {@code 0 <= y < height}
-	 * @param dx direction x, in { -1, 0, 1} obtained from dirsx[]
-	 * @param dy direction y, in { -1, 0, 1} obtained from dirsy[]
-	 */
-	private void addBorderWallboard(int x, int y, int dx, int dy) {
-		setBorderAndWallToOne(x, y, dx, dy);
-		setBorderAndWallToOne(x+dx, y+dy, -dx, -dy);
-	}
-
 	/**
 	 * Add a wallboard. If internal it is added on both sides 
 	 * between two adjacent cells (x,y) and (x+dx,y+dy).
@@ -583,12 +741,13 @@ public class Floorplan {
 	public void addWallboard(Wallboard wallboard, boolean internalWall) {
 		int x = wallboard.getX();
 		int y = wallboard.getY();
-		int[] d = wallboard.getDirection().getDirection() ;
+		int dx = wallboard.getNeighborX() - x;
+		int dy = wallboard.getNeighborY() - y;
 		// add wallboard on (x,y)
-		setWallToOne(x, y, d[0], d[1]);
+		setWallToOne(x, y, dx, dy);
 		// add same wallboard but for adjacent cell
 		if (internalWall)
-			setWallToOne(x+d[0], y+d[1], -d[0], -d[1]);
+			setWallToOne(x+dx, y+dy, -dx, -dy);
 	}
 
 	/**
@@ -603,9 +762,8 @@ public class Floorplan {
 	public void deleteWallboard(Wallboard wallboard) {
 		int x = wallboard.getX();
 		int y = wallboard.getY();
-		int[] d = wallboard.getDirection().getDirection() ;
-		int dx = d[0];
-		int dy = d[1];
+		int dx = wallboard.getNeighborX() - x;
+		int dy = wallboard.getNeighborY() - y;
 		// delete wallboard on (x,y)
 		setWallToZero(x, y, dx, dy);
 		// delete same wallboard but for adjacent cell
@@ -729,20 +887,51 @@ public class Floorplan {
 		static final int CW_LEFT = 4; // 2^2
 		static final int CW_RIGHT = 8;// 2^3
 		 */
-		switch(dir) {
-		case North : 
-			return CW_TOP; // flipped: CW_TOP ;
-		case East : 
-			return CW_RIGHT ;
-		case South : 
-			return CW_BOT; // flipped CW_BOT ;
-		case West : 
-			return CW_LEFT ;
-		default:
-			throw new RuntimeException("Unsupported value in enum type") ;
-		}
+		// table lookup, North is matched with CW_TOP, South with CW_BOT
+		return CW_BY_DIRECTION[dir.ordinal()] ;
 	}
 	////////////////// iterator to access continuous sequences of wallboards //////////////////////////////////////////
+	/**
+	 * Receives continuous sequences of wallboards as [start,end] pairs,
+	 * see {@link Floorplan#forEachSequence(int, int, CardinalDirection, SequenceConsumer)}.
+	 */
+	@FunctionalInterface
+	public interface SequenceConsumer {
+		/**
+		 * Receives a sequence of wallboards.
+		 * @param start x or y coordinate of the first cell with a wallboard
+		 * @param end x or y coordinate of the first cell after the sequence
+		 */
+		void accept(int start, int end);
+	}
+	/**
+	 * Delivers the same [start,end] pairs as {@link #iterator(int, int, CardinalDirection)}
+	 * to the given consumer, in the same order, but without allocating an array per sequence.
+	 * @param x x-coordinate of first cell to consider
+	 * @param y y-coordinate of first cell to consider
+	 * @param cd gives the direction of interest
+	 * @param consumer receives each sequence, not null
+	 */
+	public void forEachSequence(int x, int y, CardinalDirection cd, SequenceConsumer consumer) {
+		switch(cd) {
+		case North: /* same code as for South */
+		case South:
+			while ((x = findBeginningOfHorizontalSequence(x, y, cd)) != width) {
+				final int start = x;
+				x = findEndOfHorizontalSequence(x, y, cd);
+				consumer.accept(start, x);
+			}
+			break;
+		case East: /* same code as for west */ 
+		case West:
+			while ((y = findBeginningOfVerticalSequence(x, y, cd)) != height) {
+				final int start = y;
+				y = findEndOfVerticalSequence(x, y, cd);
+				consumer.accept(start, y);
+			}
+			break;
+		}
+	}
 	public Iterator<int[]> iterator(int x, int y, CardinalDirection cd) {
         return new SequenceIterator(x,y,cd);
     }
@@ -836,68 +1025,69 @@ public class Floorplan {
             switch(cd) {
             case North: /* same code as for South */
             case South:
-                startX = findBeginningOfHorizontalSequence(startX, startY);
+                startX = findBeginningOfHorizontalSequence(startX, startY, cd);
                 if (startX == width) // no sequence
                     return null;
                 result = new int[2];
                 result[0] = startX;
-                startX = findEndOfHorizontalSequence(startX, startY);
+                startX = findEndOfHorizontalSequence(startX, startY, cd);
                 result[1] = startX;
                 break;
             case East: /* same code as for west */ 
             case West:
-                startY = findBeginningOfVerticalSequence(startX, startY);
+                startY = findBeginningOfVerticalSequence(startX, startY, cd);
                 if (startY == height) // no sequence
                     return null;
                 result = new int[2];
                 result[0] = startY;
-                startY = findEndOfVerticalSequence(startX, startY);
+                startY = findEndOfVerticalSequence(startX, startY, cd);
                 result[1] = startY;
                 break;
             }
             return result;
         }
-        private int findBeginningOfVerticalSequence(final int x, int y) {
-            while (y < height && hasNoWall(x, y, cd)) {
-                y++;
-            } 
-            return y;
-        }
-        private int findBeginningOfHorizontalSequence(int x, final int y) {
-            while (x < width && hasNoWall(x, y, cd)) {
-                x++;
-            } 
-            return x;
-        }
-        private int findEndOfVerticalSequence(final int x, int y) {
-            while (hasWall(x, y, cd)) {
-                y++;
-                // at limit, return
-                if (y == height) 
-                    break;
-                // at a crossing wallboard: as we go down, we hit a ceiling, a corner
-                // if the neighbor (x incremented already) has wallboard on the north side
-                // same as hasWall(x, y-1, CardinalDirection.South)
-                if (hasWall(x, y, CardinalDirection.North))
-                    break;
-            }
-            return y;
+                    }
+    // helpers to find sequences of wallboards for the given direction, shared by the iterator and forEachSequence
+    private int findBeginningOfVerticalSequence(final int x, int y, final CardinalDirection cd) {
+        while (y < height && hasNoWall(x, y, cd)) {
+            y++;
+        } 
+        return y;
+    }
+    private int findBeginningOfHorizontalSequence(int x, final int y, final CardinalDirection cd) {
+        while (x < width && hasNoWall(x, y, cd)) {
+            x++;
+        } 
+        return x;
+    }
+    private int findEndOfVerticalSequence(final int x, int y, final CardinalDirection cd) {
+        while (hasWall(x, y, cd)) {
+            y++;
+            // at limit, return
+            if (y == height) 
+                break;
+            // at a crossing wallboard: as we go down, we hit a ceiling, a corner
+            // if the neighbor (x incremented already) has wallboard on the north side
+            // same as hasWall(x, y-1, CardinalDirection.South)
+            if (hasWall(x, y, CardinalDirection.North))
+                break;
         }
-        private int findEndOfHorizontalSequence(int x, final int y) {
-            while (hasWall(x,y, cd)) {
-                x++;
-                // at limit, return
-                if (x == width)
-                    break;
-                // at a crossing wallboard: as we go east, we hit a blocking wallboard, 
-                // if the neighbor (x incremented already) has wallboard on the west side
-                // this is the same as hasWall(x-1,y, CardinalDirection.East)
-                if (hasWall(x,y, CardinalDirection.West))
-                    break;
-            }
-            return x;
+        return y;
+    }
+    private int findEndOfHorizontalSequence(int x, final int y, final CardinalDirection cd) {
+        while (hasWall(x,y, cd)) {
+            x++;
+            // at limit, return
+            if (x == width)
+                break;
+            // at a crossing wallboard: as we go east, we hit a blocking wallboard, 
+            // if the neighbor (x incremented already) has wallboard on the west side
+            // this is the same as hasWall(x-1,y, CardinalDirection.East)
+            if (hasWall(x,y, CardinalDirection.West))
+                break;
         }
-                    }
+        return x;
+    }
 	////////////////// low level methods operating on bits and bitmasks //////////////////////////////////////////
 	//  long term goal is to make all of these methods private to encapsulate the encoding ///////////////////////
 	/**
@@ -907,15 +1097,7 @@ public class Floorplan {
 	 * @param cw_bit like CW_LEFT, CW_RIGHT, CW_TOP, CW_BOTTOM
 	 */
 	private void setBitToZero(int x, int y, int cw_bit) {
-		cells[x][y] &= ~cw_bit;
-	}
-	/**
-	 * Sets all wallboard bits to zero for a given cell
-	 * @param x coordinate of cell, {@code 0 <= x < width}
-	 * @param y coordinate of cell, {@code 0 <= y < height}
-	 */
-	private void setAllToZero(int x, int y) {
-		setBitToZero(x, y, CW_ALL) ;
+		cells.clearBits(y*width+x, cw_bit);
 	}
 
 	//////// replace bitmask access 
@@ -924,10 +1106,10 @@ public class Floorplan {
 	// better to directly change client classes
 	//
 	protected boolean hasMaskedBitsTrue(int x, int y, int bitmask) {
-		return (cells[x][y] & bitmask) != 0;
+		return cells.hasBits(y*width+x, bitmask);
 	}
 	protected boolean hasMaskedBitsFalse(int x, int y, int bitmask) {
-		return (cells[x][y] & bitmask) == 0;
+		return !cells.hasBits(y*width+x, bitmask);
 	}
 
 	/**
@@ -948,9 +1130,9 @@ public class Floorplan {
 		}
 		return bit;
 		*/
-		// changed to reduce chances for inconsistent mappings
-		CardinalDirection dir = CardinalDirection.getDirection(dx, dy);
-		return getCWConstantForDirection(dir);
+		// table lookup, consistent with CardinalDirection.getDirection(dx, dy)
+		// and getCWConstantForDirection
+		return CW_BY_DXDY[(dx+1) + 3*(dy+1)];
 	}
 	/**
 	 * Sets bits to 1 for given bitmask
@@ -959,7 +1141,7 @@ public class Floorplan {
 	 * @param bitmask is the bitmask to use for adding 1's
 	 */
 	private void setBitToOne(int x, int y, int bitmask) {
-		cells[x][y] |= bitmask ;
+		cells.setBits(y*width+x, bitmask) ;
 	}
 
 	///////////////// code for debugging ///////////////////////////////////////
@@ -977,7 +1159,7 @@ public class Floorplan {
 		{
 			prefix = " i:" + i + " j:";
 			for (int j = 0 ; j < height ; j++)
-				s += prefix + j + "=" + cells[i][j] ;
+				s += prefix + j + "=" + cells.get(j*width+i) ;
 			s += "\n" ;
 		}
 		return s ;
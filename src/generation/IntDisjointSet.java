@@ -0,0 +1,64 @@
+package generation;
+
+/**
+ * A disjoint set of the int values 0,...,size-1, also known as union-find.
+ * Each set is a tree kept in an array of parents with the root as its representative.
+ * Union by rank keeps trees shallow and find halves the path to the root
+ * on the way, so any sequence of operations takes almost linear time.
+ *
+ * It is used by the builders for Kruskal's and Boruvka's algorithm
+ * to keep track of the components of cells that are connected so far
+ * with two arrays instead of an object per cell or component.
+ *
+ * The class is not thread safe.
+ */
+final class IntDisjointSet {
+	private final int[] parent; // parent[root] == root
+	private final byte[] rank; // upper bound for the height of the tree below a root
+
+	/**
+	 * Constructor, each value is a set of its own.
+	 * @param size the number of values, {@code 0 <= size}
+	 */
+	IntDisjointSet(int size) {
+		parent = new int[size];
+		rank = new byte[size];
+		for (int i = 0; i < size; i++) {
+			parent[i] = i;
+		}
+	}
+	/**
+	 * Gives the representative of the set that holds the given value.
+	 * @param value the value, {@code 0 <= value < size}
+	 * @return the root of the set
+	 */
+	int find(int value) {
+		while (parent[value] != value) {
+			parent[value] = parent[parent[value]];
+			value = parent[value];
+		}
+		return value;
+	}
+	/**
+	 * Merges the sets that hold the given values, the root with the lower rank
+	 * goes below the other root.
+	 * @param value1 a value, {@code 0 <= value1 < size}
+	 * @param value2 another value, {@code 0 <= value2 < size}
+	 * @return true if the values were in different sets, false otherwise
+	 */
+	boolean union(int value1, int value2) {
+		int root1 = find(value1);
+		int root2 = find(value2);
+		if (root1 == root2)
+			return false;
+		if (rank[root1] < rank[root2]) {
+			final int swap = root1;
+			root1 = root2;
+			root2 = swap;
+		}
+		parent[root2] = root1;
+		if (rank[root1] == rank[root2])
+			rank[root1]++;
+		return true;
+	}
+}
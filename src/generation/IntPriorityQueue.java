@@ -0,0 +1,98 @@
+package generation;
+
+import java.util.Arrays;
+
+/**
+ * A priority queue of primitive int values with non-negative int priorities
+ * kept in a binary min heap. Each entry is a single long that holds the
+ * priority in the upper and the value in the lower 32 bits, so entries
+ * compare by priority first and by value second.
+ * The heap doubles its capacity when it runs full.
+ *
+ * It is used by searches on weighted graphs, e.g. Dijkstra's algorithm
+ * on the junction graph and the A* search of the distance oracle,
+ * to avoid boxing values into objects and any allocation per entry.
+ * Entries are not updated in place; a search adds a value again
+ * with a smaller priority and skips outdated entries when they come up.
+ *
+ * The class is not thread safe.
+ */
+final class IntPriorityQueue {
+	private long[] heap; // heap[0] is the entry with the smallest priority
+	private int size; // number of entries currently stored
+
+	/**
+	 * Constructor
+	 * @param initialCapacity is an estimate for the number of entries, {@code 0 < initialCapacity}
+	 */
+	IntPriorityQueue(int initialCapacity) {
+		heap = new long[Math.max(initialCapacity, 16)];
+		size = 0;
+	}
+	/**
+	 * Tells if the queue holds any entries.
+	 * @return true if there are no entries, false otherwise
+	 */
+	boolean isEmpty() {
+		return size == 0;
+	}
+	/**
+	 * Removes all entries, keeps the current capacity.
+	 */
+	void clear() {
+		size = 0;
+	}
+	/**
+	 * Adds a value with the given priority.
+	 * @param value the value to add, {@code 0 <= value}
+	 * @param priority the priority of the value, {@code 0 <= priority}
+	 */
+	void add(int value, int priority) {
+		assert 0 <= value && 0 <= priority : "negative value or priority";
+		if (size == heap.length)
+			heap = Arrays.copyOf(heap, heap.length << 1);
+		final long entry = (long)priority << 32 | value;
+		int i = size++;
+		while (i > 0) {
+			final int parent = (i-1) >>> 1;
+			if (heap[parent] <= entry)
+				break;
+			heap[i] = heap[parent];
+			i = parent;
+		}
+		heap[i] = entry;
+	}
+	/**
+	 * Gives the smallest priority in the queue.
+	 * Precondition: the queue is not empty.
+	 * @return the priority of the first entry
+	 */
+	int firstPriority() {
+		assert size > 0 : "firstPriority on empty queue";
+		return (int) (heap[0] >>> 32);
+	}
+	/**
+	 * Removes the entry with the smallest priority and returns its value.
+	 * Precondition: the queue is not empty.
+	 * @return the value of the first entry
+	 */
+	int removeFirst() {
+		assert size > 0 : "removeFirst on empty queue";
+		final int result = (int) heap[0];
+		final long last = heap[--size];
+		int i = 0;
+		while (true) {
+			int child = 2*i + 1;
+			if (child >= size)
+				break;
+			if (child+1 < size && heap[child+1] < heap[child])
+				child++;
+			if (last <= heap[child])
+				break;
+			heap[i] = heap[child];
+			i = child;
+		}
+		heap[i] = last;
+		return result;
+	}
+}
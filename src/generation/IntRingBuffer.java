@@ -0,0 +1,120 @@
+package generation;
+
+/**
+ * A double-ended queue of primitive int values kept in a ring buffer.
+ * The buffer doubles its capacity when it runs full, so callers
+ * only need to provide a reasonable initial guess.
+ *
+ * It is used by the breadth first search in the Distance class as a first-in-first-out queue
+ * to avoid boxing cell indices into Integer objects and to avoid
+ * any allocation per visited cell. The growing tree builder uses it as its set of active cells
+ * where it takes the newest, the oldest or any element in constant time.
+ *
+ * The class is not thread safe.
+ */
+final class IntRingBuffer {
+	private int[] elements; // storage, capacity is always a power of 2
+	private int head; // position of the first element
+	private int size; // number of elements currently stored
+
+	/**
+	 * Constructor
+	 * @param initialCapacity is an estimate for the number of elements, {@code 0 < initialCapacity}
+	 */
+	IntRingBuffer(int initialCapacity) {
+		int capacity = Integer.highestOneBit(Math.max(initialCapacity, 16) - 1) << 1;
+		elements = new int[capacity];
+		head = 0;
+		size = 0;
+	}
+	/**
+	 * Tells if the queue holds any elements.
+	 * @return true if there are no elements, false otherwise
+	 */
+	boolean isEmpty() {
+		return size == 0;
+	}
+	/**
+	 * Gives the number of elements in the queue.
+	 * @return the number of elements
+	 */
+	int size() {
+		return size;
+	}
+	/**
+	 * Removes all elements, keeps the current capacity.
+	 */
+	void clear() {
+		head = 0;
+		size = 0;
+	}
+	/**
+	 * Appends the given value at the end of the queue.
+	 * @param value the value to add
+	 */
+	void addLast(int value) {
+		if (size == elements.length)
+			grow();
+		elements[(head + size) & (elements.length - 1)] = value;
+		size++;
+	}
+	/**
+	 * Removes and returns the first element of the queue.
+	 * Precondition: the queue is not empty.
+	 * @return the first element
+	 */
+	int removeFirst() {
+		assert size > 0 : "removeFirst on empty queue";
+		int value = elements[head];
+		head = (head + 1) & (elements.length - 1);
+		size--;
+		return value;
+	}
+	/**
+	 * Removes and returns the last element of the queue.
+	 * Precondition: the queue is not empty.
+	 * @return the last element
+	 */
+	int removeLast() {
+		assert size > 0 : "removeLast on empty queue";
+		size--;
+		return elements[(head + size) & (elements.length - 1)];
+	}
+	/**
+	 * Gives the element at the given position, counted from the first element.
+	 * @param position the position, {@code 0 <= position < size}
+	 * @return the element
+	 */
+	int get(int position) {
+		assert 0 <= position && position < size : "position out of range";
+		return elements[(head + position) & (elements.length - 1)];
+	}
+	/**
+	 * Removes and returns the element at the given position, counted from the first element.
+	 * The first element moves into its place, so the order of the other elements
+	 * only changes at the front and the last element stays the same.
+	 * @param position the position, {@code 0 <= position < size}
+	 * @return the element
+	 */
+	int removeAt(int position) {
+		assert 0 <= position && position < size : "position out of range";
+		final int index = (head + position) & (elements.length - 1);
+		final int value = elements[index];
+		elements[index] = elements[head];
+		head = (head + 1) & (elements.length - 1);
+		size--;
+		return value;
+	}
+	/**
+	 * Doubles the capacity and moves elements such that the
+	 * first element is at position 0 again.
+	 */
+	private void grow() {
+		int[] larger = new int[elements.length << 1];
+		int firstPart = elements.length - head;
+		System.arraycopy(elements, head, larger, 0, firstPart);
+		System.arraycopy(elements, 0, larger, firstPart, head);
+		elements = larger;
+		head = 0;
+	}
+}
@@ -0,0 +1,554 @@
+package generation;
+
+import java.util.Arrays;
+
+/**
+ * This class provides a contracted view of a maze as a weighted graph.
+ * Most cells of a generated maze are corridor cells with exactly two openings,
+ * and a search on the grid of a Floorplan spends most of its time walking
+ * along corridors one cell at a time. The junction graph only keeps
+ * the cells where a search has a choice or that are of special interest
+ * as nodes: dead ends, junctions, cells in rooms and any positions given
+ * at construction such as the start and exit position.
+ * An edge represents a corridor between two nodes, its weight is the
+ * number of steps from one node to the other and it keeps the sequence
+ * of corridor cells in between.
+ *
+ * The graph is stored in a compact layout of primitive arrays
+ * (compressed sparse rows): the edges of node v are at positions
+ * nodeStart[v],...,nodeStart[v+1]-1 of the adjacency arrays,
+ * and the cells of corridor e are at positions corridorStart[e],...,corridorStart[e+1]-1
+ * of a single array of cells, ordered from the first to the second node of the corridor.
+ * A corridor between two adjacent nodes has no cells and weight 1.
+ * Construction takes a single walk along each corridor, so it is linear
+ * in the number of cells.
+ *
+ * The floorplan is expected not to change after construction.
+ * Searches use internal scratch space and are synchronized, such that
+ * a robot driver and the distance field cache can share the graph of a maze.
+ */
+public class JunctionGraph {
+	private final Floorplan floorplan; // the maze layout, read only
+	private final int width;
+	private final int height;
+	/**
+	 * For each cell: {@code ~v} if the cell is node v,
+	 * otherwise the position of the cell in corridorCells.
+	 */
+	private final int[] cellSlot;
+	private final int[] nodeCell; // index of the cell of each node
+	private final int[] nodeStart; // start of the edges of each node, one more entry for the end
+	private final int[] edgeNode; // node at the other end of each edge
+	private final int[] edgeCorridor; // corridor of each edge
+	private final int[] edgeWeight; // weight of each edge, same as the weight of its corridor
+	private final int[] corridorFrom; // first node of each corridor
+	private final int[] corridorTo; // second node of each corridor
+	private final int[] corridorStart; // start of the cells of each corridor, one more entry for the end
+	private final int[] corridorCells; // cells of all corridors
+	// scratch space for searches
+	private int[] nodeDistance;
+	private IntPriorityQueue queue;
+
+	/**
+	 * Constructor
+	 * @param floorplan the maze layout, not null
+	 * @param width the width of the maze
+	 * @param height the height of the maze
+	 * @param positions (x,y) positions that are nodes in any case, e.g. start and exit position
+	 */
+	public JunctionGraph(Floorplan floorplan, int width, int height, int[]... positions) {
+		this.floorplan = floorplan;
+		this.width = width;
+		this.height = height;
+		final int size = width*height;
+		cellSlot = new int[size];
+		// Step 1: nodes, any cell with more or less than two openings or in a room
+		final boolean[] special = new boolean[size];
+		for (int[] p : positions)
+			special[p[1]*width + p[0]] = true;
+		int[] nodes = new int[Math.max(16, size >>> 4)];
+		int n = 0;
+		for (int cell = 0; cell < size; cell++) {
+			if (special[cell] || countOpenings(cell) != 2 || (floorplan.getValueOfCell(cell) & Floorplan.CW_IN_ROOM) != 0) {
+				if (n == nodes.length)
+					nodes = Arrays.copyOf(nodes, 2*n);
+				nodes[n] = cell;
+				cellSlot[cell] = ~n++;
+			}
+			else
+				cellSlot[cell] = UNASSIGNED;
+		}
+		// Step 2: corridors, walk from each node in each direction until the next node
+		corridorCellsFill = 0;
+		corridorCount = 0;
+		cells = new int[size - n];
+		from = new int[n + 16];
+		to = new int[n + 16];
+		start = new int[n + 17];
+		for (int v = 0; v < n; v++)
+			walkCorridors(v, nodes);
+		// Step 3: rings of corridor cells without any node, e.g. a corridor around
+		// an isolated area, get one of their cells as a node
+		for (int cell = 0; cell < size; cell++) {
+			if (cellSlot[cell] == UNASSIGNED) {
+				if (n == nodes.length)
+					nodes = Arrays.copyOf(nodes, 2*n);
+				nodes[n] = cell;
+				cellSlot[cell] = ~n;
+				walkCorridors(n++, nodes);
+			}
+		}
+		nodeCell = Arrays.copyOf(nodes, n);
+		corridorFrom = Arrays.copyOf(from, corridorCount);
+		corridorTo = Arrays.copyOf(to, corridorCount);
+		corridorStart = Arrays.copyOf(start, corridorCount+1);
+		corridorStart[corridorCount] = corridorCellsFill;
+		corridorCells = (cells.length == corridorCellsFill) ? cells : Arrays.copyOf(cells, corridorCellsFill);
+		from = to = start = cells = null;
+		// Step 4: adjacency in compressed sparse rows
+		nodeStart = new int[n+1];
+		for (int e = 0; e < corridorCount; e++) {
+			nodeStart[corridorFrom[e]+1]++;
+			nodeStart[corridorTo[e]+1]++;
+		}
+		for (int v = 0; v < n; v++)
+			nodeStart[v+1] += nodeStart[v];
+		edgeNode = new int[2*corridorCount];
+		edgeCorridor = new int[2*corridorCount];
+		edgeWeight = new int[2*corridorCount];
+		final int[] fill = Arrays.copyOf(nodeStart, n);
+		for (int e = 0; e < corridorCount; e++) {
+			final int weight = getCorridorWeight(e);
+			int i = fill[corridorFrom[e]]++;
+			edgeNode[i] = corridorTo[e];
+			edgeCorridor[i] = e;
+			edgeWeight[i] = weight;
+			i = fill[corridorTo[e]]++;
+			edgeNode[i] = corridorFrom[e];
+			edgeCorridor[i] = e;
+			edgeWeight[i] = weight;
+		}
+	}
+	/**
+	 * Gives the number of nodes.
+	 * @return the number of nodes
+	 */
+	public int getNumberOfNodes() {
+		return nodeCell.length;
+	}
+	/**
+	 * Gives the number of edges, each corridor is a single edge.
+	 * @return the number of corridors
+	 */
+	public int getNumberOfEdges() {
+		return corridorFrom.length;
+	}
+	/**
+	 * Gives the node at the given position.
+	 * @param x is the x coordinate, {@code 0 <= x < width}
+	 * @param y is the y coordinate, {@code 0 <= y < height}
+	 * @return the node, -1 if the position is a corridor cell
+	 */
+	public int getNode(int x, int y) {
+		final int slot = cellSlot[y*width + x];
+		return (slot < 0) ? ~slot : -1;
+	}
+	/**
+	 * Gives the position of a node.
+	 * @param node the node, {@code 0 <= node < getNumberOfNodes()}
+	 * @return the (x,y) position of the node
+	 */
+	public int[] getNodePosition(int node) {
+		return new int[] {nodeCell[node] % width, nodeCell[node] / width};
+	}
+	/**
+	 * Gives the number of edges at a node.
+	 * @param node the node, {@code 0 <= node < getNumberOfNodes()}
+	 * @return the number of edges, a corridor that returns to the node counts twice
+	 */
+	public int getDegree(int node) {
+		return nodeStart[node+1] - nodeStart[node];
+	}
+	/**
+	 * Gives the node at the other end of an edge.
+	 * @param node the node, {@code 0 <= node < getNumberOfNodes()}
+	 * @param i the number of the edge at the node, {@code 0 <= i < getDegree(node)}
+	 * @return the neighbor node
+	 */
+	public int getNeighbor(int node, int i) {
+		return edgeNode[nodeStart[node] + i];
+	}
+	/**
+	 * Gives the corridor of an edge.
+	 * @param node the node, {@code 0 <= node < getNumberOfNodes()}
+	 * @param i the number of the edge at the node, {@code 0 <= i < getDegree(node)}
+	 * @return the corridor
+	 */
+	public int getCorridor(int node, int i) {
+		return edgeCorridor[nodeStart[node] + i];
+	}
+	/**
+	 * Gives the number of steps along a corridor from one node to the other.
+	 * @param corridor the corridor, {@code 0 <= corridor < getNumberOfEdges()}
+	 * @return the weight of the corridor, one more than its number of cells
+	 */
+	public int getCorridorWeight(int corridor) {
+		return corridorStart[corridor+1] - corridorStart[corridor] + 1;
+	}
+	/**
+	 * Gives the nodes at both ends of a corridor.
+	 * @param corridor the corridor, {@code 0 <= corridor < getNumberOfEdges()}
+	 * @return the first and the second node
+	 */
+	public int[] getCorridorNodes(int corridor) {
+		return new int[] {corridorFrom[corridor], corridorTo[corridor]};
+	}
+	/**
+	 * Gives the cells of a corridor.
+	 * @param corridor the corridor, {@code 0 <= corridor < getNumberOfEdges()}
+	 * @return the (x,y) positions of the cells in order from the first to the second node
+	 */
+	public int[][] getCorridorCells(int corridor) {
+		final int[][] result = new int[corridorStart[corridor+1] - corridorStart[corridor]][];
+		for (int i = 0; i < result.length; i++) {
+			final int cell = corridorCells[corridorStart[corridor] + i];
+			result[i] = new int[] {cell % width, cell / width};
+		}
+		return result;
+	}
+	/**
+	 * Gives the number of steps to get from one position to the other.
+	 * Performs Dijkstra's algorithm on the graph that stops as soon as
+	 * no shorter path to the target is possible.
+	 * @param fromX is the x coordinate of the origin, {@code 0 <= fromX < width}
+	 * @param fromY is the y coordinate of the origin, {@code 0 <= fromY < height}
+	 * @param toX is the x coordinate of the target, {@code 0 <= toX < width}
+	 * @param toY is the y coordinate of the target, {@code 0 <= toY < height}
+	 * @return the distance, 0 if both positions are the same, Integer.MAX_VALUE if not reachable
+	 */
+	public synchronized int getDistance(int fromX, int fromY, int toX, int toY) {
+		final int s = fromY*width + fromX;
+		final int t = toY*width + toX;
+		if (s == t)
+			return 0;
+		// the nodes next to the target: a node or both ends of its corridor
+		final int slotT = cellSlot[t];
+		final int e = (slotT < 0) ? -1 : corridorOf(slotT);
+		final int a = (slotT < 0) ? ~slotT : corridorFrom[e];
+		final int b = (slotT < 0) ? ~slotT : corridorTo[e];
+		final int toA = (slotT < 0) ? 0 : slotT - corridorStart[e] + 1;
+		final int toB = (slotT < 0) ? 0 : corridorStart[e+1] - slotT;
+		int result = Integer.MAX_VALUE;
+		// both on the same corridor
+		final int slotS = cellSlot[s];
+		if (slotS >= 0 && slotT >= 0 && e == corridorOf(slotS))
+			result = Math.abs(slotS - slotT);
+		start(s);
+		while (!queue.isEmpty() && queue.firstPriority() < result) {
+			final int d = queue.firstPriority();
+			final int v = queue.removeFirst();
+			if (d > nodeDistance[v])
+				continue; // outdated entry
+			if (v == a)
+				result = Math.min(result, d + toA);
+			if (v == b)
+				result = Math.min(result, d + toB);
+			relax(v, d);
+		}
+		return result;
+	}
+	/**
+	 * Gives the cells along a shortest path from one position to the other.
+	 * Performs Dijkstra's algorithm from the target on the graph, then follows
+	 * the corridors whose far end is closer to the target, so the search only
+	 * visits nodes and corridor cells are only listed once they are on the path.
+	 * @param fromX is the x coordinate of the origin, {@code 0 <= fromX < width}
+	 * @param fromY is the y coordinate of the origin, {@code 0 <= fromY < height}
+	 * @param toX is the x coordinate of the target, {@code 0 <= toX < width}
+	 * @param toY is the y coordinate of the target, {@code 0 <= toY < height}
+	 * @return the (x,y) positions after the origin up to and including the target,
+	 * one per step, empty if both positions are the same, null if the target is not reachable
+	 */
+	public synchronized int[][] getPath(int fromX, int fromY, int toX, int toY) {
+		final int s = fromY*width + fromX;
+		final int t = toY*width + toX;
+		if (s == t)
+			return new int[0][];
+		computeNodeDistances(toX, toY);
+		// the nodes next to the target: a node or both ends of its corridor
+		final int slotT = cellSlot[t];
+		final int e = (slotT < 0) ? -1 : corridorOf(slotT);
+		final int a = (slotT < 0) ? ~slotT : corridorFrom[e];
+		final int b = (slotT < 0) ? ~slotT : corridorTo[e];
+		final int toA = (slotT < 0) ? 0 : slotT - corridorStart[e] + 1;
+		final int toB = (slotT < 0) ? 0 : corridorStart[e+1] - slotT;
+		// the length of the path and the way out of the corridor of the origin
+		final int slotS = cellSlot[s];
+		final int corridorS = (slotS < 0) ? -1 : corridorOf(slotS);
+		long viaFrom = Integer.MAX_VALUE;
+		long viaTo = Integer.MAX_VALUE;
+		long length;
+		if (slotS < 0)
+			length = nodeDistance[~slotS];
+		else {
+			viaFrom = (long) nodeDistance[corridorFrom[corridorS]] + (slotS - corridorStart[corridorS] + 1);
+			viaTo = (long) nodeDistance[corridorTo[corridorS]] + (corridorStart[corridorS+1] - slotS);
+			length = Math.min(viaFrom, viaTo);
+		}
+		final boolean direct = (slotS >= 0 && corridorS == e && Math.abs(slotS - slotT) <= length);
+		if (direct)
+			length = Math.abs(slotS - slotT);
+		if (length >= Integer.MAX_VALUE)
+			return null;
+		final int[] path = new int[(int) length];
+		int n = 0;
+		int v;
+		if (direct) {
+			final int step = (slotT > slotS) ? 1 : -1;
+			for (int slot = slotS + step; slot != slotT + step; slot += step)
+				path[n++] = corridorCells[slot];
+			return toPositions(path);
+		}
+		if (slotS < 0)
+			v = ~slotS;
+		else if (viaFrom == length) {
+			for (int slot = slotS - 1; slot >= corridorStart[corridorS]; slot--)
+				path[n++] = corridorCells[slot];
+			v = corridorFrom[corridorS];
+			path[n++] = nodeCell[v];
+		}
+		else {
+			for (int slot = slotS + 1; slot < corridorStart[corridorS+1]; slot++)
+				path[n++] = corridorCells[slot];
+			v = corridorTo[corridorS];
+			path[n++] = nodeCell[v];
+		}
+		// follow corridors towards the target until the node or corridor of the target is reached
+		while (true) {
+			final int d = nodeDistance[v];
+			if (slotT < 0 && v == a)
+				break;
+			if (slotT >= 0 && v == a && d == toA) {
+				for (int slot = corridorStart[e]; slot <= slotT; slot++)
+					path[n++] = corridorCells[slot];
+				break;
+			}
+			if (slotT >= 0 && v == b && d == toB) {
+				for (int slot = corridorStart[e+1] - 1; slot >= slotT; slot--)
+					path[n++] = corridorCells[slot];
+				break;
+			}
+			int i = nodeStart[v];
+			while ((long) nodeDistance[edgeNode[i]] + edgeWeight[i] != d)
+				i++;
+			final int c = edgeCorridor[i];
+			if (corridorFrom[c] == v) {
+				for (int slot = corridorStart[c]; slot < corridorStart[c+1]; slot++)
+					path[n++] = corridorCells[slot];
+			}
+			else {
+				for (int slot = corridorStart[c+1] - 1; slot >= corridorStart[c]; slot--)
+					path[n++] = corridorCells[slot];
+			}
+			v = edgeNode[i];
+			path[n++] = nodeCell[v];
+		}
+		assert n == path.length : "path must have one cell per step";
+		return toPositions(path);
+	}
+	/////////////////////// package private, for Distance //////////////////
+	/**
+	 * Gives the floorplan the graph was built from.
+	 * @return the floorplan
+	 */
+	Floorplan getFloorplan() {
+		return floorplan;
+	}
+	int getWidth() {
+		return width;
+	}
+	int getHeight() {
+		return height;
+	}
+	/**
+	 * Computes distances from the given position to all nodes with Dijkstra's algorithm.
+	 * @param x is the x coordinate, {@code 0 <= x < width}
+	 * @param y is the y coordinate, {@code 0 <= y < height}
+	 * @return the distance of each node, Integer.MAX_VALUE if not reachable,
+	 * the array is reused by the next search
+	 */
+	int[] computeNodeDistances(int x, int y) {
+		start(y*width + x);
+		while (!queue.isEmpty()) {
+			final int d = queue.firstPriority();
+			final int v = queue.removeFirst();
+			if (d <= nodeDistance[v])
+				relax(v, d);
+		}
+		return nodeDistance;
+	}
+	/**
+	 * Computes distances from the given position for all cells with Dijkstra's
+	 * algorithm on the nodes and fills in corridor cells from both of their ends.
+	 * The given position has value 1 as for the exit position of {@link Distance}.
+	 * @param x is the x coordinate, {@code 0 <= x < width}
+	 * @param y is the y coordinate, {@code 0 <= y < height}
+	 * @param dists receives the distance value plus 1 for each cell, unreachable cells get Integer.MAX_VALUE
+	 */
+	synchronized void computeDistances(int x, int y, CellStorage dists) {
+		final int s = y*width + x;
+		computeNodeDistances(x, y);
+		for (int v = 0; v < nodeCell.length; v++)
+			dists.set(nodeCell[v], increment(nodeDistance[v]));
+		final int slotS = cellSlot[s];
+		final int corridorS = (slotS < 0) ? -1 : corridorOf(slotS);
+		for (int e = 0; e < corridorFrom.length; e++) {
+			final long da = nodeDistance[corridorFrom[e]];
+			final long db = nodeDistance[corridorTo[e]];
+			final int first = corridorStart[e];
+			final int last = corridorStart[e+1];
+			for (int slot = first; slot < last; slot++) {
+				long d = Math.min(da + (slot - first + 1), db + (last - slot));
+				if (e == corridorS)
+					d = Math.min(d, Math.abs(slot - slotS));
+				dists.set(corridorCells[slot], increment(d));
+			}
+		}
+	}
+	//////////////// private, internal methods ///////////////////////////////
+	private static final int UNASSIGNED = Integer.MIN_VALUE; // a corridor cell that has not been walked yet
+	// construction state, released after construction
+	private int[] cells;
+	private int[] from;
+	private int[] to;
+	private int[] start;
+	private int corridorCellsFill;
+	private int corridorCount;
+
+	/**
+	 * Gives the neighbor of a cell if there is no wallboard in between.
+	 * @param cell the index of the cell
+	 * @param dir ordinal of a CardinalDirection
+	 * @return the index of the neighbor, -1 if there is a wallboard or the border of the maze
+	 */
+	private int neighbor(int cell, int dir) {
+		if ((floorplan.getValueOfCell(cell) & Floorplan.CW_BY_DIRECTION[dir]) != 0)
+			return -1;
+		final int x = cell % width + Floorplan.DX_BY_DIRECTION[dir];
+		final int y = cell / width + Floorplan.DY_BY_DIRECTION[dir];
+		return (0 <= x && x < width && 0 <= y && y < height) ? y*width + x : -1;
+	}
+	private int countOpenings(int cell) {
+		int result = 0;
+		for (int dir = 0; dir < 4; dir++) {
+			if (neighbor(cell, dir) >= 0)
+				result++;
+		}
+		return result;
+	}
+	/**
+	 * Walks all corridors that start at the given node and have not been walked
+	 * before and records them. A corridor between adjacent nodes is recorded
+	 * from the node with the smaller cell index.
+	 */
+	private void walkCorridors(int v, int[] nodes) {
+		final int cell = nodes[v];
+		for (int dir = 0; dir < 4; dir++) {
+			final int next = neighbor(cell, dir);
+			if (next < 0)
+				continue;
+			if (cellSlot[next] < 0 && cellSlot[next] != UNASSIGNED) {
+				if (cell < next)
+					addCorridor(v, ~cellSlot[next], corridorCellsFill);
+				continue;
+			}
+			if (cellSlot[next] != UNASSIGNED)
+				continue; // walked from the other end before
+			final int first = corridorCellsFill;
+			int previous = cell;
+			int current = next;
+			while (cellSlot[current] == UNASSIGNED) {
+				cellSlot[current] = corridorCellsFill;
+				cells[corridorCellsFill++] = current;
+				// a corridor cell has exactly two openings, continue with the one we did not come from
+				int d = 0;
+				int following = neighbor(current, d);
+				while (following < 0 || following == previous)
+					following = neighbor(current, ++d);
+				previous = current;
+				current = following;
+			}
+			assert cellSlot[current] < 0 : "corridor must end at a node";
+			addCorridor(v, ~cellSlot[current], first);
+		}
+	}
+	private void addCorridor(int a, int b, int first) {
+		if (corridorCount == from.length) {
+			from = Arrays.copyOf(from, 2*corridorCount);
+			to = Arrays.copyOf(to, 2*corridorCount);
+			start = Arrays.copyOf(start, 2*corridorCount+1);
+		}
+		from[corridorCount] = a;
+		to[corridorCount] = b;
+		start[corridorCount++] = first;
+	}
+	/**
+	 * Gives the corridor that holds the given position in corridorCells.
+	 */
+	private int corridorOf(int slot) {
+		// last corridor that starts at or before slot and is not empty
+		int low = 0;
+		int high = corridorFrom.length - 1;
+		while (low < high) {
+			final int mid = (low + high + 1) >>> 1;
+			if (corridorStart[mid] <= slot)
+				low = mid;
+			else
+				high = mid - 1;
+		}
+		return low;
+	}
+	/**
+	 * Initializes a search from the given cell: the distance of its node is 0,
+	 * for a corridor cell both ends of the corridor get the number of steps to them.
+	 */
+	private void start(int cell) {
+		if (null == nodeDistance) {
+			nodeDistance = new int[nodeCell.length];
+			queue = new IntPriorityQueue(nodeCell.length);
+		}
+		Arrays.fill(nodeDistance, Integer.MAX_VALUE);
+		queue.clear();
+		final int slot = cellSlot[cell];
+		if (slot < 0) {
+			nodeDistance[~slot] = 0;
+			queue.add(~slot, 0);
+			return;
+		}
+		final int e = corridorOf(slot);
+		update(corridorFrom[e], slot - corridorStart[e] + 1);
+		update(corridorTo[e], corridorStart[e+1] - slot);
+	}
+	/**
+	 * Relaxes all edges of a node that has its final distance.
+	 */
+	private void relax(int v, int d) {
+		for (int i = nodeStart[v]; i < nodeStart[v+1]; i++)
+			update(edgeNode[i], d + edgeWeight[i]);
+	}
+	private void update(int v, int d) {
+		if (d < nodeDistance[v]) {
+			nodeDistance[v] = d;
+			queue.add(v, d);
+		}
+	}
+	private int[][] toPositions(int[] cells) {
+		final int[][] result = new int[cells.length][];
+		for (int i = 0; i < cells.length; i++)
+			result[i] = new int[] {cells[i] % width, cells[i] / width};
+		return result;
+	}
+	private static int increment(long distance) {
+		return (distance >= Integer.MAX_VALUE) ? Integer.MAX_VALUE : (int) distance + 1;
+	}
+}
@@ -1,8 +1,8 @@
 package generation;
 
 import java.util.ArrayList;
-import java.util.Iterator;
 import java.util.List;
+import java.util.function.Consumer;
 
 import gui.Constants;
 
@@ -47,80 +47,64 @@ public class ListOfWallsBuilder {
 	 */
 	public List<Wall> generateWalls() {
 		ArrayList<Wall> result = new ArrayList<>();
-		generateWallsForHorizontalWallboards(result); 
-		generateWallsForVerticalWallboards(result);
-		// starting positions for walls seem to be chosen such that walls represent top or left wallboards
+		generateWalls(result::add);
 		return result ;
 	}
+	/**
+	 * Identifies continuous sequences of wallboards on the maze and hands
+	 * each wall to the given consumer as soon as it is found, in the same order
+	 * as in the list of {@link #generateWalls()}.
+	 * Nothing is collected, so this works for mazes whose list of walls
+	 * would not fit on the heap.
+	 * @param sink receives the walls, not null
+	 */
+	public void generateWalls(Consumer<Wall> sink) {
+		generateWallsForHorizontalWallboards(sink); 
+		generateWallsForVerticalWallboards(sink);
+		// starting positions for walls seem to be chosen such that walls represent top or left wallboards
+	}
 
 	/**
      * Identify continuous sequences of wallboards in a vertical direction
-     * @param sl the list of walls that carries the result of the computation
+     * @param sl receives the walls that result from the computation
      */
-	   private void generateWallsForVerticalWallboards(ArrayList<Wall> sl) {
-	        int x;
-	        int y;
-	        Iterator<int[]> it;
-	        int[] cur;
-	        // we search for vertical wallboards, so for each row
-	        for (x = 0; x < width; x++) {
-	            it = floorplan.iterator(x, 0, CardinalDirection.West);
-	            while(it.hasNext()) {
-	                cur = it.next();
-	                int starty = cur[0];
-	                y = cur[1];
-	                // create wall with (x,starty) being the actual start position of the wall, 
-                    // y-starty being the positive length
-                    sl.add(new Wall(x*Constants.MAP_UNIT, starty*Constants.MAP_UNIT,
-                            0, (y-starty)*Constants.MAP_UNIT, dists.getDistanceValue(x, starty), colchange));
-	            }
-	            
-	            it = floorplan.iterator(x, 0, CardinalDirection.East);
-                while(it.hasNext()) {
-                    cur = it.next();
-                    int starty = cur[0];
-                    y = cur[1];
-                    // create wall with (x+1,y) being being one off in both directions from the last cell in this wall, starty-y being the negative length
-                    // since we are looking at right wallboards, one off in the right direction (x+1) are then cells that have this wall on its left hand side
-                    // for some reason the end position is used as a starting position and therefore the length & direction is inverse 
-                    sl.add(new Wall((x+1)*Constants.MAP_UNIT, y*Constants.MAP_UNIT,
-                            0, (starty-y)*Constants.MAP_UNIT, dists.getDistanceValue(x, starty), colchange));
-                }
-	        }
-	    }
+	private void generateWallsForVerticalWallboards(Consumer<Wall> sl) {
+		// we search for vertical wallboards, so for each column
+		for (int x = 0; x < width; x++) {
+			final int cx = x; // effectively final copy for the callbacks
+			floorplan.forEachSequence(x, 0, CardinalDirection.West, (starty, y) ->
+				// create wall with (x,starty) being the actual start position of the wall, 
+				// y-starty being the positive length
+				sl.accept(new Wall(cx*Constants.MAP_UNIT, starty*Constants.MAP_UNIT,
+						0, (y-starty)*Constants.MAP_UNIT, dists.getDistanceValue(cx, starty), colchange)));
+			floorplan.forEachSequence(x, 0, CardinalDirection.East, (starty, y) ->
+				// create wall with (x+1,y) being being one off in both directions from the last cell in this wall, starty-y being the negative length
+				// since we are looking at right wallboards, one off in the right direction (x+1) are then cells that have this wall on its left hand side
+				// for some reason the end position is used as a starting position and therefore the length & direction is inverse 
+				sl.accept(new Wall((cx+1)*Constants.MAP_UNIT, y*Constants.MAP_UNIT,
+						0, (starty-y)*Constants.MAP_UNIT, dists.getDistanceValue(cx, starty), colchange)));
+		}
+	}
 	/**
      * Identify continuous sequences of wallboards in a horizontal direction
-     * @param sl  the list of walls that carries the result of the computation
+     * @param sl receives the walls that result from the computation
      */
-    private void generateWallsForHorizontalWallboards(ArrayList<Wall> sl) {
-        int x;
-        int y;
-        Iterator<int[]> it;
-        int[] cur;
-        // we search for horizontal wallboards, so for each column
-        for (y = 0; y < height; y++) {
-            // first round through rows
-            it = floorplan.iterator(0,y, CardinalDirection.North);
-            while(it.hasNext()) {
-                cur = it.next();
-                int startx = cur[0];
-                x = cur[1];
-                // create wall with (x,y) being the end positions, startx-x being the negative length
-                // note the (x,y) is not part of the wall
-                sl.add(new Wall(x*Constants.MAP_UNIT, y*Constants.MAP_UNIT,
-                        (startx-x)*Constants.MAP_UNIT, 0, dists.getDistanceValue(startx, y), colchange));
-            }
-            // second round through rows, same for bottom wallboards
-            it = floorplan.iterator(0,y, CardinalDirection.South);
-            while(it.hasNext()) {
-                cur = it.next();
-                int startx = cur[0];
-                x = cur[1];
-                // create wall with (startx,y+1) being one below the start position, x-startx being the positive length
-                // so this may represent a wallboard at the bottom of the wall as the top wallboard one below
-                sl.add(new Wall(startx*Constants.MAP_UNIT, (y+1)*Constants.MAP_UNIT,
-                        (x-startx)*Constants.MAP_UNIT, 0, dists.getDistanceValue(startx, y), colchange));
-            }
-        }
-    }
+	private void generateWallsForHorizontalWallboards(Consumer<Wall> sl) {
+		// we search for horizontal wallboards, so for each row
+		for (int y = 0; y < height; y++) {
+			final int cy = y; // effectively final copy for the callbacks
+			// first round through rows
+			floorplan.forEachSequence(0, y, CardinalDirection.North, (startx, x) ->
+				// create wall with (x,y) being the end positions, startx-x being the negative length
+				// note the (x,y) is not part of the wall
+				sl.accept(new Wall(x*Constants.MAP_UNIT, cy*Constants.MAP_UNIT,
+						(startx-x)*Constants.MAP_UNIT, 0, dists.getDistanceValue(startx, cy), colchange)));
+			// second round through rows, same for bottom wallboards
+			floorplan.forEachSequence(0, y, CardinalDirection.South, (startx, x) ->
+				// create wall with (startx,y+1) being one below the start position, x-startx being the positive length
+				// so this may represent a wallboard at the bottom of the wall as the top wallboard one below
+				sl.accept(new Wall(startx*Constants.MAP_UNIT, (cy+1)*Constants.MAP_UNIT,
+						(x-startx)*Constants.MAP_UNIT, 0, dists.getDistanceValue(startx, cy), colchange)));
+		}
+	}
 }
@@ -0,0 +1,115 @@
+package generation;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Storage that keeps one integer per cell in row-major order
+ * in a memory-mapped temporary file instead of on the Java heap.
+ * The operating system pages cells in and out as needed, so the
+ * size of a maze is bounded by disk space rather than by the heap.
+ * The heap only holds a few buffer objects per storage.
+ *
+ * A single mapping is limited to 2GB, so the file is mapped in
+ * segments of {@code 2^SEGMENT_SHIFT} cells each.
+ * The file is removed from the directory right after it is mapped,
+ * its space is given back once the mappings are garbage collected.
+ * On platforms that do not allow this, it is deleted on exit.
+ */
+final class MappedCellStorage implements CellStorage {
+	/** number of cells per mapped segment is {@code 1 << SEGMENT_SHIFT}, 256MB */
+	static final int SEGMENT_SHIFT = 26;
+	private static final int SEGMENT_MASK = (1 << SEGMENT_SHIFT) - 1;
+
+	private final int width;
+	private final int height;
+	private final IntBuffer[] segments; // cell i is at segments[i >>> SEGMENT_SHIFT].get(i & SEGMENT_MASK)
+
+	/**
+	 * Constructor, all values are zero.
+	 * @param width of the grid, {@code 0 <= width}
+	 * @param height of the grid, {@code 0 <= height}
+	 * @throws IllegalArgumentException if the grid has more cells than an int index can address
+	 * @throws UncheckedIOException if the backing file can not be created or mapped
+	 */
+	MappedCellStorage(int width, int height) {
+		final long size = (long)width * height;
+		if (size > Integer.MAX_VALUE)
+			throw new IllegalArgumentException("Too many cells for a floorplan: " + width + " x " + height);
+		this.width = width;
+		this.height = height;
+		segments = new IntBuffer[(int)((size + SEGMENT_MASK) >>> SEGMENT_SHIFT)];
+		try {
+			final Path file = Files.createTempFile("maze", ".cells");
+			try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+				for (int s = 0; s < segments.length; s++) {
+					final long first = (long)s << SEGMENT_SHIFT;
+					final long cellsInSegment = Math.min(size - first, 1L << SEGMENT_SHIFT);
+					// mapping beyond the end of the file extends it, new content reads as zero
+					segments[s] = channel.map(FileChannel.MapMode.READ_WRITE, 4*first, 4*cellsInSegment)
+							.order(ByteOrder.nativeOrder()).asIntBuffer();
+				}
+			}
+			try {
+				Files.delete(file);
+			} catch (IOException e) {
+				file.toFile().deleteOnExit();
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException("Can not map storage for " + width + " x " + height + " cells", e);
+		}
+	}
+	/**
+	 * Copy constructor
+	 * @param other provides dimensions and values
+	 */
+	private MappedCellStorage(MappedCellStorage other) {
+		this(other.width, other.height);
+		for (int s = 0; s < segments.length; s++) {
+			// duplicates have their own position, so concurrent readers of other are not affected
+			segments[s].duplicate().put(other.segments[s].duplicate());
+		}
+	}
+	@Override
+	public int getWidth() {
+		return width;
+	}
+	@Override
+	public int getHeight() {
+		return height;
+	}
+	@Override
+	public int get(int index) {
+		return segments[index >>> SEGMENT_SHIFT].get(index & SEGMENT_MASK);
+	}
+	@Override
+	public void set(int index, int value) {
+		segments[index >>> SEGMENT_SHIFT].put(index & SEGMENT_MASK, value);
+	}
+	@Override
+	public void setBits(int index, int bitmask) {
+		final IntBuffer segment = segments[index >>> SEGMENT_SHIFT];
+		final int i = index & SEGMENT_MASK;
+		segment.put(i, segment.get(i) | bitmask);
+	}
+	@Override
+	public void clearBits(int index, int bitmask) {
+		final IntBuffer segment = segments[index >>> SEGMENT_SHIFT];
+		final int i = index & SEGMENT_MASK;
+		segment.put(i, segment.get(i) & ~bitmask);
+	}
+	@Override
+	public boolean hasBits(int index, int bitmask) {
+		return (get(index) & bitmask) != 0;
+	}
+	@Override
+	public CellStorage copy() {
+		return new MappedCellStorage(this);
+	}
+}
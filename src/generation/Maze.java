@@ -121,6 +121,42 @@ public interface Maze {
 	 * @return int array of length 2 with (x',y') coordinates for neighbor
 	 */
 	public int[] getNeighborCloserToExit(int x, int y);
+	/**
+	 * Provides the direction from the given (x,y) position towards an 
+	 * adjacent position that is closer to the exit, i.e. the same
+	 * neighbor as in {@link #getNeighborCloserToExit(int, int)}.
+	 * Unlike that method, this one does not allocate memory and 
+	 * is meant to follow the path to the exit step by step.
+	 * @param x is on the horizontal axis, {@code 0 <= x < width}
+	 * @param y is on the vertical axis, {@code 0 <= y < height}
+	 * @return the direction towards the exit, null for the exit position
+	 */
+	public CardinalDirection getDirectionToExit(int x, int y);
+	/**
+	 * Provides distances from all positions to the given target position
+	 * as in {@link #getMazedists()} but with the target in the role of the exit.
+	 * Fields are computed with a breadth first search on demand 
+	 * and kept in a cache that is bounded in size.
+	 * @param x is on the horizontal axis, {@code 0 <= x < width}
+	 * @param y is on the vertical axis, {@code 0 <= y < height}
+	 * @return distances to the target, shared, must not be modified
+	 */
+	public Distance getDistanceField(int x, int y);
+	/**
+	 * Provides the cache that holds distance fields of this maze,
+	 * e.g. to query its hit and miss counters.
+	 * @return the cache for distance fields
+	 */
+	public DistanceFieldCache getDistanceFieldCache();
+	/**
+	 * Provides a contracted view of the maze as a weighted graph
+	 * where nodes are dead ends, junctions, room cells, the starting
+	 * and the exit position, and edges are the corridors in between.
+	 * Robot drivers and other planning algorithms can search this graph
+	 * instead of walking corridors cell by cell.
+	 * @return the junction graph, shared, read only
+	 */
+	public JunctionGraph getJunctionGraph();
 	/**
 	 * Provides coordinates (x,y) of the starting position for this maze.
 	 * Maze generation algorithms are expected to use the position
@@ -39,6 +39,7 @@ public class MazeBuilder implements Runnable {
 	static final int MAX_TRIES = 250 ; // room generation: max number of tries to find a random location for a room
 	static final int MIN_ROOM_DIMENSION = 3; // room generation: min dimension
 	static final int MAX_ROOM_DIMENSION = 8; // room generation: max dimension
+	static final int PARALLEL_BSP_CELLS = 1 << 14; // BSP tree: mazes with at least this many cells build it on all processors
 
 	/**
 	 * Constructor for a randomized maze generation
@@ -51,21 +52,39 @@ public class MazeBuilder implements Runnable {
 	 * @param order provides the spec for the maze generation from
 	 */
 	public void buildOrder(Order order) {
+		final int skill = order.getSkillLevel() ;
+		buildOrder(order, Constants.SKILL_X[skill], Constants.SKILL_Y[skill]);
+	}
+	/**
+	 * Sets internal fields according to given order but with the given
+	 * dimensions instead of the ones that belong to the skill level.
+	 * Other parameters such as the number of rooms still derive from the skill level.
+	 * This is meant for mazes that are larger than any skill level,
+	 * typically in combination with a Mapped storage in the order
+	 * such that the floorplan and the distances live outside of the heap.
+	 * Note that only the generation of pathways, distances and walls 
+	 * is designed for such dimensions, see {@link #generate()} and 
+	 * {@link ListOfWallsBuilder#generateWalls(java.util.function.Consumer)}.
+	 * @param order provides the spec for the maze generation from
+	 * @param width the width of the maze, {@code 0 < width}
+	 * @param height the height of the maze, {@code 0 < height}, {@code width*height <= Integer.MAX_VALUE}
+	 */
+	public void buildOrder(Order order, int width, int height) {
 		this.order = order;
 		// configure and obtain the random number generator
 		SingleRandom.setSeed(order.getSeed());
 		random = SingleRandom.getRandom();
 		// derive parameters 
 		int skill = order.getSkillLevel() ;
-		width = Constants.SKILL_X[skill];
-		height = Constants.SKILL_Y[skill];
+		this.width = width;
+		this.height = height;
 		// only algorithm without rooms guarantees a perfect maze
 		// rooms can result in loops, so for a perfect maze, set room number to 0
 		rooms = order.isPerfect() ? 0 : Constants.SKILL_ROOMS[skill];
 		expectedPartiters = Constants.SKILL_PARTCT[skill];
 		// instantiate data structures
-		floorplan = new Floorplan(width,height) ;
-		dists = new Distance(width,height) ;
+		floorplan = new Floorplan(width,height,order.getStorage()) ;
+		dists = new Distance(width,height,order.getStorage()) ;
 	}
 	/**
 	 * Main method to run construction of a new maze in a thread of its own.
@@ -89,6 +108,9 @@ public class MazeBuilder implements Runnable {
 
 			final int colchange = random.nextIntWithinInterval(0, 255); // used in the constructor for Segments  class Seg
 			final BSPBuilder b = new BSPBuilder(order, dists, floorplan, width, height, colchange, expectedPartiters) ;
+			b.setGrading(order.getGrading());
+			if ((long) width * height >= PARALLEL_BSP_CELLS) // smaller trees take less time than starting the threads
+				b.setParallelism(Runtime.getRuntime().availableProcessors());
 			BSPNode root = b.generateBSPNodes(); // takes a long time, updates progressbar, 
 			// it also internally checks for cancel requests
 			// and throws an interrupted exception if that happens
@@ -224,39 +246,41 @@ public class MazeBuilder implements Runnable {
 		final int firstx = x; 
 		final int firsty = y;
 		
-		CardinalDirection[][] origcds = new CardinalDirection[width][height]; 
+		// direction that led to a cell, encoded as ordinal+1 with 0 for none,
+		// kept in the same place as the floorplan, a byte per cell on the heap or in a mapped file
+		final CellStorage origcds = CellStorage.createForBytes(floorplan.getStorage(), width, height);
 		CardinalDirection cd = CardinalDirection.East;
 		CardinalDirection origcd = cd;
 		
 		floorplan.setCellAsVisited(x, y); 
-		Wallboard wallboard = new Wallboard(x, y, cd);
 		while (true) { 
-			wallboard.setLocationDirection(x, y, cd);
-			if (!floorplan.canTearDown(wallboard)) {
+			final int index = floorplan.getIndex(x, y);
+			if (!floorplan.canTearDown(index, cd.ordinal())) {
 				cd = cd.rotateClockwise();
 				if (origcd == cd) {				
 					if (x == firstx && y == firsty)
 						break; 			
-					int[] dxy = origcds[x][y].getDirection();
-					x -= dxy[0];
-					y -= dxy[1];
-					if (null == origcds[x][y]) {
+					final int back = origcds.get(index) - 1;
+					x -= Floorplan.DX_BY_DIRECTION[back];
+					y -= Floorplan.DY_BY_DIRECTION[back];
+					final int orig = origcds.get(floorplan.getIndex(x, y));
+					if (0 == orig) {
 						// Happens at starting position
 						assert (x == firstx && y == firsty) : "catching null elsewhere than starting position" ;
 						cd = cd.randomDirection() ;
 					}
 					else
-						cd = origcds[x][y] ;
+						cd = CardinalDirection.VALUES[orig-1] ;
 					cd = cd.rotateClockwise();
 					origcd = cd;
 				}
 			} else {
-				floorplan.deleteWallboard(wallboard);
-				int[] dxy = cd.getDirection();
-				x += dxy[0];
-				y += dxy[1];
-				floorplan.setCellAsVisited(x, y);
-				origcds[x][y] = cd;
+				floorplan.deleteWallboard(index, cd.ordinal());
+				x += Floorplan.DX_BY_DIRECTION[cd.ordinal()];
+				y += Floorplan.DY_BY_DIRECTION[cd.ordinal()];
+				final int next = floorplan.getNeighborIndex(index, cd.ordinal());
+				floorplan.setCellAsVisited(next);
+				origcds.set(next, cd.ordinal()+1);
 				cd = cd.randomDirection();
 				origcd = cd;
 			}
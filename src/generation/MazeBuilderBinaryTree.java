@@ -0,0 +1,111 @@
+package generation;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.SplittableRandom;
+
+/**
+ * This class has the responsibility to create a maze of given dimensions (width, height)
+ * together with a solution based on a distance matrix.
+ * The MazeBuilder implements Runnable such that it can be run a separate thread.
+ * The MazeFactory has a MazeBuilder and handles the thread management.
+ *
+ * The maze is built with the binary tree algorithm: each cell tears down either
+ * the wallboard to its right or the one below, decided by a coin flip.
+ * Cells in the last row can only go right and cells in the last column can only go down,
+ * so the bottom row and the rightmost column are long corridors
+ * and all paths lead there. The result is a perfect maze with a strong diagonal bias.
+ *
+ * Each cell only depends on its own coin flip, so rows are generated from top to bottom
+ * without any state but the row itself, see {@link #generateRows(int, int, int, RowSink)}.
+ * Coin flips come from a local generator that is seeded from the random number
+ * generator of the order. Rooms would require the full grid, so the builder
+ * does not place rooms and always generates a perfect maze.
+ */
+public class MazeBuilderBinaryTree extends MazeBuilder implements Runnable {
+
+	private SplittableRandom coins; // local generator
+	private RandomBits flips; // random bits for coin flips, 32 for each call of the local generator
+
+	public MazeBuilderBinaryTree() {
+		super();
+		System.out.println("MazeBuilderBinaryTree uses the binary tree algorithm to generate maze.");
+	}
+
+	/**
+	 * The binary tree algorithm generates perfect mazes only, so no rooms are placed.
+	 * @return 0 for no rooms
+	 */
+	@Override
+	protected int generateRooms() {
+		return 0;
+	}
+
+	/**
+	 * This method generates pathways into the maze with the binary tree algorithm
+	 * and tears down the wallboards of each row in the floorplan.
+	 */
+	@Override
+	protected void generatePathways() {
+		try {
+			generateRows(width, height, RowSink.floorplanWriter(floorplan));
+		}
+		catch (IOException e) {
+			// the floorplan does not do any input or output
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Generates a perfect maze of the given dimensions with the binary tree algorithm and
+	 * hands each row over to the sink, from top to bottom. Memory is a single row.
+	 * The maze is the same as for an order with the same seed and dimensions,
+	 * but there is no floorplan, no exit and no distance matrix.
+	 * @param seed the seed for the random number generator
+	 * @param width the width of the maze, {@code 0 < width}
+	 * @param height the height of the maze, {@code 0 < height}
+	 * @param sink receives the rows
+	 * @throws IOException if the sink fails to take a row
+	 */
+	public void generateRows(int seed, int width, int height, RowSink sink) throws IOException {
+		SingleRandom.setSeed(seed);
+		random = SingleRandom.getRandom();
+		generateRows(width, height, sink);
+	}
+
+	/**
+	 * Generates the rows with a local generator seeded from the current random number generator.
+	 * The wallboard above a cell is open if the cell above went down, which is still
+	 * in the row array from the last row.
+	 */
+	private void generateRows(int width, int height, RowSink sink) throws IOException {
+		assert 0 < width && 0 < height : "Invalid dimensions";
+		coins = new SplittableRandom(random.nextInt());
+		flips = new RandomBits(coins::nextInt);
+		final int[] cells = new int[width];
+		for (int y = 0; y < height; y++) {
+			final boolean last = (y == height-1);
+			boolean left = false; // true if the cell to the left went right
+			for (int x = 0; x < width; x++) {
+				final boolean up = y > 0 && (cells[x] & Floorplan.CW_BOT) == 0;
+				// go right in the last row, down in the last column, otherwise flip a coin
+				final boolean right = (x < width-1) && (last || flips.coin());
+				final boolean down = !last && !right;
+				int value = Floorplan.CW_TOP | Floorplan.CW_BOT | Floorplan.CW_LEFT | Floorplan.CW_RIGHT;
+				if (up)
+					value &= ~Floorplan.CW_TOP;
+				if (left)
+					value &= ~Floorplan.CW_LEFT;
+				if (right)
+					value &= ~Floorplan.CW_RIGHT;
+				if (down)
+					value &= ~Floorplan.CW_BOT;
+				cells[x] = value;
+				left = right;
+			}
+			sink.acceptRow(y, cells);
+		}
+		coins = null;
+		flips = null;
+	}
+}
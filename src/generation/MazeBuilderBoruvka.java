@@ -1,6 +1,7 @@
 package generation;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 
 /**
  * This class has the responsibility to create a maze of given dimensions (width, height) 
@@ -40,8 +41,19 @@ public class MazeBuilderBoruvka extends MazeBuilder implements Runnable {
 		
 	}
 	
-	// overrides generatePathways so that we can generate the pathways 
-	// using Boruvka's algorithm
+	/**
+	 * Generates pathways with Boruvka's algorithm. In each round, every component
+	 * picks the cheapest wallboard that leads to a different component, and all picked
+	 * wallboards are torn down. Rounds continue until no wallboard connects two components.
+	 * As all weights are different, the result is the unique minimum spanning forest 
+	 * of the candidate wallboards, the same as for {@link #generatePathwaysByComponentLists()}.
+	 * 
+	 * Components are kept in a disjoint set of cells, see {@link IntDisjointSet},
+	 * candidates are kept in a primitive array with the index of their weight as in
+	 * {@link #getIdx(Wallboard)}, and candidates within a single component are dropped 
+	 * after each round. A round thus takes almost linear time in the number of candidates
+	 * and the number of components at least halves with each round.
+	 */
 	@Override
 	protected void generatePathways() {
 		
@@ -51,6 +63,81 @@ public class MazeBuilderBoruvka extends MazeBuilder implements Runnable {
 		// mix the array so that all of the weights are in a random order
 		mixArray();
 		
+		final int size = this.width*this.height;
+		// candidate wallboards, each encoded by the index of its weight: 2*cell for east, 2*cell+1 for south
+		int[] candidates = new int[2*size];
+		int count = 0;
+		for (int cell = 0; cell < size; cell++) {
+			if (this.floorplan.canTearDown(cell, CardinalDirection.East.ordinal()))
+				candidates[count++] = 2*cell;
+			if (this.floorplan.canTearDown(cell, CardinalDirection.South.ordinal()))
+				candidates[count++] = 2*cell+1;
+		}
+		// initially each cell is a component of its own
+		final IntDisjointSet components = new IntDisjointSet(size);
+		// cheapest candidate for each component by its root, -1 for none
+		final int[] cheapest = new int[size];
+		Arrays.fill(cheapest, -1);
+		// roots of components that have a cheapest candidate in the current round
+		final int[] roots = new int[size];
+		
+		while (count > 0) {
+			int rootCount = 0;
+			int kept = 0;
+			for (int i = 0; i < count; i++) {
+				final int candidate = candidates[i];
+				final int cell = candidate >>> 1;
+				final int rootU = components.find(cell);
+				final int rootV = components.find(otherCell(candidate));
+				if (rootU == rootV) 
+					continue; // never again a candidate
+				candidates[kept++] = candidate;
+				final int weight = this.arr[candidate];
+				if (cheapest[rootU] < 0) 
+					roots[rootCount++] = rootU;
+				if (cheapest[rootU] < 0 || weight < this.arr[cheapest[rootU]]) 
+					cheapest[rootU] = candidate;
+				if (cheapest[rootV] < 0) 
+					roots[rootCount++] = rootV;
+				if (cheapest[rootV] < 0 || weight < this.arr[cheapest[rootV]]) 
+					cheapest[rootV] = candidate;
+			}
+			count = kept;
+			// the cheapest candidates form a forest, so the only ones that 
+			// end up in the same component are picked by both of their components
+			for (int i = 0; i < rootCount; i++) {
+				final int candidate = cheapest[roots[i]];
+				cheapest[roots[i]] = -1;
+				if (components.union(candidate >>> 1, otherCell(candidate))) {
+					this.floorplan.deleteWallboard(candidate >>> 1, 
+							((candidate & 1) == 0 ? CardinalDirection.East : CardinalDirection.South).ordinal());
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Gives the cell on the other side of the east or south wallboard
+	 * that is encoded by the index of its weight.
+	 */
+	private int otherCell(int candidate) {
+		return (candidate >>> 1) + (((candidate & 1) == 0) ? 1 : this.width);
+	}
+	
+	/**
+	 * Generates pathways with the original implementation of Boruvka's algorithm 
+	 * that keeps components in lists of points and searches them for each candidate.
+	 * The computation is quadratic in the number of cells and only 
+	 * kept as a reference for regression tests of {@link #generatePathways()}.
+	 */
+	void generatePathwaysByComponentLists() {
+		
+		// create the array for weights
+		createArray();
+		
+		// mix the array so that all of the weights are in a random order
+		mixArray();
+		
 		// initialize a forest F to (V,E') where E' = {}
 		generate_vertices_and_edge_candidates();
 		
@@ -75,20 +162,24 @@ public class MazeBuilderBoruvka extends MazeBuilder implements Runnable {
 			// for each edge uv in E where u and v are in different components of F
 			for (Wallboard candidate : this.edge_candidates) {
 				Wallboard edge = null;
-				int[] pt1 = new int[]{candidate.getX(),candidate.getY()};
-				int[] pt2 = getOtherCell(candidate);
+				// coordinates of both cells, kept in local variables to avoid
+				// allocating arrays for each candidate in each iteration
+				final int x1 = candidate.getX();
+				final int y1 = candidate.getY();
+				final int x2 = candidate.getNeighborX();
+				final int y2 = candidate.getNeighborY();
 				ArrayList<int[]> pt1_comp = null;
 				ArrayList<int[]> pt2_comp = null;
 				// we look through each component in components (does not run if components is empty)
 				// if either vertex belonging to uv is found, we remember which component it was in
 				for (ArrayList<int[]> comp : components) {
 					for (int[] point : comp) {
-						if (point[0] == pt1[0] & point[1] == pt1[1]) {
+						if (point[0] == x1 & point[1] == y1) {
 							pt1_comp = comp;
 						}
 					}
 					for (int[] point : comp) {
-						if (point[0] == pt2[0] & point[1] == pt2[1]) {
+						if (point[0] == x2 & point[1] == y2) {
 							pt2_comp = comp;
 						}
 					}
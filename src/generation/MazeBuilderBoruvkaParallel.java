@@ -0,0 +1,259 @@
+package generation;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.IntConsumer;
+
+/**
+ * This class has the responsibility to create a maze with Boruvka's algorithm
+ * as {@link MazeBuilderBoruvka} does, but runs the rounds of the algorithm
+ * on several threads of a fork-join pool.
+ *
+ * Each round has the following steps:
+ * <ol>
+ * <li>candidates are split into chunks, each chunk drops the candidates within
+ * a single component and offers the others to the components at both ends,
+ * the cheapest candidate of a component is kept lock-free as the minimum
+ * of its weight and index packed into a long of an atomic array,</li>
+ * <li>each component with a cheapest candidate hooks its root below the root
+ * of the component at the other end, for a pair of components that picked
+ * the same candidate only the one with the larger root is hooked,</li>
+ * <li>roots of hooked components are compressed to the new roots in parallel
+ * and each cell learns the new root of its component,</li>
+ * <li>wallboards of hooked candidates are torn down, this is sequential
+ * as the cell storage of the floorplan is not safe for concurrent updates.</li>
+ * </ol>
+ * As all weights are different, the cheapest candidates form a forest
+ * and the only cycles of hooks are such pairs, so the result does not depend on the
+ * order of updates. The weights are created sequentially from the random number generator,
+ * so for a given seed the maze is the same for any number of threads and
+ * the same as for {@link MazeBuilderBoruvka}.
+ */
+public class MazeBuilderBoruvkaParallel extends MazeBuilderBoruvka {
+
+	// each chunk of work has at least this many elements to be worth a task
+	private static final int MIN_CHUNK_SIZE = 1 << 14;
+	// number of chunks per thread to balance the load
+	private static final int CHUNKS_PER_THREAD = 4;
+	// marks a component without a cheapest candidate
+	private static final long NONE = Long.MAX_VALUE;
+
+	private final int parallelism; // number of threads for the fork-join pool
+
+	// state of the current round, only used during generatePathways
+	private ForkJoinPool pool;
+	private int[] candidates; // candidate wallboards encoded as in MazeBuilderBoruvka.generatePathways
+	private int[] kept; // number of candidates that each chunk keeps
+	private int[] parent; // forest of components, parent[root] == root
+	private int[] component; // the root of the component of each cell
+	private int[] roots; // roots of components that had a cheapest candidate in the last round
+	private AtomicLongArray cheapest; // weight << 32 | candidate for each root, NONE if there is none
+
+	/**
+	 * Constructor for a builder that uses as many threads as there are processors.
+	 */
+	public MazeBuilderBoruvkaParallel() {
+		this(Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Constructor
+	 * @param parallelism the number of threads to use, {@code 0 < parallelism}
+	 */
+	public MazeBuilderBoruvkaParallel(int parallelism) {
+		super();
+		assert parallelism > 0 : "Invalid number of threads";
+		this.parallelism = parallelism;
+		System.out.println("MazeBuilderBoruvkaParallel runs the rounds of Boruvka's algorithm on " + parallelism + " threads.");
+	}
+
+	/**
+	 * Gives the number of threads that generatePathways uses.
+	 * @return the number of threads
+	 */
+	public int getParallelism() {
+		return parallelism;
+	}
+
+	/**
+	 * Generates pathways with Boruvka's algorithm where each round
+	 * runs on the threads of a fork-join pool.
+	 */
+	@Override
+	protected void generatePathways() {
+		// the random number generator is not thread safe, weights are created sequentially
+		createArray();
+		mixArray();
+
+		final int size = this.width*this.height;
+		candidates = new int[2*size];
+		int count = 0;
+		for (int cell = 0; cell < size; cell++) {
+			if (this.floorplan.canTearDown(cell, CardinalDirection.East.ordinal()))
+				candidates[count++] = 2*cell;
+			if (this.floorplan.canTearDown(cell, CardinalDirection.South.ordinal()))
+				candidates[count++] = 2*cell+1;
+		}
+		parent = new int[size];
+		component = new int[size];
+		roots = new int[size];
+		cheapest = new AtomicLongArray(size);
+		kept = new int[chunks(count)];
+		pool = new ForkJoinPool(parallelism);
+		try {
+			parallelFor(size, cell -> {
+				parent[cell] = cell;
+				component[cell] = cell;
+				roots[cell] = cell;
+				cheapest.set(cell, NONE);
+			});
+			int rootCount = size;
+			while (count > 0) {
+				count = findCheapest(count);
+				hook(rootCount);
+				rootCount = tearDown(rootCount);
+			}
+		}
+		finally {
+			pool.shutdown();
+			pool = null;
+			candidates = null;
+			kept = null;
+			parent = null;
+			component = null;
+			roots = null;
+			cheapest = null;
+		}
+	}
+
+	/**
+	 * Drops candidates within a single component and sets the cheapest candidate
+	 * for each component, both in parallel over chunks of candidates.
+	 * Each chunk keeps its remaining candidates in order at its beginning,
+	 * then chunks are concatenated such that the order does not depend on the threads.
+	 * @param count the number of candidates
+	 * @return the number of remaining candidates
+	 */
+	private int findCheapest(int count) {
+		final int chunks = chunks(count);
+		final int chunkSize = (count + chunks - 1) / chunks;
+		pool.invoke(new ChunkTask(0, chunks, chunk -> {
+			final int from = chunk*chunkSize;
+			final int to = Math.min(from + chunkSize, count);
+			int next = from;
+			for (int i = from; i < to; i++) {
+				final int candidate = candidates[i];
+				final int cell = candidate >>> 1;
+				final int rootU = component[cell];
+				final int rootV = component[cell + (((candidate & 1) == 0) ? 1 : this.width)];
+				if (rootU == rootV)
+					continue; // never again a candidate
+				candidates[next++] = candidate;
+				final long packed = (long) this.arr[candidate] << 32 | candidate;
+				offer(rootU, packed);
+				offer(rootV, packed);
+			}
+			kept[chunk] = next - from;
+		}));
+		int result = kept[0];
+		for (int chunk = 1; chunk < chunks; chunk++) {
+			System.arraycopy(candidates, chunk*chunkSize, candidates, result, kept[chunk]);
+			result += kept[chunk];
+		}
+		return result;
+	}
+
+	/**
+	 * Sets the cheapest candidate of a component to the given one if that is cheaper,
+	 * with a compare and set loop that only writes for a lower value.
+	 */
+	private void offer(int root, long packed) {
+		long current = cheapest.get(root);
+		while (packed < current) {
+			if (cheapest.compareAndSet(root, current, packed))
+				return;
+			current = cheapest.get(root);
+		}
+	}
+
+	/**
+	 * Hooks the root of each component with a cheapest candidate below the root
+	 * at the other end of the candidate and updates the component of each cell.
+	 * @param rootCount the number of roots from the last round
+	 */
+	private void hook(int rootCount) {
+		// each root only writes its own parent, the others only read components and candidates
+		parallelFor(rootCount, i -> {
+			final int root = roots[i];
+			final long packed = cheapest.get(root);
+			if (packed == NONE)
+				return;
+			final int candidate = (int) packed;
+			final int cell = candidate >>> 1;
+			int other = component[cell];
+			if (other == root)
+				other = component[cell + (((candidate & 1) == 0) ? 1 : this.width)];
+			// both components picked the same candidate: the smaller root stays a root
+			if (root < other && cheapest.get(other) == packed)
+				return;
+			parent[root] = other;
+		});
+		// compresses the path of each hooked root to its new root,
+		// concurrent writes only replace a parent by one of its ancestors
+		parallelFor(rootCount, i -> {
+			final int root = roots[i];
+			int top = root;
+			while (parent[top] != top)
+				top = parent[top];
+			parent[root] = top;
+		});
+		parallelFor(this.width*this.height, cell -> component[cell] = parent[component[cell]]);
+	}
+
+	/**
+	 * Tears down the cheapest candidate of each hooked component, resets
+	 * the cheapest candidates and keeps the roots that remain roots.
+	 * @param rootCount the number of roots from the last round
+	 * @return the number of roots for the next round
+	 */
+	private int tearDown(int rootCount) {
+		int result = 0;
+		for (int i = 0; i < rootCount; i++) {
+			final int root = roots[i];
+			final long packed = cheapest.get(root);
+			if (packed == NONE)
+				continue; // without candidates, the component is final
+			cheapest.set(root, NONE);
+			if (parent[root] == root) {
+				roots[result++] = root;
+			}
+			else {
+				final int candidate = (int) packed;
+				this.floorplan.deleteWallboard(candidate >>> 1,
+						((candidate & 1) == 0 ? CardinalDirection.East : CardinalDirection.South).ordinal());
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Gives the number of chunks for the given number of elements.
+	 */
+	private int chunks(int count) {
+		return Math.max(1, Math.min(parallelism*CHUNKS_PER_THREAD, count / MIN_CHUNK_SIZE));
+	}
+
+	/**
+	 * Performs the given action for each index from 0 to count-1
+	 * in parallel over chunks of indices.
+	 */
+	private void parallelFor(int count, IntConsumer action) {
+		final int chunks = chunks(count);
+		final int chunkSize = (count + chunks - 1) / chunks;
+		pool.invoke(new ChunkTask(0, chunks, chunk -> {
+			final int to = Math.min((chunk+1)*chunkSize, count);
+			for (int i = chunk*chunkSize; i < to; i++)
+				action.accept(i);
+		}));
+	}
+}
@@ -0,0 +1,73 @@
+package generation;
+
+import java.util.SplittableRandom;
+
+/**
+ * This class has the responsibility to create a maze of given dimensions (width, height)
+ * together with a solution based on a distance matrix.
+ * The MazeBuilder implements Runnable such that it can be run a separate thread.
+ * The MazeFactory has a MazeBuilder and handles the thread management.
+ *
+ * The maze is built with the same randomized depth first search as in {@link MazeBuilder}:
+ * starting from a random cell of the top row, the search enters a new cell,
+ * picks a random direction and tries all four directions clockwise from there,
+ * tears down the wallboard to the first neighbor that is new and continues there.
+ * If there is no new neighbor, it backtracks to the cell it came from.
+ *
+ * The state of the search is kept in a single byte per cell: the direction that led
+ * to the cell and how many directions have been tried from it. The directions that
+ * lead back form the stack of the search, so backtracking continues
+ * with the next direction of the previous cell instead of starting over.
+ * Random directions come from a local generator that is seeded from the
+ * random number generator of the order, two bits per direction, so that
+ * the search does not go through the shared generator at each step.
+ */
+public class MazeBuilderCompactDFS extends MazeBuilder implements Runnable {
+
+	// layout of the byte per cell
+	private static final int FIRST_SHIFT = 0; // bits 0-1: first direction to try
+	private static final int TRIED_SHIFT = 2; // bits 2-4: number of directions tried, 0 to 4
+	private static final int PARENT_SHIFT = 5; // bits 5-6: direction that led to the cell
+	private static final int HAS_PARENT = 1 << 7; // bit 7: set for all cells but the first one
+
+	// random bits for directions, 16 directions for each call of the local generator
+	private RandomBits directions;
+
+	public MazeBuilderCompactDFS() {
+		super();
+		System.out.println("MazeBuilderCompactDFS uses a compact depth first search to generate maze.");
+	}
+
+	/**
+	 * This method generates pathways into the maze with a randomized depth first search.
+	 */
+	@Override
+	protected void generatePathways() {
+		final SplittableRandom local = new SplittableRandom(random.nextInt());
+		directions = new RandomBits(local::nextInt);
+		final byte[] states = new byte[width*height];
+		int index = random.nextIntWithinInterval(0, width-1); // a cell in the top row
+		floorplan.setCellAsVisited(index);
+		states[index] = (byte) (directions.direction() << FIRST_SHIFT);
+		while (true) {
+			final int state = states[index] & 0xff;
+			final int tried = (state >> TRIED_SHIFT) & 7;
+			if (tried == 4) {
+				// all directions are done, backtrack
+				if ((state & HAS_PARENT) == 0)
+					break;
+				index = floorplan.getNeighborIndex(index, (((state >> PARENT_SHIFT) & 3) + 2) & 3);
+				continue;
+			}
+			states[index] = (byte) (state + (1 << TRIED_SHIFT));
+			final int dir = (((state >> FIRST_SHIFT) & 3) + tried) & 3;
+			if (floorplan.canTearDown(index, dir)) {
+				floorplan.deleteWallboard(index, dir);
+				index = floorplan.getNeighborIndex(index, dir);
+				floorplan.setCellAsVisited(index);
+				states[index] = (byte) (HAS_PARENT | dir << PARENT_SHIFT | directions.direction() << FIRST_SHIFT);
+			}
+		}
+		directions = null;
+	}
+}
@@ -0,0 +1,167 @@
+package generation;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+
+/**
+ * This class has the responsibility to create a maze of given dimensions (width, height)
+ * together with a solution based on a distance matrix.
+ * The MazeBuilder implements Runnable such that it can be run a separate thread.
+ * The MazeFactory has a MazeBuilder and handles the thread management.
+ *
+ * The maze is built with Eller's algorithm that generates a perfect maze
+ * one row at a time. It only keeps the sets of cells of the current row that are
+ * connected through the rows above. Within a row, adjacent cells of different sets
+ * are joined at random, then each set continues into the next row with at least one
+ * random cell, all other cells of the next row start in sets of their own.
+ * In the last row, all adjacent cells of different sets are joined.
+ *
+ * As the algorithm never looks at more than one row, it also works in a
+ * streaming mode, see {@link #generateRows(int, int, int, RowSink)},
+ * that hands each row over to a sink and does not need a floorplan.
+ * Memory is linear in the width and independent of the height, so even
+ * a maze of 1000 x 10,000,000 cells can be written to a file.
+ *
+ * Rooms would require the full grid, so the builder does not place rooms
+ * and always generates a perfect maze.
+ */
+public class MazeBuilderEller extends MazeBuilder implements Runnable {
+
+	// random bits for coin flips, 32 for each call of the random number generator
+	private RandomBits flips;
+
+	public MazeBuilderEller() {
+		super();
+		System.out.println("MazeBuilderEller uses Eller's algorithm to generate maze.");
+	}
+
+	/**
+	 * Eller's algorithm generates perfect mazes only, so no rooms are placed.
+	 * @return 0 for no rooms
+	 */
+	@Override
+	protected int generateRooms() {
+		return 0;
+	}
+
+	/**
+	 * This method generates pathways into the maze by using Eller's algorithm
+	 * and tears down the wallboards of each row in the floorplan.
+	 */
+	@Override
+	protected void generatePathways() {
+		try {
+			generateRows(width, height, RowSink.floorplanWriter(floorplan));
+		}
+		catch (IOException e) {
+			// the floorplan does not do any input or output
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Generates a perfect maze of the given dimensions with Eller's algorithm and
+	 * hands each row over to the sink, from top to bottom. Memory is linear in the width
+	 * and independent of the height. The maze is the same as for an order with the same seed
+	 * and dimensions, but there is no floorplan, no exit and no distance matrix.
+	 * @param seed the seed for the random number generator
+	 * @param width the width of the maze, {@code 0 < width}
+	 * @param height the height of the maze, {@code 0 < height}
+	 * @param sink receives the rows
+	 * @throws IOException if the sink fails to take a row
+	 */
+	public void generateRows(int seed, int width, int height, RowSink sink) throws IOException {
+		SingleRandom.setSeed(seed);
+		random = SingleRandom.getRandom();
+		generateRows(width, height, sink);
+	}
+
+	/**
+	 * Generates the rows with the current random number generator.
+	 * Sets of the current row are kept as a disjoint set of columns, each column
+	 * of the next row is either a set of its own or joins the first column
+	 * below the same set of the current row.
+	 */
+	private void generateRows(int width, int height, RowSink sink) throws IOException {
+		assert 0 < width && 0 < height : "Invalid dimensions";
+		int[] parent = new int[width]; // sets of the current row, parent[root] == root
+		int[] next = new int[width]; // sets of the next row
+		final int[] remaining = new int[width]; // number of columns of a set that are not decided yet, by root
+		final boolean[] hasDown = new boolean[width]; // true if a set continues into the next row, by root
+		final int[] first = new int[width]; // first column of the next row that continues a set, by root
+		final boolean[] east = new boolean[width]; // true if the wallboard to the right of a column is torn down
+		boolean[] down = new boolean[width]; // true if the wallboard below a column is torn down
+		boolean[] up = new boolean[width]; // true if the wallboard above a column is torn down
+		final int[] cells = new int[width];
+		flips = new RandomBits(random::nextInt);
+		for (int x = 0; x < width; x++) {
+			parent[x] = x;
+		}
+		for (int y = 0; y < height; y++) {
+			final boolean last = (y == height-1);
+			// join adjacent columns of different sets, all of them in the last row
+			for (int x = 0; x < width-1; x++) {
+				final int left = find(parent, x);
+				final int right = find(parent, x+1);
+				east[x] = left != right && (last || flips.coin());
+				if (east[x])
+					parent[right] = left;
+			}
+			// each set continues into the next row with at least one column
+			if (!last) {
+				for (int x = 0; x < width; x++) {
+					final int root = find(parent, x);
+					remaining[root]++;
+					hasDown[root] = false;
+					first[root] = -1;
+				}
+				for (int x = 0; x < width; x++) {
+					final int root = find(parent, x);
+					remaining[root]--;
+					down[x] = (!hasDown[root] && remaining[root] == 0) || flips.coin();
+					hasDown[root] |= down[x];
+					if (down[x] && first[root] < 0)
+						first[root] = x;
+					next[x] = down[x] ? first[root] : x;
+				}
+			}
+			else {
+				Arrays.fill(down, false);
+			}
+			// hand over the row
+			for (int x = 0; x < width; x++) {
+				int value = 0;
+				if (!up[x])
+					value |= Floorplan.CW_TOP;
+				if (!down[x])
+					value |= Floorplan.CW_BOT;
+				if (x == 0 || !east[x-1])
+					value |= Floorplan.CW_LEFT;
+				if (!east[x])
+					value |= Floorplan.CW_RIGHT;
+				cells[x] = value;
+			}
+			sink.acceptRow(y, cells);
+			// the next row becomes the current row
+			final int[] swapSets = parent;
+			parent = next;
+			next = swapSets;
+			final boolean[] swapDown = up;
+			up = down;
+			down = swapDown;
+		}
+		flips = null;
+	}
+
+	/**
+	 * Finds the root of the set of a column, halves the path on the way.
+	 */
+	private static int find(int[] parent, int x) {
+		while (parent[x] != x) {
+			parent[x] = parent[parent[x]];
+			x = parent[x];
+		}
+		return x;
+	}
+}
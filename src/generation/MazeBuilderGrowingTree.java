@@ -0,0 +1,85 @@
+package generation;
+
+import java.util.SplittableRandom;
+
+/**
+ * This class has the responsibility to create a maze of given dimensions (width, height)
+ * together with a solution based on a distance matrix.
+ * The MazeBuilder implements Runnable such that it can be run a separate thread.
+ * The MazeFactory has a MazeBuilder and handles the thread management.
+ *
+ * The maze is built with the growing tree algorithm. It keeps a set of active cells,
+ * starting with a random cell of the top row. It selects an active cell, tears down the wallboard
+ * to a random new neighbor and adds that neighbor to the set. If the cell has no new neighbor,
+ * it leaves the set. The selection decides on the texture of the maze, see {@link Order.Selection}:
+ * the newest cell gives the long corridors of a depth first search, a random cell gives
+ * the many short dead ends of Prim's algorithm and a mix of both gives a texture in between
+ * that depends on the ratio of the order.
+ *
+ * The active cells are kept in an {@link IntRingBuffer} that gives the newest, the oldest
+ * and a random cell in constant time, so all selections share the same code.
+ * Cells in the tree are marked with the visited bit of the floorplan.
+ */
+public class MazeBuilderGrowingTree extends MazeBuilder implements Runnable {
+
+	private final int[] choices = new int[4]; // directions to choose from for a single step
+
+	public MazeBuilderGrowingTree() {
+		super();
+		System.out.println("MazeBuilderGrowingTree uses the growing tree algorithm to generate maze.");
+	}
+
+	/**
+	 * This method generates pathways into the maze with the growing tree algorithm
+	 * and the selection of the order.
+	 */
+	@Override
+	protected void generatePathways() {
+		final Order.Selection selection = order.getSelection();
+		final double ratio = order.getSelectionRatio();
+		assert 0 <= ratio && ratio <= 1 : "Invalid selection ratio";
+		final SplittableRandom rnd = new SplittableRandom(random.nextInt());
+		final IntRingBuffer active = new IntRingBuffer(width + height);
+		final int start = random.nextIntWithinInterval(0, width-1); // a cell in the top row
+		floorplan.setCellAsVisited(start);
+		active.addLast(start);
+		while (!active.isEmpty()) {
+			final int position = select(selection, ratio, active.size(), rnd);
+			final int index = active.get(position);
+			int count = 0;
+			for (int dir = 0; dir < 4; dir++) {
+				if (floorplan.canTearDown(index, dir))
+					choices[count++] = dir;
+			}
+			if (count == 0) {
+				// the newest cell leaves directly, any other cell is replaced by the oldest one, see IntRingBuffer.removeAt
+				if (position == active.size()-1)
+					active.removeLast();
+				else
+					active.removeAt(position);
+				continue;
+			}
+			final int dir = choices[rnd.nextInt(count)];
+			floorplan.deleteWallboard(index, dir);
+			final int neighbor = floorplan.getNeighborIndex(index, dir);
+			floorplan.setCellAsVisited(neighbor);
+			active.addLast(neighbor);
+		}
+	}
+
+	/**
+	 * Selects the position of the next active cell, the oldest cell is at 0 and the newest at size-1.
+	 */
+	private static int select(Order.Selection selection, double ratio, int size, SplittableRandom rnd) {
+		switch (selection) {
+		case Oldest:
+			return 0;
+		case Random:
+			return rnd.nextInt(size);
+		case Mixed:
+			return (rnd.nextDouble() < ratio) ? size-1 : rnd.nextInt(size);
+		default:
+			return size-1;
+		}
+	}
+}
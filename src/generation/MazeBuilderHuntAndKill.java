@@ -0,0 +1,158 @@
+package generation;
+
+import java.util.SplittableRandom;
+
+/**
+ * This class has the responsibility to create a maze of given dimensions (width, height)
+ * together with a solution based on a distance matrix.
+ * The MazeBuilder implements Runnable such that it can be run a separate thread.
+ * The MazeFactory has a MazeBuilder and handles the thread management.
+ *
+ * The maze is built with the hunt-and-kill algorithm. Starting from a random cell
+ * of the top row, a random walk tears down the wallboard to a random new neighbor
+ * and continues there until it reaches a dead end. Then it hunts for the first new cell
+ * in row-major order that has a visited neighbor, tears down the wallboard to a random one
+ * of those and continues the walk from there. Cells are marked with the visited bit of the floorplan.
+ *
+ * A hunt that scans the grid from the top is quadratic for large mazes. Instead, cells that are
+ * new and have a visited neighbor, the frontier, are kept in a bitset with a count of frontier
+ * cells for each row, so a hunt skips rows without frontier cells and 64 cells at a time
+ * within a row. The maze is the same as for a scan from the top,
+ * see {@link #generatePathwaysByRescan()}.
+ */
+public class MazeBuilderHuntAndKill extends MazeBuilder implements Runnable {
+
+	private SplittableRandom directions; // local random number generator for the walk and the hunt
+	private final int[] choices = new int[4]; // directions to choose from for a single step
+
+	// frontier, only maintained for an indexed hunt
+	private long[] frontier; // bit for each cell index, set for new cells with a visited neighbor
+	private int[] rowCounts; // number of frontier cells per row
+	private int lowestRow; // no row above has frontier cells
+
+	public MazeBuilderHuntAndKill() {
+		super();
+		System.out.println("MazeBuilderHuntAndKill uses the hunt-and-kill algorithm to generate maze.");
+	}
+
+	/**
+	 * This method generates pathways into the maze with hunt-and-kill,
+	 * the hunt uses the index of frontier cells.
+	 */
+	@Override
+	protected void generatePathways() {
+		final int size = width*height;
+		frontier = new long[(size + 63) >>> 6];
+		rowCounts = new int[height];
+		lowestRow = height;
+		huntAndKill(true);
+		frontier = null;
+		rowCounts = null;
+	}
+
+	/**
+	 * Generates pathways with hunt-and-kill where each hunt scans the grid from the top.
+	 * The result is the same as for {@link #generatePathways()}, the method serves
+	 * as a reference for tests and benchmarks.
+	 */
+	void generatePathwaysByRescan() {
+		huntAndKill(false);
+	}
+
+	/**
+	 * Alternates walks and hunts until no new cell has a visited neighbor.
+	 * @param indexed true to hunt with the index of frontier cells, false to scan from the top
+	 */
+	private void huntAndKill(boolean indexed) {
+		directions = new SplittableRandom(random.nextInt());
+		int index = random.nextIntWithinInterval(0, width-1); // a cell in the top row
+		visit(index, indexed);
+		while (index >= 0) {
+			// walk: tear down the wallboard to a random new neighbor
+			int count = 0;
+			for (int dir = 0; dir < 4; dir++) {
+				if (floorplan.canTearDown(index, dir))
+					choices[count++] = dir;
+			}
+			if (count > 0) {
+				final int dir = choices[directions.nextInt(count)];
+				floorplan.deleteWallboard(index, dir);
+				index = floorplan.getNeighborIndex(index, dir);
+				visit(index, indexed);
+				continue;
+			}
+			// hunt: connect the first frontier cell to a random visited neighbor
+			index = indexed ? nextFrontier() : scanForFrontier();
+			if (index < 0)
+				break;
+			count = 0;
+			for (int dir = 0; dir < 4; dir++) {
+				if (!floorplan.hasBorder(index, dir) && floorplan.isVisited(floorplan.getNeighborIndex(index, dir)))
+					choices[count++] = dir;
+			}
+			floorplan.deleteWallboard(index, choices[directions.nextInt(count)]);
+			visit(index, indexed);
+		}
+		directions = null;
+	}
+
+	/**
+	 * Marks a cell as visited, for an indexed hunt it leaves the frontier
+	 * and its new neighbors join the frontier.
+	 */
+	private void visit(int index, boolean indexed) {
+		floorplan.setCellAsVisited(index);
+		if (!indexed)
+			return;
+		if ((frontier[index >>> 6] & (1L << index)) != 0) {
+			frontier[index >>> 6] &= ~(1L << index);
+			rowCounts[index / width]--;
+		}
+		for (int dir = 0; dir < 4; dir++) {
+			if (!floorplan.canTearDown(index, dir))
+				continue;
+			final int neighbor = floorplan.getNeighborIndex(index, dir);
+			if ((frontier[neighbor >>> 6] & (1L << neighbor)) == 0) {
+				frontier[neighbor >>> 6] |= 1L << neighbor;
+				final int row = neighbor / width;
+				rowCounts[row]++;
+				if (row < lowestRow)
+					lowestRow = row;
+			}
+		}
+	}
+
+	/**
+	 * Gives the first frontier cell in row-major order.
+	 * @return the index of the cell, -1 if there is none
+	 */
+	private int nextFrontier() {
+		while (lowestRow < height && rowCounts[lowestRow] == 0)
+			lowestRow++;
+		if (lowestRow == height)
+			return -1;
+		// the row has a frontier cell, so the search ends within the row
+		final int from = lowestRow*width;
+		int word = from >>> 6;
+		long bits = frontier[word] & (-1L << from);
+		while (bits == 0)
+			bits = frontier[++word];
+		return (word << 6) + Long.numberOfTrailingZeros(bits);
+	}
+
+	/**
+	 * Gives the first frontier cell in row-major order by a scan from the top.
+	 * @return the index of the cell, -1 if there is none
+	 */
+	private int scanForFrontier() {
+		for (int index = 0; index < width*height; index++) {
+			if (floorplan.isVisited(index))
+				continue;
+			for (int dir = 0; dir < 4; dir++) {
+				if (!floorplan.hasBorder(index, dir) && floorplan.isVisited(floorplan.getNeighborIndex(index, dir)))
+					return index;
+			}
+		}
+		return -1;
+	}
+}
@@ -0,0 +1,60 @@
+package generation;
+
+/**
+ * This class has the responsibility to create a maze of given dimensions (width, height)
+ * together with a solution based on a distance matrix.
+ * The MazeBuilder implements Runnable such that it can be run a separate thread.
+ * The MazeFactory has a MazeBuilder and handles the thread management.
+ *
+ * The maze is built with a randomized version of Kruskal's algorithm.
+ * All wallboards that can be torn down are considered once in a random order,
+ * and a wallboard is torn down if the cells on both sides are not connected yet.
+ * This is the same as generating a minimum spanning tree for random weights.
+ * Connected cells are kept in a disjoint set, see {@link IntDisjointSet}.
+ */
+public class MazeBuilderKruskal extends MazeBuilder implements Runnable {
+
+	public MazeBuilderKruskal() {
+		super();
+		System.out.println("MazeBuilderKruskal uses Kruskal's algorithm to generate maze.");
+	}
+
+	/**
+	 * This method generates pathways into the maze by using Kruskal's algorithm.
+	 * Candidates are the east and south wallboards of each cell, each packed into
+	 * a single integer as {@code 2*index} for east and {@code 2*index+1} for south
+	 * with the floorplan index of its cell, the same way that {@link MazeBuilderBoruvka}
+	 * indexes weights. The array of candidates is shuffled with the random number
+	 * generator of the order, so the same seed gives the same maze.
+	 */
+	@Override
+	protected void generatePathways() {
+		assert width*height <= (Integer.MAX_VALUE >> 1) : "cell index does not fit into a packed candidate";
+		final int size = width*height;
+		final int east = CardinalDirection.East.ordinal();
+		final int south = CardinalDirection.South.ordinal();
+		final int[] candidates = new int[2*size];
+		int count = 0;
+		for (int cell = 0; cell < size; cell++) {
+			if (floorplan.canTearDown(cell, east))
+				candidates[count++] = 2*cell;
+			if (floorplan.canTearDown(cell, south))
+				candidates[count++] = 2*cell+1;
+		}
+		// shuffle candidates, Fisher-Yates
+		for (int i = count-1; i > 0; i--) {
+			final int j = random.nextIntWithinInterval(0, i);
+			final int swap = candidates[i];
+			candidates[i] = candidates[j];
+			candidates[j] = swap;
+		}
+		// tear down a wallboard if it connects two components
+		final IntDisjointSet components = new IntDisjointSet(size);
+		for (int i = 0; i < count; i++) {
+			final int cell = candidates[i] >>> 1;
+			final boolean isSouth = (candidates[i] & 1) != 0;
+			if (components.union(cell, isSouth ? cell + width : cell + 1))
+				floorplan.deleteWallboard(cell, isSouth ? south : east);
+		}
+	}
+}
@@ -1,6 +1,6 @@
 package generation;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 
 /**
   * This class has the responsibility to create a maze of given dimensions (width, height) 
@@ -25,6 +25,15 @@ public class MazeBuilderPrim extends MazeBuilder implements Runnable {
 		System.out.println("MazeBuilderPrim uses Prim's algorithm to generate maze.");
 	}
 
+	/**
+	 * Candidate wallboards, each packed into a single integer as {@code index << 2 | direction}
+	 * with the floorplan index of its cell and the ordinal of its direction.
+	 * Avoids an object per candidate, the array grows as needed and is reused.
+	 * The order of candidates is irrelevant, it is a set with random extraction.
+	 */
+	private int[] candidates = new int[16];
+	private int candidateCount;
+
 	/**
 	 * This method generates pathways into the maze by using Prim's algorithm to generate a spanning tree for an undirected graph.
 	 * The cells are the nodes of the graph and the spanning tree. An edge represents that one can move from one cell to an adjacent cell.
@@ -32,62 +41,66 @@ public class MazeBuilderPrim extends MazeBuilder implements Runnable {
 	 */
 	@Override
 	protected void generatePathways() {
+		assert width*height <= (Integer.MAX_VALUE >> 2) : "cell index does not fit into a packed candidate";
 		// pick initial position (x,y) at some random position on the maze
 		int x = random.nextIntWithinInterval(0, width-1);
 		int y = random.nextIntWithinInterval(0, height-1);
 		// create an initial list of all wallboards that could be removed
 		// those wallboards lead to adjacent cells that are not part of the spanning tree yet.
-		final ArrayList<Wallboard> candidates = new ArrayList<Wallboard>();
-		updateListOfWallboards(x, y, candidates);
+		candidateCount = 0;
+		updateListOfWallboards(floorplan.getIndex(x, y));
 		
-		Wallboard curWallboard;
 		// we need to consider each candidate wallboard and consider it only once
-		while(!candidates.isEmpty()){
+		while(candidateCount > 0){
 			// in order to have a randomized algorithm,
 			// we randomly select and extract a wallboard from our candidate set
 			// this also reduces the set to make sure we terminate the loop
-			curWallboard = extractWallboardFromCandidateSetRandomly(candidates);
+			final int candidate = extractWallboardFromCandidateSetRandomly();
+			final int index = candidate >>> 2;
+			final int dir = candidate & 3;
 			// check if wallboard leads to a new cell that is not connected to the spanning tree yet
-			if (floorplan.canTearDown(curWallboard))
+			if (floorplan.canTearDown(index, dir))
 			{
 				// delete wallboard from maze, note that this takes place from both directions
-				floorplan.deleteWallboard(curWallboard);
+				floorplan.deleteWallboard(index, dir);
 				// update current position
-				x = curWallboard.getNeighborX();
-				y = curWallboard.getNeighborY();
+				final int next = floorplan.getNeighborIndex(index, dir);
 				
-				floorplan.setCellAsVisited(x, y); // the flag is never reset, so this ensure we never go to (x,y) again
-				updateListOfWallboards(x, y, candidates); // checks to see if it has wallboards to new cells, if it does it adds them to the list
+				floorplan.setCellAsVisited(next); // the flag is never reset, so this ensure we never go to (x,y) again
+				updateListOfWallboards(next); // checks to see if it has wallboards to new cells, if it does it adds them to the list
 				// note that each wallboard can get added at most once. This is important for termination and efficiency
 			}
 		}
 	}
 	/**
-	 * Pick a random position in the list of candidates, remove the candidate from the list and return it
-	 * @param candidates is the list of candidates to randomly remove a wall board from
+	 * Pick a random position in the list of candidates, remove the candidate from the list and return it.
+	 * The last candidate moves into the gap, so removal takes constant time.
+	 * As each candidate is equally likely to be picked, the order of the
+	 * remaining candidates does not matter for the resulting distribution of mazes.
 	 * @return candidate from the list, randomly chosen
 	 */
-	private Wallboard extractWallboardFromCandidateSetRandomly(final ArrayList<Wallboard> candidates) {
-		return candidates.remove(random.nextIntWithinInterval(0, candidates.size()-1)); 
+	private int extractWallboardFromCandidateSetRandomly() {
+		final int i = random.nextIntWithinInterval(0, candidateCount-1);
+		final int result = candidates[i];
+		candidates[i] = candidates[--candidateCount];
+		return result;
 	}
 	
 
 	/**
 	 * Updates a list of all wallboards that could be removed from the maze based on wallboards towards new cells.
-	 * For the given x, y coordinates, one checks all four directions
+	 * For the given cell, one checks all four directions
 	 * and for the ones where one can tear down a wallboard, a 
-	 * corresponding wallboard is added to the list of wallboards.
-	 * @param x the x coordinate of interest
-	 * @param y the y coordinate of interest
-	 * @param wallboards the new elements should be added to, must not be null
+	 * corresponding wallboard is added to the list of candidates.
+	 * @param index the index of the cell of interest in the floorplan
 	 */
-	private void updateListOfWallboards(int x, int y, ArrayList<Wallboard> wallboards) {
-		Wallboard wallboard = new Wallboard(x, y, CardinalDirection.East) ;
-		for (CardinalDirection cd : CardinalDirection.values()) {
-			wallboard.setLocationDirection(x, y, cd);
-			if (floorplan.canTearDown(wallboard)) // 
+	private void updateListOfWallboards(int index) {
+		for (int dir = 0; dir < 4; dir++) {
+			if (floorplan.canTearDown(index, dir)) // 
 			{
-				wallboards.add(new Wallboard(x, y, cd));
+				if (candidateCount == candidates.length)
+					candidates = Arrays.copyOf(candidates, 2*candidateCount);
+				candidates[candidateCount++] = index << 2 | dir;
 			}
 		}
 	}
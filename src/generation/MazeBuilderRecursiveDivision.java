@@ -0,0 +1,272 @@
+package generation;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * This class has the responsibility to create a maze of given dimensions (width, height)
+ * together with a solution based on a distance matrix.
+ * The MazeBuilder implements Runnable such that it can be run a separate thread.
+ * The MazeFactory has a MazeBuilder and handles the thread management.
+ *
+ * The maze is built by recursive division. A rectangle of cells is divided
+ * into two halves by a straight line across its shorter side, at a random position.
+ * The line gets a single passage at a random position, then both halves are divided
+ * the same way until a rectangle is a single row or column that becomes a corridor.
+ * The result is a perfect maze with long straight walls, which makes for few walls
+ * and a small BSP tree compared to the other builders.
+ *
+ * The halves are independent, so large rectangles are divided on the threads of a fork-join pool.
+ * Each half gets a random number generator of its own, split from the one of its rectangle,
+ * which starts from a seed of the order, so for a given seed the maze is the same for
+ * any number of threads. Tasks only mark the wallboards to tear down, the floorplan is updated
+ * afterwards as its cell storage is not safe for concurrent updates.
+ *
+ * Passages avoid borders of rooms where the line allows it. If a room still cuts off
+ * a part of the maze, components are connected at random in a final sequential step.
+ */
+public class MazeBuilderRecursiveDivision extends MazeBuilder implements Runnable {
+
+	// rectangles with fewer cells are divided sequentially in the task that holds them
+	private static final int SEQUENTIAL_AREA = 1 << 12;
+
+	private final int parallelism; // number of threads for the fork-join pool
+
+	// state of the division, only used during generatePathways
+	private boolean[] opened; // true for each wallboard to tear down, indexed as 2*index for east and 2*index+1 for south
+	private boolean blocked; // true if a border kept a passage or corridor closed
+
+	/**
+	 * Constructor for a builder that uses as many threads as there are processors.
+	 */
+	public MazeBuilderRecursiveDivision() {
+		this(Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Constructor
+	 * @param parallelism the number of threads to use, {@code 0 < parallelism}
+	 */
+	public MazeBuilderRecursiveDivision(int parallelism) {
+		super();
+		assert parallelism > 0 : "Invalid number of threads";
+		this.parallelism = parallelism;
+		System.out.println("MazeBuilderRecursiveDivision uses recursive division on " + parallelism + " threads to generate maze.");
+	}
+
+	/**
+	 * This method generates pathways into the maze by recursive division.
+	 */
+	@Override
+	protected void generatePathways() {
+		final int size = width*height;
+		opened = new boolean[2*size];
+		blocked = false;
+		final SplittableRandom divisionRandom = new SplittableRandom(random.nextInt());
+		final ForkJoinPool pool = new ForkJoinPool(parallelism);
+		try {
+			pool.invoke(new Division(0, 0, width, height, divisionRandom));
+		}
+		finally {
+			pool.shutdown();
+		}
+		final int east = CardinalDirection.East.ordinal();
+		final int south = CardinalDirection.South.ordinal();
+		for (int candidate = 0; candidate < 2*size; candidate++) {
+			if (opened[candidate])
+				floorplan.deleteWallboard(candidate >>> 1, ((candidate & 1) == 0) ? east : south);
+		}
+		opened = null;
+		if (blocked)
+			connectComponents();
+	}
+
+	/**
+	 * Divides a rectangle of cells and both of its halves until
+	 * each part is a single row or column.
+	 * @param x0 the x coordinate of the upper left cell
+	 * @param y0 the y coordinate of the upper left cell
+	 * @param w the width of the rectangle
+	 * @param h the height of the rectangle
+	 * @param rnd the random number generator for the rectangle
+	 */
+	private void divide(int x0, int y0, int w, int h, SplittableRandom rnd) {
+		while (w > 1 && h > 1) {
+			if (isVertical(w, h, rnd)) {
+				final int left = 1 + rnd.nextInt(w-1);
+				openPassage(x0 + left - 1, y0, 0, 1, h, CardinalDirection.East, rnd);
+				divide(x0, y0, left, h, rnd);
+				x0 += left;
+				w -= left;
+			}
+			else {
+				final int top = 1 + rnd.nextInt(h-1);
+				openPassage(x0, y0 + top - 1, 1, 0, w, CardinalDirection.South, rnd);
+				divide(x0, y0, w, top, rnd);
+				y0 += top;
+				h -= top;
+			}
+		}
+		openCorridor(x0, y0, w, h);
+	}
+
+	/**
+	 * Decides how to divide a rectangle, across the shorter side
+	 * or at random for a square.
+	 * @return true for a vertical line, false for a horizontal one
+	 */
+	private static boolean isVertical(int w, int h, SplittableRandom rnd) {
+		return (w == h) ? rnd.nextBoolean() : w > h;
+	}
+
+	/**
+	 * Marks a random wallboard on the dividing line as a passage,
+	 * starting from a random position and skipping borders.
+	 * @param x the x coordinate of the first cell on the line
+	 * @param y the y coordinate of the first cell on the line
+	 * @param dx the step along the line in x
+	 * @param dy the step along the line in y
+	 * @param length the number of cells on the line
+	 * @param cd the direction of the wallboards on the line, east or south
+	 * @param rnd the random number generator for the rectangle
+	 */
+	private void openPassage(int x, int y, int dx, int dy, int length, CardinalDirection cd, SplittableRandom rnd) {
+		final int start = rnd.nextInt(length);
+		for (int i = 0; i < length; i++) {
+			final int p = (start + i) % length;
+			final int index = (y + p*dy)*width + x + p*dx;
+			if (!floorplan.hasBorder(index, cd.ordinal())) {
+				opened[2*index + ((cd == CardinalDirection.South) ? 1 : 0)] = true;
+				return;
+			}
+		}
+		blocked = true;
+	}
+
+	/**
+	 * Marks all wallboards within a single row or column as torn down,
+	 * except for borders.
+	 */
+	private void openCorridor(int x0, int y0, int w, int h) {
+		final int south = CardinalDirection.South.ordinal();
+		final int east = CardinalDirection.East.ordinal();
+		for (int y = y0; y < y0 + h - 1; y++) {
+			final int index = y*width + x0;
+			if (floorplan.hasBorder(index, south))
+				blocked = true;
+			else
+				opened[2*index + 1] = true;
+		}
+		for (int x = x0; x < x0 + w - 1; x++) {
+			final int index = y0*width + x;
+			if (floorplan.hasBorder(index, east))
+				blocked = true;
+			else
+				opened[2*index] = true;
+		}
+	}
+
+	/**
+	 * Connects parts of the maze that borders of rooms cut off with Kruskal's algorithm
+	 * over the wallboards between different components that are not borders,
+	 * in a random order from the random number generator of the order.
+	 */
+	private void connectComponents() {
+		final int size = width*height;
+		final int east = CardinalDirection.East.ordinal();
+		final int south = CardinalDirection.South.ordinal();
+		final IntDisjointSet components = new IntDisjointSet(size);
+		for (int index = 0; index < size; index++) {
+			if (index % width < width-1 && !floorplan.hasWall(index, east))
+				components.union(index, index + 1);
+			if (index < size - width && !floorplan.hasWall(index, south))
+				components.union(index, index + width);
+		}
+		final int[] candidates = new int[collectCandidates(components, null)];
+		collectCandidates(components, candidates);
+		for (int i = candidates.length-1; i > 0; i--) {
+			final int j = random.nextIntWithinInterval(0, i);
+			final int swap = candidates[i];
+			candidates[i] = candidates[j];
+			candidates[j] = swap;
+		}
+		for (int candidate : candidates) {
+			final int index = candidate >>> 1;
+			final boolean isSouth = (candidate & 1) != 0;
+			if (components.union(index, isSouth ? index + width : index + 1))
+				floorplan.deleteWallboard(index, isSouth ? south : east);
+		}
+	}
+
+	/**
+	 * Finds the wallboards between cells of different components that are not borders,
+	 * packed as {@code 2*index} for east and {@code 2*index+1} for south.
+	 * @param components the components of cells
+	 * @param candidates receives the wallboards, null to only count them
+	 * @return the number of wallboards
+	 */
+	private int collectCandidates(IntDisjointSet components, int[] candidates) {
+		final int size = width*height;
+		final int east = CardinalDirection.East.ordinal();
+		final int south = CardinalDirection.South.ordinal();
+		int count = 0;
+		for (int index = 0; index < size; index++) {
+			if (index % width < width-1 && !floorplan.hasBorder(index, east)
+					&& components.find(index) != components.find(index + 1)) {
+				if (candidates != null)
+					candidates[count] = 2*index;
+				count++;
+			}
+			if (index < size - width && !floorplan.hasBorder(index, south)
+					&& components.find(index) != components.find(index + width)) {
+				if (candidates != null)
+					candidates[count] = 2*index + 1;
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Divides a rectangle of cells as a fork-join task, forks both halves
+	 * of large rectangles and divides small ones sequentially.
+	 */
+	private class Division extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		private final int x0;
+		private final int y0;
+		private final int w;
+		private final int h;
+		private final SplittableRandom rnd;
+
+		Division(int x0, int y0, int w, int h, SplittableRandom rnd) {
+			this.x0 = x0;
+			this.y0 = y0;
+			this.w = w;
+			this.h = h;
+			this.rnd = rnd;
+		}
+
+		@Override
+		protected void compute() {
+			if (w*h < SEQUENTIAL_AREA || w == 1 || h == 1) {
+				divide(x0, y0, w, h, rnd);
+				return;
+			}
+			// the first half gets a generator of its own before the second half continues with this one
+			if (isVertical(w, h, rnd)) {
+				final int left = 1 + rnd.nextInt(w-1);
+				openPassage(x0 + left - 1, y0, 0, 1, h, CardinalDirection.East, rnd);
+				invokeAll(new Division(x0, y0, left, h, rnd.split()),
+						new Division(x0 + left, y0, w - left, h, rnd));
+			}
+			else {
+				final int top = 1 + rnd.nextInt(h-1);
+				openPassage(x0, y0 + top - 1, 1, 0, w, CardinalDirection.South, rnd);
+				invokeAll(new Division(x0, y0, w, top, rnd.split()),
+						new Division(x0, y0 + top, w, h - top, rnd));
+			}
+		}
+	}
+}
@@ -0,0 +1,114 @@
+package generation;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.SplittableRandom;
+
+/**
+ * This class has the responsibility to create a maze of given dimensions (width, height)
+ * together with a solution based on a distance matrix.
+ * The MazeBuilder implements Runnable such that it can be run a separate thread.
+ * The MazeFactory has a MazeBuilder and handles the thread management.
+ *
+ * The maze is built with the sidewinder algorithm: within a row, a run of cells
+ * grows to the right as long as a coin flip says so. When the run ends, a random cell
+ * of the run tears down the wallboard below, so each run has a single way down.
+ * The last row is a single run, a corridor, where all paths end.
+ * The result is a perfect maze with a vertical bias but without
+ * the long corridor at the side that the binary tree algorithm has.
+ *
+ * Each row only depends on its own coin flips, so rows are generated from top to bottom
+ * without any state but the row itself, see {@link #generateRows(int, int, int, RowSink)}.
+ * Random numbers come from a local generator that is seeded from the random number
+ * generator of the order. Rooms would require the full grid, so the builder
+ * does not place rooms and always generates a perfect maze.
+ */
+public class MazeBuilderSidewinder extends MazeBuilder implements Runnable {
+
+	private SplittableRandom coins; // local generator
+	private RandomBits flips; // random bits for coin flips, 32 for each call of the local generator
+
+	public MazeBuilderSidewinder() {
+		super();
+		System.out.println("MazeBuilderSidewinder uses the sidewinder algorithm to generate maze.");
+	}
+
+	/**
+	 * The sidewinder algorithm generates perfect mazes only, so no rooms are placed.
+	 * @return 0 for no rooms
+	 */
+	@Override
+	protected int generateRooms() {
+		return 0;
+	}
+
+	/**
+	 * This method generates pathways into the maze with the sidewinder algorithm
+	 * and tears down the wallboards of each row in the floorplan.
+	 */
+	@Override
+	protected void generatePathways() {
+		try {
+			generateRows(width, height, RowSink.floorplanWriter(floorplan));
+		}
+		catch (IOException e) {
+			// the floorplan does not do any input or output
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Generates a perfect maze of the given dimensions with the sidewinder algorithm and
+	 * hands each row over to the sink, from top to bottom. Memory is a single row.
+	 * The maze is the same as for an order with the same seed and dimensions,
+	 * but there is no floorplan, no exit and no distance matrix.
+	 * @param seed the seed for the random number generator
+	 * @param width the width of the maze, {@code 0 < width}
+	 * @param height the height of the maze, {@code 0 < height}
+	 * @param sink receives the rows
+	 * @throws IOException if the sink fails to take a row
+	 */
+	public void generateRows(int seed, int width, int height, RowSink sink) throws IOException {
+		SingleRandom.setSeed(seed);
+		random = SingleRandom.getRandom();
+		generateRows(width, height, sink);
+	}
+
+	/**
+	 * Generates the rows with a local generator seeded from the current random number generator.
+	 * The wallboard above a cell is open if the cell above went down, which is still
+	 * in the row array from the last row. A row is complete once its last run ends.
+	 */
+	private void generateRows(int width, int height, RowSink sink) throws IOException {
+		assert 0 < width && 0 < height : "Invalid dimensions";
+		coins = new SplittableRandom(random.nextInt());
+		flips = new RandomBits(coins::nextInt);
+		final int[] cells = new int[width];
+		for (int y = 0; y < height; y++) {
+			final boolean last = (y == height-1);
+			int runStart = 0; // first cell of the current run
+			for (int x = 0; x < width; x++) {
+				int value = Floorplan.CW_TOP | Floorplan.CW_BOT | Floorplan.CW_LEFT | Floorplan.CW_RIGHT;
+				if (y > 0 && (cells[x] & Floorplan.CW_BOT) == 0)
+					value &= ~Floorplan.CW_TOP;
+				if (x > runStart)
+					value &= ~Floorplan.CW_LEFT;
+				// the run continues to the right all the way in the last row, otherwise on a coin flip
+				if (x < width-1 && (last || flips.coin())) {
+					cells[x] = value & ~Floorplan.CW_RIGHT;
+					continue;
+				}
+				cells[x] = value;
+				// the run ends, one of its cells goes down
+				if (!last) {
+					final int down = runStart + coins.nextInt(x - runStart + 1);
+					cells[down] &= ~Floorplan.CW_BOT;
+				}
+				runStart = x+1;
+			}
+			sink.acceptRow(y, cells);
+		}
+		coins = null;
+		flips = null;
+	}
+}
@@ -0,0 +1,185 @@
+package generation;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * This class has the responsibility to create a maze of given dimensions (width, height)
+ * together with a solution based on a distance matrix.
+ * The MazeBuilder implements Runnable such that it can be run a separate thread.
+ * The MazeFactory has a MazeBuilder and handles the thread management.
+ *
+ * The maze is generated in tiles on several threads of a fork-join pool.
+ * The floorplan is split into rectangular tiles and each tile is carved with
+ * Kruskal's algorithm on its own: its wallboards are shuffled with a random number
+ * generator for the tile, seeded from the order and the number of the tile,
+ * and torn down if they connect two components. This leaves a spanning forest
+ * per tile, usually a single tree. The forests are then stitched together
+ * with Kruskal's algorithm over the wallboards on the boundaries between tiles,
+ * shuffled with the random number generator of the order. The result is a spanning
+ * tree of all cells as for the other builders, so without rooms the maze is perfect.
+ *
+ * Tiles only read the floorplan and record the wallboards to tear down in arrays of their own,
+ * the floorplan is updated afterwards in the order of tiles as its cell storage is not
+ * safe for concurrent updates. Neither the random numbers nor the order of updates
+ * depend on the threads, so for a given seed the maze is the same for any number of threads.
+ */
+public class MazeBuilderTiled extends MazeBuilder implements Runnable {
+
+	/**
+	 * Default width and height of a tile, large enough to make the boundaries rare
+	 * and small enough to balance the load for mazes of more than a few tiles.
+	 */
+	public static final int DEFAULT_TILE_SIZE = 256;
+
+	private final int parallelism; // number of threads for the fork-join pool
+	private final int tileSize; // width and height of a tile
+
+	/**
+	 * Constructor for a builder that uses as many threads as there are processors.
+	 */
+	public MazeBuilderTiled() {
+		this(Runtime.getRuntime().availableProcessors(), DEFAULT_TILE_SIZE);
+	}
+
+	/**
+	 * Constructor
+	 * @param parallelism the number of threads to use, {@code 0 < parallelism}
+	 * @param tileSize the width and height of a tile, {@code 0 < tileSize}
+	 */
+	public MazeBuilderTiled(int parallelism, int tileSize) {
+		super();
+		assert parallelism > 0 && tileSize > 0 : "Invalid number of threads or tile size";
+		this.parallelism = parallelism;
+		this.tileSize = tileSize;
+		System.out.println("MazeBuilderTiled generates the maze in tiles on " + parallelism + " threads.");
+	}
+
+	/**
+	 * This method generates pathways into the maze tile by tile in parallel
+	 * and stitches the tiles together.
+	 */
+	@Override
+	protected void generatePathways() {
+		final int columns = (width + tileSize - 1) / tileSize;
+		final int rows = (height + tileSize - 1) / tileSize;
+		final int tiles = columns*rows;
+		// each tile has a seed of its own, a random number of the order in the upper and the tile in the lower half
+		final long seed = (long) random.nextInt() << 32;
+		// wallboards to tear down for each tile, the root of the tile component for each cell
+		final int[][] openings = new int[tiles][];
+		final int[] components = new int[width*height];
+		final ForkJoinPool pool = new ForkJoinPool(parallelism);
+		try {
+			pool.invoke(new ChunkTask(0, tiles, tile -> {
+				final int x0 = (tile % columns)*tileSize;
+				final int y0 = (tile / columns)*tileSize;
+				openings[tile] = carveTile(new SplittableRandom(seed | tile), x0, y0,
+						Math.min(tileSize, width - x0), Math.min(tileSize, height - y0), components);
+			}));
+		}
+		finally {
+			pool.shutdown();
+		}
+		final int east = CardinalDirection.East.ordinal();
+		final int south = CardinalDirection.South.ordinal();
+		for (int[] tileOpenings : openings) {
+			for (int candidate : tileOpenings) {
+				floorplan.deleteWallboard(candidate >>> 1, ((candidate & 1) == 0) ? east : south);
+			}
+		}
+		stitch(columns, rows, components);
+	}
+
+	/**
+	 * Carves a tile with Kruskal's algorithm.
+	 * Candidates are wallboards between two cells of the tile that are not borders, packed as
+	 * {@code 2*index} for east and {@code 2*index+1} for south with the floorplan index of the cell.
+	 * @param tileRandom the random number generator for the tile
+	 * @param x0 the x coordinate of the upper left cell of the tile
+	 * @param y0 the y coordinate of the upper left cell of the tile
+	 * @param tw the width of the tile
+	 * @param th the height of the tile
+	 * @param components receives the floorplan index of the root of its component for each cell of the tile
+	 * @return the wallboards to tear down
+	 */
+	private int[] carveTile(SplittableRandom tileRandom, int x0, int y0, int tw, int th, int[] components) {
+		final int east = CardinalDirection.East.ordinal();
+		final int south = CardinalDirection.South.ordinal();
+		final int[] candidates = new int[2*tw*th];
+		int count = 0;
+		for (int y = 0; y < th; y++) {
+			for (int x = 0; x < tw; x++) {
+				final int index = (y0 + y)*width + x0 + x;
+				if (x < tw-1 && !floorplan.hasBorder(index, east))
+					candidates[count++] = 2*index;
+				if (y < th-1 && !floorplan.hasBorder(index, south))
+					candidates[count++] = 2*index+1;
+			}
+		}
+		for (int i = count-1; i > 0; i--) {
+			final int j = tileRandom.nextInt(i+1);
+			final int swap = candidates[i];
+			candidates[i] = candidates[j];
+			candidates[j] = swap;
+		}
+		// cells of the tile are numbered y*tw+x in the disjoint set
+		final IntDisjointSet sets = new IntDisjointSet(tw*th);
+		int opened = 0;
+		for (int i = 0; i < count; i++) {
+			final int index = candidates[i] >>> 1;
+			final int local = (index / width - y0)*tw + index % width - x0;
+			final boolean isSouth = (candidates[i] & 1) != 0;
+			if (sets.union(local, isSouth ? local + tw : local + 1))
+				candidates[opened++] = candidates[i];
+		}
+		for (int local = 0; local < tw*th; local++) {
+			final int root = sets.find(local);
+			components[(y0 + local / tw)*width + x0 + local % tw] = (y0 + root / tw)*width + x0 + root % tw;
+		}
+		final int[] result = new int[opened];
+		System.arraycopy(candidates, 0, result, 0, opened);
+		return result;
+	}
+
+	/**
+	 * Connects the components of all tiles with Kruskal's algorithm over
+	 * the wallboards on the boundaries between tiles that are not borders.
+	 * @param columns the number of tiles per row
+	 * @param rows the number of tiles per column
+	 * @param components the floorplan index of the root of the tile component for each cell
+	 */
+	private void stitch(int columns, int rows, int[] components) {
+		final int east = CardinalDirection.East.ordinal();
+		final int south = CardinalDirection.South.ordinal();
+		final int[] candidates = new int[(columns-1)*height + (rows-1)*width];
+		int count = 0;
+		for (int c = 1; c < columns; c++) {
+			final int x = c*tileSize - 1;
+			for (int y = 0; y < height; y++) {
+				if (!floorplan.hasBorder(y*width + x, east))
+					candidates[count++] = 2*(y*width + x);
+			}
+		}
+		for (int r = 1; r < rows; r++) {
+			final int y = r*tileSize - 1;
+			for (int x = 0; x < width; x++) {
+				if (!floorplan.hasBorder(y*width + x, south))
+					candidates[count++] = 2*(y*width + x) + 1;
+			}
+		}
+		for (int i = count-1; i > 0; i--) {
+			final int j = random.nextIntWithinInterval(0, i);
+			final int swap = candidates[i];
+			candidates[i] = candidates[j];
+			candidates[j] = swap;
+		}
+		final IntDisjointSet sets = new IntDisjointSet(width*height);
+		for (int i = 0; i < count; i++) {
+			final int index = candidates[i] >>> 1;
+			final boolean isSouth = (candidates[i] & 1) != 0;
+			if (sets.union(components[index], components[isSouth ? index + width : index + 1]))
+				floorplan.deleteWallboard(index, isSouth ? south : east);
+		}
+	}
+}
@@ -0,0 +1,79 @@
+package generation;
+
+import java.util.SplittableRandom;
+
+/**
+ * This class has the responsibility to create a maze of given dimensions (width, height)
+ * together with a solution based on a distance matrix.
+ * The MazeBuilder implements Runnable such that it can be run a separate thread.
+ * The MazeFactory has a MazeBuilder and handles the thread management.
+ *
+ * The maze is a uniform spanning tree: each spanning tree of the cells is equally likely,
+ * so the maze has no bias towards long corridors as for DFS or many short dead ends as for Prim.
+ * Wallboards that are borders are not part of the graph, so rooms are entered through
+ * their doors and their open interior is part of the tree.
+ *
+ * The builder uses Wilson's algorithm: starting with a random cell as the tree,
+ * a random walk from each cell that is not in the tree yet continues until it hits the tree,
+ * the walk without its loops is then added to the tree. The walk is kept as the last direction
+ * taken from each cell in a byte array, a revisit overwrites the direction and so erases the loop.
+ * Cells in the tree are marked with the visited bit of the floorplan.
+ *
+ * Note that Wilson's algorithm must not start from the partial tree of a bounded Aldous-Broder walk,
+ * a random walk that tears down the wallboard whenever it enters a new cell.
+ * That hybrid is faster for the first cells but its trees are not uniform,
+ * the Aldous-Broder walk is only uniform if it runs until it covers all cells.
+ */
+public class MazeBuilderWilson extends MazeBuilder implements Runnable {
+
+	// random bits for directions, 16 directions for each call of the local generator
+	private RandomBits directions;
+
+	public MazeBuilderWilson() {
+		super();
+		System.out.println("MazeBuilderWilson uses Wilson's algorithm to generate maze.");
+	}
+
+	/**
+	 * This method generates pathways into the maze as a uniform spanning tree.
+	 */
+	@Override
+	protected void generatePathways() {
+		final SplittableRandom local = new SplittableRandom(random.nextInt());
+		directions = new RandomBits(local::nextInt);
+		final int size = width*height;
+		// the tree starts with a random cell
+		floorplan.setCellAsVisited(local.nextInt(size));
+		// loop-erased random walks from each cell that is not in the tree
+		final byte[] exits = new byte[size];
+		for (int start = 0; start < size; start++) {
+			int index = start;
+			while (!floorplan.isVisited(index)) {
+				final int dir = randomDirection(index);
+				exits[index] = (byte) dir;
+				index = floorplan.getNeighborIndex(index, dir);
+			}
+			// follow the walk without its loops and add it to the tree
+			index = start;
+			while (!floorplan.isVisited(index)) {
+				final int dir = exits[index];
+				floorplan.setCellAsVisited(index);
+				floorplan.deleteWallboard(index, dir);
+				index = floorplan.getNeighborIndex(index, dir);
+			}
+		}
+		directions = null;
+	}
+
+	/**
+	 * Gives the ordinal of a random direction from a cell that does not lead into a border,
+	 * all such directions are equally likely. Uses two bits of the local generator per draw.
+	 */
+	private int randomDirection(int index) {
+		int dir;
+		do {
+			dir = directions.direction();
+		} while (floorplan.hasBorder(index, dir));
+		return dir;
+	}
+}
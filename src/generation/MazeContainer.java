@@ -54,6 +54,9 @@ public class MazeContainer implements Maze {
 	// MEMO: redundant with Distance class that also tracks starting position
 	// TODO: avoid redundant representation of starting position MazeContainer and Distance
 		
+	private DistanceFieldCache distanceFields ; // distances to other targets than the exit, created on demand
+	private JunctionGraph junctionGraph ; // contracted view of the floorplan, created on demand
+	
 	// to be fully initialized, we need all other fields being set consistently
 	private boolean fullyInitialized;
 	
@@ -141,6 +144,8 @@ public class MazeContainer implements Maze {
 	 */
 	public void setFloorplan(Floorplan floorplan) {
 		this.floorplan = floorplan;
+		distanceFields = null; // cached distances refer to the previous floorplan
+		junctionGraph = null;
 	}
 
 	/**
@@ -160,6 +165,7 @@ public class MazeContainer implements Maze {
 	 */
 	public void setMazedists(Distance mazedists) {
 		this.mazedists = mazedists;
+		junctionGraph = null; // exit position may have changed
 	}
 
 	/**
@@ -226,38 +232,70 @@ public class MazeContainer implements Maze {
 	/**
 	 * Gives a (x',y') neighbor for given (x,y) that is closer to exit
 	 * if it exists. 
+	 * Note that each call delivers a new array, 
+	 * see {@link #getDirectionToExit(int, int)} for an alternative.
 	 * @param x is on the horizontal axis, {@code 0 <= x < width}
 	 * @param y is on the vertical axis, {@code 0 <= y < height}
 	 * @return array with neighbor coordinates if neighbor exists, null otherwise
 	 */
 	public int[] getNeighborCloserToExit(int x, int y) {
+		final CardinalDirection cd = getDirectionToExit(x, y);
+		if (null == cd)
+			return null; // corner case, (x,y) is exit position
+		return new int[] {x+cd.getDx(), y+cd.getDy()};
+	}
+	/**
+	 * Gives the direction from (x,y) towards a neighbor that is closer to the exit.
+	 * Directions are precomputed along with the distances such that 
+	 * this is a table lookup that does not allocate memory.
+	 * If distances were provided without directions, 
+	 * directions are computed on the first call.
+	 * @param x is on the horizontal axis, {@code 0 <= x < width}
+	 * @param y is on the vertical axis, {@code 0 <= y < height}
+	 * @return direction towards the exit, null if (x,y) is the exit position
+	 */
+	public CardinalDirection getDirectionToExit(int x, int y) {
 		assert isValidPosition(x,y) : "Invalid position";
-		// corner case, (x,y) is exit position
-		if (floorplan.isExitPosition(x, y))
-			return null;
-		// find best candidate
-		int dnext = getDistanceToExit(x, y) ;
-		int[] result = new int[2] ;
-		int[] dir;
-		for (CardinalDirection cd: CardinalDirection.values()) {
-			if (hasWall(x, y, cd)) 
-				continue; // there is a wallboard in the way
-			// no wallboard, let's check the distance
-			dir = cd.getDirection();
-			int dn = getDistanceToExit(x+dir[0], y+dir[1]);
-			if (dn < dnext) {
-				// update neighbor position with min distance
-				result[0] = x+dir[0] ;
-				result[1] = y+dir[1] ;
-				dnext = dn ;
-			}	
-		}
-		// expectation: we found a neighbor that is closer
-		assert(getDistanceToExit(x, y) > dnext) : 
-			"cannot identify direction towards solution: stuck at: " + x + ", "+ y ;
-		// since assert statements need not be executed, check it 
-		// to avoid giving back wrong result
-		return (getDistanceToExit(x, y) > dnext) ? result : null;
+		if (!mazedists.hasDirectionsToExit())
+			mazedists.computeDirectionsToExit(floorplan);
+		return mazedists.getDirectionToExit(x, y);
+	}
+
+	/**
+	 * Gives the distance field for an arbitrary target position.
+	 * Fields are computed on demand and cached, 
+	 * see {@link #getDistanceFieldCache()}.
+	 * @param x is on the horizontal axis, {@code 0 <= x < width}
+	 * @param y is on the vertical axis, {@code 0 <= y < height}
+	 * @return distances to (x,y) for all positions, shared, must not be modified
+	 */
+	public Distance getDistanceField(int x, int y) {
+		assert isValidPosition(x,y) : "Invalid position";
+		return getDistanceFieldCache().getDistanceField(x, y);
+	}
+	/**
+	 * Gives the cache for distance fields of this maze,
+	 * which also provides hit and miss counters.
+	 * The cache is created on first use with the default size limit
+	 * and computes its fields on the junction graph of this maze.
+	 * @return the cache for distance fields
+	 */
+	public synchronized DistanceFieldCache getDistanceFieldCache() {
+		if (null == distanceFields)
+			distanceFields = new DistanceFieldCache(getJunctionGraph(), DistanceFieldCache.DEFAULT_MAX_BYTES);
+		return distanceFields;
+	}
+	/**
+	 * Gives the junction graph of this maze with the starting 
+	 * and the exit position as nodes.
+	 * The graph is created on first use.
+	 * @return the junction graph
+	 */
+	public synchronized JunctionGraph getJunctionGraph() {
+		assert(isOperational()) : "accessing content before object is fully initialized!";
+		if (null == junctionGraph)
+			junctionGraph = new JunctionGraph(floorplan, width, height, start, mazedists.getExitPosition());
+		return junctionGraph;
 	}
 
 	/**
@@ -278,6 +316,7 @@ public class MazeContainer implements Maze {
 		assert (null != startingPosition && start.length == 2) : "MazeContainer.start illegal parameter value";
 		assert isValidPosition(start[0], start[1]) : "Invalid starting position";
 		this.start = startingPosition;
+		junctionGraph = null;
 	}
 	/** 
 	 * Sets the starting position
@@ -290,6 +329,7 @@ public class MazeContainer implements Maze {
 			start = new int[2] ;
 		start[0] = x ;
 		start[1] = y ;
+		junctionGraph = null;
 	}
 	/**
 	 * Provides coordinates (x,y) of the exit position for this maze.
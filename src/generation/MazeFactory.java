@@ -51,6 +51,42 @@ public class MazeFactory implements Factory {
 			builder = new MazeBuilderBoruvka();
 			buildOrder();
 			break;
+		case Kruskal:
+			builder = new MazeBuilderKruskal();
+			buildOrder();
+			break;
+		case Eller:
+			builder = new MazeBuilderEller();
+			buildOrder();
+			break;
+		case Wilson:
+			builder = new MazeBuilderWilson();
+			buildOrder();
+			break;
+		case RecursiveDivision:
+			builder = new MazeBuilderRecursiveDivision();
+			buildOrder();
+			break;
+		case HuntAndKill:
+			builder = new MazeBuilderHuntAndKill();
+			buildOrder();
+			break;
+		case GrowingTree:
+			builder = new MazeBuilderGrowingTree();
+			buildOrder();
+			break;
+		case BinaryTree:
+			builder = new MazeBuilderBinaryTree();
+			buildOrder();
+			break;
+		case Sidewinder:
+			builder = new MazeBuilderSidewinder();
+			buildOrder();
+			break;
+		case Tiled:
+			builder = new MazeBuilderTiled();
+			buildOrder();
+			break;
 		default:
 			System.out.println("MazeFactory.order: missing implementation for requested algorithm: " + order.getBuilder());
 			return false;
@@ -23,10 +23,28 @@ public interface Order {
 	Builder getBuilder() ;
 	/**
 	 * Lists all maze generation algorithms that are supported
-	 * by the maze factory (Eller needs to be implemented for P2)
+	 * by the maze factory
 	 *
 	 */
-	enum Builder { DFS, Prim, Kruskal, Eller, Boruvka } ;
+	enum Builder { DFS, Prim, Kruskal, Eller, Boruvka, Wilson, RecursiveDivision, HuntAndKill, GrowingTree, BinaryTree, Sidewinder, Tiled } ;
+	/**
+	 * Lists the ways for the growing tree algorithm to select the next active cell:
+	 * the newest one as in a depth first search, the oldest one, a random one as in Prim's algorithm
+	 * or a mix of the newest and a random one, see {@link #getSelectionRatio()}.
+	 */
+	enum Selection { Newest, Oldest, Random, Mixed } ;
+	/**
+	 * Gives the way to select the next active cell if the builder is the growing tree algorithm,
+	 * other builders ignore it.
+	 * @return the selection policy
+	 */
+	Selection getSelection() ;
+	/**
+	 * Gives the probability to select the newest active cell for the mixed selection,
+	 * otherwise a random one is selected. Other selections and builders ignore it.
+	 * @return the ratio, {@code 0 <= ratio <= 1}
+	 */
+	double getSelectionRatio() ;
 	/**
 	 * Describes if the ordered maze should be perfect, i.e. there are 
 	 * no loops and no isolated areas, which also implies that 
@@ -34,6 +52,19 @@ public interface Order {
 	 * @return true if a perfect maze is wanted, false otherwise
 	 */
 	boolean isPerfect() ;
+	/**
+	 * Gives the requested representation for the floorplan of the maze,
+	 * possible values are listed in the Floorplan.Storage enum type.
+	 * @return the representation used to store the cells of the floorplan
+	 */
+	Floorplan.Storage getStorage() ;
+	/**
+	 * Gives the way to grade candidate splitters for the BSP tree of the maze,
+	 * possible values are listed in the BSPBuilder.Grading enum type.
+	 * The grading affects the shape of the tree but not the maze.
+	 * @return the grading of candidate splitters
+	 */
+	BSPBuilder.Grading getGrading() ;
 	/**
 	 * Gives the seed that is used for the random number generator
 	 * used during the maze generation.
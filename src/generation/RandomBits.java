@@ -0,0 +1,62 @@
+package generation;
+
+import java.util.function.IntSupplier;
+
+/**
+ * Hands out the bits of random int values a few at a time, such that
+ * builders that need many small random decisions, like coin flips or
+ * one of four directions, only call their random number generator
+ * once for every 32 bits.
+ *
+ * The bits of each int are used from the lowest to the highest.
+ * Draws of 1 or 2 bits use all 32 bits of each int, a larger draw
+ * that does not fit into the remaining bits discards them
+ * and starts with the next int.
+ */
+final class RandomBits {
+
+	private final IntSupplier source; // random number generator that provides 32 bits per call
+	private int bits; // bits not yet handed out, lowest first
+	private int bitCount; // number of bits not yet handed out
+
+	/**
+	 * Constructor
+	 * @param source provides random int values, e.g. {@code random::nextInt}
+	 */
+	RandomBits(IntSupplier source) {
+		this.source = source;
+	}
+
+	/**
+	 * Gives the next random bits.
+	 * @param count the number of bits, {@code 0 < count < 32}
+	 * @return a value from 0 to 2^count - 1, all with the same probability
+	 */
+	int next(int count) {
+		assert 0 < count && count < 32 : "Invalid number of bits";
+		if (bitCount < count) {
+			bits = source.getAsInt();
+			bitCount = 32;
+		}
+		bitCount -= count;
+		final int result = bits & ((1 << count) - 1);
+		bits >>>= count;
+		return result;
+	}
+
+	/**
+	 * Flips a fair coin, uses one bit for each flip.
+	 * @return true or false with the same probability
+	 */
+	boolean coin() {
+		return next(1) != 0;
+	}
+
+	/**
+	 * Gives the ordinal of a random cardinal direction, uses two bits for each direction.
+	 * @return a value from 0 to 3, all with the same probability
+	 */
+	int direction() {
+		return next(2);
+	}
+}
@@ -0,0 +1,105 @@
+package generation;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+
+/**
+ * Receives the rows of a maze from a builder that generates one row at a time,
+ * see {@link MazeBuilderEller}, {@link MazeBuilderBinaryTree} and {@link MazeBuilderSidewinder}.
+ * Such builders never look back at earlier rows, so a sink can write each row
+ * to a stream and mazes can be far larger than the heap.
+ *
+ * The static methods give sinks for a floorplan, for text and for a compact binary format.
+ */
+@FunctionalInterface
+public interface RowSink {
+	/**
+	 * Takes the next row of the maze. The wallboards of each cell are given
+	 * with the same bits as in a floorplan: {@link Floorplan#CW_TOP},
+	 * {@link Floorplan#CW_BOT}, {@link Floorplan#CW_LEFT} and {@link Floorplan#CW_RIGHT}.
+	 * The array is reused for the next row, so it must not be kept.
+	 * @param y the row, starting with 0 at the top
+	 * @param cells the wallboards for each cell of the row from x = 0 to width-1
+	 * @throws IOException if the row cannot be written
+	 */
+	void acceptRow(int y, int[] cells) throws IOException;
+
+	/**
+	 * Gives a sink that tears down the wallboards to the right and below each cell
+	 * that are open in the rows.
+	 * @param floorplan the floorplan with all wallboards up, as wide as the rows
+	 * @return the sink
+	 */
+	static RowSink floorplanWriter(Floorplan floorplan) {
+		final int east = CardinalDirection.East.ordinal();
+		final int south = CardinalDirection.South.ordinal();
+		return (y, cells) -> {
+			for (int x = 0; x < cells.length; x++) {
+				final int index = y*cells.length + x;
+				if ((cells[x] & Floorplan.CW_RIGHT) == 0)
+					floorplan.deleteWallboard(index, east);
+				if ((cells[x] & Floorplan.CW_BOT) == 0)
+					floorplan.deleteWallboard(index, south);
+			}
+		};
+	}
+
+	/**
+	 * Gives a sink that writes the maze as text with two lines per row,
+	 * e.g. {@code +--+  +} for the wallboards above the cells and {@code |  |  |}
+	 * for the wallboards to their left and right, followed by a line for the bottom of the maze.
+	 * @param out the writer for the text, the caller closes it
+	 * @param height the height of the maze
+	 * @return the sink
+	 */
+	static RowSink textWriter(Writer out, int height) {
+		return (y, cells) -> {
+			final StringBuilder line = new StringBuilder(3*cells.length + 2);
+			appendHorizontal(line, cells, Floorplan.CW_TOP);
+			line.append('|');
+			for (int cell : cells) {
+				line.append("  ").append((cell & Floorplan.CW_RIGHT) != 0 ? '|' : ' ');
+			}
+			line.append('\n');
+			if (y == height-1)
+				appendHorizontal(line, cells, Floorplan.CW_BOT);
+			out.append(line);
+		};
+	}
+
+	private static void appendHorizontal(StringBuilder line, int[] cells, int bit) {
+		line.append('+');
+		for (int cell : cells) {
+			line.append((cell & bit) != 0 ? "--+" : "  +");
+		}
+		line.append('\n');
+	}
+
+	/**
+	 * Gives a sink that writes each row as {@code (width+3)/4} bytes with two bits per cell,
+	 * the cell x is in byte {@code x/4} at bit {@code 2*(x%4)} which is set if the wallboard
+	 * to its right is torn down and the next bit which is set if the wallboard below is torn down.
+	 * All other wallboards follow from these, so a maze takes a quarter byte per cell.
+	 * @param out the stream for the bytes, the caller closes it
+	 * @param width the width of the maze
+	 * @return the sink
+	 */
+	static RowSink binaryWriter(OutputStream out, int width) {
+		final byte[] row = new byte[(width + 3) / 4];
+		return (y, cells) -> {
+			for (int i = 0; i < row.length; i++) {
+				int packed = 0;
+				for (int x = 4*i; x < Math.min(4*i + 4, cells.length); x++) {
+					final int shift = 2*(x & 3);
+					if ((cells[x] & Floorplan.CW_RIGHT) == 0)
+						packed |= 1 << shift;
+					if ((cells[x] & Floorplan.CW_BOT) == 0)
+						packed |= 2 << shift;
+				}
+				row[i] = (byte) packed;
+			}
+			out.write(row);
+		};
+	}
+}
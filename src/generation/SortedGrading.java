@@ -0,0 +1,158 @@
+package generation;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Grades candidate splitters for a list of walls as {@link Wall#calculateGrade(List)} does,
+ * but with exact counts over all walls instead of a sample and in logarithmic time per candidate.
+ *
+ * The grade of a splitter is {@code |left - right| + 3*splits}: the difference between the numbers
+ * of walls on either side of the line through the splitter plus a penalty for each wall that the line cuts.
+ * Walls on the line go to the right if they have the same direction as the splitter, to the left otherwise.
+ * All walls are horizontal or vertical, so for a vertical line at x the counts follow from
+ * the x coordinates of vertical walls, with one sorted array for each direction,
+ * and from sorted arrays of the left and right ends of horizontal walls.
+ * A wall that ends on the line counts to the side of its other end,
+ * it is only cut if its ends are on different sides. Horizontal lines work the same with y.
+ *
+ * The arrays are built once for a list of walls in {@code O(n log n)},
+ * then each grade takes a few binary searches.
+ */
+final class SortedGrading {
+	// vertical walls: x coordinates by direction, upper and lower ends
+	private final int[] xOfDown; // dy > 0
+	private final int[] xOfUp; // dy < 0
+	private final int[] minYOfVertical;
+	private final int[] maxYOfVertical;
+	// horizontal walls: y coordinates by direction, left and right ends
+	private final int[] yOfRight; // dx > 0
+	private final int[] yOfLeft; // dx < 0
+	private final int[] minXOfHorizontal;
+	private final int[] maxXOfHorizontal;
+
+	/**
+	 * Constructor, sorts the coordinates of the given walls.
+	 * @param walls the walls that splitters are graded against
+	 */
+	SortedGrading(List<Wall> walls) {
+		int down = 0;
+		int vertical = 0;
+		int right = 0;
+		for (Wall wall : walls) {
+			if (wall.getExtensionX() == 0) {
+				vertical++;
+				if (wall.getExtensionY() > 0)
+					down++;
+			}
+			else if (wall.getExtensionX() > 0) {
+				right++;
+			}
+		}
+		final int horizontal = walls.size() - vertical;
+		xOfDown = new int[down];
+		xOfUp = new int[vertical - down];
+		minYOfVertical = new int[vertical];
+		maxYOfVertical = new int[vertical];
+		yOfRight = new int[right];
+		yOfLeft = new int[horizontal - right];
+		minXOfHorizontal = new int[horizontal];
+		maxXOfHorizontal = new int[horizontal];
+		int d = 0, u = 0, v = 0, r = 0, l = 0, h = 0;
+		for (Wall wall : walls) {
+			final int x = wall.getStartPositionX();
+			final int y = wall.getStartPositionY();
+			final int endX = wall.getEndPositionX();
+			final int endY = wall.getEndPositionY();
+			if (wall.getExtensionX() == 0) {
+				if (wall.getExtensionY() > 0)
+					xOfDown[d++] = x;
+				else
+					xOfUp[u++] = x;
+				minYOfVertical[v] = Math.min(y, endY);
+				maxYOfVertical[v++] = Math.max(y, endY);
+			}
+			else {
+				if (wall.getExtensionX() > 0)
+					yOfRight[r++] = y;
+				else
+					yOfLeft[l++] = y;
+				minXOfHorizontal[h] = Math.min(x, endX);
+				maxXOfHorizontal[h++] = Math.max(x, endX);
+			}
+		}
+		Arrays.sort(xOfDown);
+		Arrays.sort(xOfUp);
+		Arrays.sort(minYOfVertical);
+		Arrays.sort(maxYOfVertical);
+		Arrays.sort(yOfRight);
+		Arrays.sort(yOfLeft);
+		Arrays.sort(minXOfHorizontal);
+		Arrays.sort(maxXOfHorizontal);
+	}
+
+	/**
+	 * Gives the grade of the given splitter, a lower grade is better.
+	 * @param splitter a wall, usually but not necessarily one of the walls
+	 * @return the grade, the same as {@link Wall#calculateGrade(List)} for all walls without sampling
+	 */
+	int grade(Wall splitter) {
+		final boolean isVertical = splitter.getExtensionX() == 0;
+		// parallel walls lie on one side or on the line, perpendicular ones can be cut
+		final int line = isVertical ? splitter.getStartPositionX() : splitter.getStartPositionY();
+		final int[] forward = isVertical ? xOfDown : yOfRight;
+		final int[] backward = isVertical ? xOfUp : yOfLeft;
+		final int[] minOfPerpendicular = isVertical ? minXOfHorizontal : minYOfVertical;
+		final int[] maxOfPerpendicular = isVertical ? maxXOfHorizontal : maxYOfVertical;
+		final int forwardBelow = lowerBound(forward, line);
+		final int forwardAbove = forward.length - upperBound(forward, line);
+		final int backwardBelow = lowerBound(backward, line);
+		final int backwardAbove = backward.length - upperBound(backward, line);
+		final int perpendicularBelow = upperBound(maxOfPerpendicular, line); // both ends at or below the line
+		final int perpendicularAbove = minOfPerpendicular.length - lowerBound(minOfPerpendicular, line); // both ends at or above
+		final int splits = minOfPerpendicular.length - perpendicularBelow - perpendicularAbove;
+		final int below = forwardBelow + backwardBelow + perpendicularBelow;
+		final int above = forwardAbove + backwardAbove + perpendicularAbove;
+		final int onForward = forward.length - forwardBelow - forwardAbove;
+		final int onBackward = backward.length - backwardBelow - backwardAbove;
+		// the right side of the splitter is above the line for a vertical wall going down
+		// and for a horizontal wall going left, see the dot product in Wall
+		final boolean isForward = isVertical ? splitter.getExtensionY() > 0 : splitter.getExtensionX() > 0;
+		final boolean rightIsAbove = (isVertical == isForward);
+		final int right = (rightIsAbove ? above : below) + (isForward ? onForward : onBackward);
+		final int left = (rightIsAbove ? below : above) + (isForward ? onBackward : onForward);
+		return Math.abs(left - right) + splits * 3;
+	}
+
+	/**
+	 * Gives the number of values in the sorted array that are less than the key.
+	 */
+	private static int lowerBound(int[] sorted, int key) {
+		int low = 0;
+		int high = sorted.length;
+		while (low < high) {
+			final int mid = (low + high) >>> 1;
+			if (sorted[mid] < key)
+				low = mid + 1;
+			else
+				high = mid;
+		}
+		return low;
+	}
+
+	/**
+	 * Gives the number of values in the sorted array that are less than or equal to the key.
+	 */
+	private static int upperBound(int[] sorted, int key) {
+		int low = 0;
+		int high = sorted.length;
+		while (low < high) {
+			final int mid = (low + high) >>> 1;
+			if (sorted[mid] <= key)
+				low = mid + 1;
+			else
+				high = mid;
+		}
+		return low;
+	}
+}
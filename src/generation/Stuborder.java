@@ -10,6 +10,14 @@ public class Stuborder implements Order {
 	
 	private Builder build;
 	
+	private Floorplan.Storage storage = Floorplan.Storage.Dense;
+	
+	private BSPBuilder.Grading grading = BSPBuilder.Grading.Sampled;
+	
+	private Selection selection = Selection.Newest;
+	
+	private double selectionRatio = 0.5;
+	
 	public Maze maze;
 	
 	public Stuborder(int Seed, int Skill, boolean Perfect, Builder Build) {
@@ -37,6 +45,39 @@ public class Stuborder implements Order {
 		return perfect;
 	}
 
+	@Override
+	public Floorplan.Storage getStorage() {
+		return storage;
+	}
+	
+	public void setStorage(Floorplan.Storage storage) {
+		this.storage = storage;
+	}
+
+	@Override
+	public BSPBuilder.Grading getGrading() {
+		return grading;
+	}
+	
+	public void setGrading(BSPBuilder.Grading grading) {
+		this.grading = grading;
+	}
+
+	@Override
+	public Selection getSelection() {
+		return selection;
+	}
+	
+	@Override
+	public double getSelectionRatio() {
+		return selectionRatio;
+	}
+	
+	public void setSelection(Selection selection, double selectionRatio) {
+		this.selection = selection;
+		this.selectionRatio = selectionRatio;
+	}
+
 	@Override
 	public int getSeed() {
 		// TODO Auto-generated method stub
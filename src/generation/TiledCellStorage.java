@@ -0,0 +1,267 @@
+package generation;
+
+import java.util.Arrays;
+
+/**
+ * Storage for a Floorplan that splits the grid into square tiles
+ * of {@code TILE_SIZE x TILE_SIZE} cells and allocates a tile only
+ * when one of its cells receives a value that differs from the rest.
+ * A tile that is not allocated has the same value for all of its cells,
+ * e.g. zero for a fresh storage or all wallboards up after
+ * {@link Floorplan#initialize()}, and only costs a single integer.
+ * Memory consumption thus scales with the area that is actually touched,
+ * which pays off for large mazes that are only partially explored
+ * such as the cells seen by the player.
+ *
+ * Bulk operations on areas that cover a whole tile keep that tile
+ * unallocated, filling the whole grid releases all tiles. Single cell operations that do not change a value
+ * do not allocate a tile either.
+ */
+final class TiledCellStorage implements CellStorage {
+	/** tiles are {@code 1 << TILE_SHIFT} cells wide and high */
+	static final int TILE_SHIFT = 6;
+	static final int TILE_SIZE = 1 << TILE_SHIFT;
+	private static final int TILE_MASK = TILE_SIZE - 1;
+
+	private final int width;
+	private final int height;
+	private final int tilesPerRow;
+	private final int[][] tiles; // tile (tx,ty) at tiles[ty*tilesPerRow+tx], null if not allocated
+	private final int[] uniform; // value of all cells of a tile that is not allocated
+	// cell (x,y) of an allocated tile is at tile[(y & TILE_MASK) << TILE_SHIFT | (x & TILE_MASK)]
+
+	/**
+	 * Constructor, all values are zero.
+	 * @param width of the grid, {@code 0 <= width}
+	 * @param height of the grid, {@code 0 <= height}
+	 */
+	TiledCellStorage(int width, int height) {
+		this.width = width;
+		this.height = height;
+		tilesPerRow = (width + TILE_MASK) >>> TILE_SHIFT;
+		final int tileRows = (height + TILE_MASK) >>> TILE_SHIFT;
+		tiles = new int[tilesPerRow*tileRows][];
+		uniform = new int[tiles.length];
+	}
+	/**
+	 * Copy constructor
+	 * @param other provides dimensions and values
+	 */
+	private TiledCellStorage(TiledCellStorage other) {
+		width = other.width;
+		height = other.height;
+		tilesPerRow = other.tilesPerRow;
+		tiles = new int[other.tiles.length][];
+		for (int t = 0; t < tiles.length; t++) {
+			if (null != other.tiles[t])
+				tiles[t] = other.tiles[t].clone();
+		}
+		uniform = other.uniform.clone();
+	}
+	@Override
+	public int getWidth() {
+		return width;
+	}
+	@Override
+	public int getHeight() {
+		return height;
+	}
+	@Override
+	public int get(int index) {
+		final int x = index % width;
+		final int y = index / width;
+		final int t = tileIndex(x, y);
+		final int[] tile = tiles[t];
+		return (null == tile) ? uniform[t] : tile[offset(x, y)];
+	}
+	@Override
+	public void set(int index, int value) {
+		final int x = index % width;
+		final int y = index / width;
+		final int t = tileIndex(x, y);
+		int[] tile = tiles[t];
+		if (null == tile) {
+			if (uniform[t] == value)
+				return;
+			tile = allocate(t);
+		}
+		tile[offset(x, y)] = value;
+	}
+	@Override
+	public void setBits(int index, int bitmask) {
+		final int x = index % width;
+		final int y = index / width;
+		final int t = tileIndex(x, y);
+		int[] tile = tiles[t];
+		if (null == tile) {
+			if ((uniform[t] | bitmask) == uniform[t])
+				return;
+			tile = allocate(t);
+		}
+		tile[offset(x, y)] |= bitmask;
+	}
+	@Override
+	public void clearBits(int index, int bitmask) {
+		final int x = index % width;
+		final int y = index / width;
+		final int t = tileIndex(x, y);
+		int[] tile = tiles[t];
+		if (null == tile) {
+			if ((uniform[t] & bitmask) == 0)
+				return;
+			tile = allocate(t);
+		}
+		tile[offset(x, y)] &= ~bitmask;
+	}
+	@Override
+	public boolean hasBits(int index, int bitmask) {
+		return (get(index) & bitmask) != 0;
+	}
+	@Override
+	public CellStorage copy() {
+		return new TiledCellStorage(this);
+	}
+	/**
+	 * Gives the number of tiles that are allocated.
+	 * @return the number of allocated tiles
+	 */
+	int getAllocatedTiles() {
+		int result = 0;
+		for (int[] tile : tiles) {
+			if (null != tile)
+				result++;
+		}
+		return result;
+	}
+	/////////////////////// bulk operations, tile by tile //////////////////
+	/**
+	 * Releases all tiles such that a uniform value does not cost any tiles.
+	 */
+	@Override
+	public void fill(int value) {
+		Arrays.fill(tiles, null);
+		Arrays.fill(uniform, value);
+	}
+	@Override
+	public void setBitsInArea(int x0, int y0, int x1, int y1, int bitmask) {
+		updateArea(x0, y0, x1, y1, bitmask, true);
+	}
+	@Override
+	public void clearBitsInArea(int x0, int y0, int x1, int y1, int bitmask) {
+		updateArea(x0, y0, x1, y1, bitmask, false);
+	}
+	@Override
+	public boolean hasBitsInArea(int x0, int y0, int x1, int y1, int bitmask) {
+		for (int ty = y0 >>> TILE_SHIFT; ty <= y1 >>> TILE_SHIFT; ty++) {
+			for (int tx = x0 >>> TILE_SHIFT; tx <= x1 >>> TILE_SHIFT; tx++) {
+				final int t = ty*tilesPerRow + tx;
+				final int[] tile = tiles[t];
+				if (null == tile) {
+					if ((uniform[t] & bitmask) != 0)
+						return true;
+					continue;
+				}
+				final int xe = Math.min(x1, (tx << TILE_SHIFT) + TILE_MASK);
+				final int ye = Math.min(y1, (ty << TILE_SHIFT) + TILE_MASK);
+				for (int y = Math.max(y0, ty << TILE_SHIFT); y <= ye; y++) {
+					for (int x = Math.max(x0, tx << TILE_SHIFT); x <= xe; x++) {
+						if ((tile[offset(x, y)] & bitmask) != 0)
+							return true;
+					}
+				}
+			}
+		}
+		return false;
+	}
+	@Override
+	public int countCells(int bitmask) {
+		if (0 == width || 0 == height)
+			return 0;
+		return countCellsInArea(0, 0, width-1, height-1, bitmask);
+	}
+	/**
+	 * Sets or clears the bits of the given bitmask for all cells
+	 * in the rectangular area with corners (x0,y0) and (x1,y1).
+	 * Tiles that are completely covered and not allocated only
+	 * have their uniform value updated.
+	 */
+	private void updateArea(int x0, int y0, int x1, int y1, int bitmask, boolean set) {
+		for (int ty = y0 >>> TILE_SHIFT; ty <= y1 >>> TILE_SHIFT; ty++) {
+			for (int tx = x0 >>> TILE_SHIFT; tx <= x1 >>> TILE_SHIFT; tx++) {
+				final int t = ty*tilesPerRow + tx;
+				// intersection of the area with the tile, tiles on the right and bottom may be cut off by the grid
+				final int xs = Math.max(x0, tx << TILE_SHIFT);
+				final int ys = Math.max(y0, ty << TILE_SHIFT);
+				final int xe = Math.min(x1, (tx << TILE_SHIFT) + TILE_MASK);
+				final int ye = Math.min(y1, (ty << TILE_SHIFT) + TILE_MASK);
+				int[] tile = tiles[t];
+				if (null == tile) {
+					final int value = set ? (uniform[t] | bitmask) : (uniform[t] & ~bitmask);
+					if (value == uniform[t])
+						continue; // no change
+					if (xs == tx << TILE_SHIFT && ys == ty << TILE_SHIFT
+							&& xe == Math.min(width-1, (tx << TILE_SHIFT) + TILE_MASK)
+							&& ye == Math.min(height-1, (ty << TILE_SHIFT) + TILE_MASK)) {
+						uniform[t] = value; // covers all cells of the tile
+						continue;
+					}
+					tile = allocate(t);
+				}
+				for (int y = ys; y <= ye; y++) {
+					for (int x = xs; x <= xe; x++) {
+						if (set)
+							tile[offset(x, y)] |= bitmask;
+						else
+							tile[offset(x, y)] &= ~bitmask;
+					}
+				}
+			}
+		}
+	}
+	/**
+	 * Counts the cells in the given area that have any bit of the bitmask set to one.
+	 */
+	private int countCellsInArea(int x0, int y0, int x1, int y1, int bitmask) {
+		int result = 0;
+		for (int ty = y0 >>> TILE_SHIFT; ty <= y1 >>> TILE_SHIFT; ty++) {
+			for (int tx = x0 >>> TILE_SHIFT; tx <= x1 >>> TILE_SHIFT; tx++) {
+				final int t = ty*tilesPerRow + tx;
+				final int xs = Math.max(x0, tx << TILE_SHIFT);
+				final int ys = Math.max(y0, ty << TILE_SHIFT);
+				final int xe = Math.min(x1, (tx << TILE_SHIFT) + TILE_MASK);
+				final int ye = Math.min(y1, (ty << TILE_SHIFT) + TILE_MASK);
+				final int[] tile = tiles[t];
+				if (null == tile) {
+					if ((uniform[t] & bitmask) != 0)
+						result += (xe-xs+1)*(ye-ys+1);
+					continue;
+				}
+				for (int y = ys; y <= ye; y++) {
+					for (int x = xs; x <= xe; x++) {
+						if ((tile[offset(x, y)] & bitmask) != 0)
+							result++;
+					}
+				}
+			}
+		}
+		return result;
+	}
+	/**
+	 * Allocates a tile with all cells set to its uniform value.
+	 * @param t the index of the tile
+	 * @return the allocated tile
+	 */
+	private int[] allocate(int t) {
+		final int[] tile = new int[TILE_SIZE*TILE_SIZE];
+		if (0 != uniform[t])
+			Arrays.fill(tile, uniform[t]);
+		tiles[t] = tile;
+		return tile;
+	}
+	private int tileIndex(int x, int y) {
+		return (y >>> TILE_SHIFT)*tilesPerRow + (x >>> TILE_SHIFT);
+	}
+	private static int offset(int x, int y) {
+		return ((y & TILE_MASK) << TILE_SHIFT) | (x & TILE_MASK);
+	}
+}
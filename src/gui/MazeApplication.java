@@ -84,13 +84,48 @@ public class MazeApplication extends JFrame {
 				    // Case 3 a and b: Eller, Kruskal, Boruvka or some other generation algorithm
 				    else if ("Kruskal".equalsIgnoreCase(parameter[r+1]))
 				    {
-				    	// TODO: for P2 assignment, please add code to set the builder accordingly
-				        throw new RuntimeException("Don't know anybody named Kruskal ...");
+				    	msg = "MazeApplication: generating random maze with Kruskal's algorithm.";
+				    	result.setBuilder(Order.Builder.Kruskal);
 				    }
 				    else if ("Eller".equalsIgnoreCase(parameter[r+1]))
 				    {
-				    	// TODO: for P2 assignment, please add code to set the builder accordingly
-				        throw new RuntimeException("Don't know anybody named Eller ...");
+				    	msg = "MazeApplication: generating random maze with Eller's algorithm.";
+				    	result.setBuilder(Order.Builder.Eller);
+				    }
+				    else if ("Wilson".equalsIgnoreCase(parameter[r+1]))
+				    {
+				    	msg = "MazeApplication: generating random maze with Wilson's algorithm.";
+				    	result.setBuilder(Order.Builder.Wilson);
+				    }
+				    else if ("RecursiveDivision".equalsIgnoreCase(parameter[r+1]))
+				    {
+				    	msg = "MazeApplication: generating random maze with recursive division.";
+				    	result.setBuilder(Order.Builder.RecursiveDivision);
+				    }
+				    else if ("HuntAndKill".equalsIgnoreCase(parameter[r+1]))
+				    {
+				    	msg = "MazeApplication: generating random maze with the hunt-and-kill algorithm.";
+				    	result.setBuilder(Order.Builder.HuntAndKill);
+				    }
+				    else if ("GrowingTree".equalsIgnoreCase(parameter[r+1]))
+				    {
+				    	msg = "MazeApplication: generating random maze with the growing tree algorithm.";
+				    	result.setBuilder(Order.Builder.GrowingTree);
+				    }
+				    else if ("BinaryTree".equalsIgnoreCase(parameter[r+1]))
+				    {
+				    	msg = "MazeApplication: generating random maze with the binary tree algorithm.";
+				    	result.setBuilder(Order.Builder.BinaryTree);
+				    }
+				    else if ("Sidewinder".equalsIgnoreCase(parameter[r+1]))
+				    {
+				    	msg = "MazeApplication: generating random maze with the sidewinder algorithm.";
+				    	result.setBuilder(Order.Builder.Sidewinder);
+				    }
+				    else if ("Tiled".equalsIgnoreCase(parameter[r+1]))
+				    {
+				    	msg = "MazeApplication: generating random maze in tiles on all processors.";
+				    	result.setBuilder(Order.Builder.Tiled);
 				    }
 				    else if ("Boruvka".equalsIgnoreCase(parameter[r+1]))
 				    {
@@ -216,7 +251,8 @@ public class MazeApplication extends JFrame {
 	 * The maze will be loaded from that file. 
 	 * This option is useful during development to test with a particular maze.
 	 * 3) A predefined constant string is given to select a maze
-	 * generation algorithm, currently supported is "Prim".
+	 * generation algorithm, currently supported are "Prim", "Kruskal", "Eller", "Boruvka", "Wilson",
+	 * "RecursiveDivision", "HuntAndKill", "GrowingTree", "BinaryTree", "Sidewinder" and "Tiled".
 	 * @param args is optional, first string can be a fixed constant like Prim or
 	 * the name of a file that stores a maze in XML format
 	 */
@@ -1,5 +1,6 @@
 package gui;
 
+import generation.BSPBuilder;
 import generation.Factory;
 import generation.Floorplan;
 import generation.Maze;
@@ -195,6 +196,22 @@ public class StateGenerating extends DefaultState implements Order {
         return perfect;
     }
     @Override
+    public Floorplan.Storage getStorage() {
+        return Floorplan.Storage.Dense; // mazes for the game are small enough for the default
+    }
+    @Override
+    public BSPBuilder.Grading getGrading() {
+        return BSPBuilder.Grading.Sampled; // faster than the sorted grading for trees of the same shape
+    }
+    @Override
+    public Selection getSelection() {
+        return Selection.Mixed; // a texture between the one of DFS and the one of Prim
+    }
+    @Override
+    public double getSelectionRatio() {
+        return 0.5;
+    }
+    @Override
     public int getSeed() {
     	return seed;
     }
@@ -96,7 +96,8 @@ public class StatePlaying extends DefaultState {
         	showSolution = false;
         }
         // init data structure for visible walls
-        seenCells = new Floorplan(mazeConfig.getWidth()+1,mazeConfig.getHeight()+1) ;
+        // only the explored part of the maze is seen, so tiles are allocated as walls come into view
+        seenCells = new Floorplan(mazeConfig.getWidth()+1,mazeConfig.getHeight()+1,Floorplan.Storage.Tiled) ;
         // set the current position and direction consistently with the viewing direction
         setPositionDirectionViewingDirection();
         walkStep = 0; // counts incremental steps during move/rotate operation
@@ -19,6 +19,10 @@ import gui.Robot.Direction;
  * decide what to do, but it must not drive into a wall. This serves as a
  * baseline algorithm to see how efficiently algorithms can perform in terms 
  * of energy consumption and path length. (from Project 3 directions)
+ * 
+ * Wizard plans its path on the junction graph of the maze, which passes
+ * each corridor in a single step, and follows it one cell at a time.
+ * It plans again whenever the robot is not where the path expects it.
  *  
  * @author Matthew Cheng
  */
@@ -31,6 +35,12 @@ public class Wizard implements RobotDriver {
 	
 	private float startBattery;
 	
+	private int[][] path; // cells from the planned position to the exit, null if not planned yet
+	
+	private int pathIndex; // next cell on the path
+	
+	private int[] expected; // position where the robot has to be to take the next cell on the path
+	
 	@Override
 	public void setRobot(Robot r) {
 		robot = r;
@@ -45,6 +55,7 @@ public class Wizard implements RobotDriver {
 	@Override
 	public void setMaze(Maze maze) {
 		this.maze = maze;
+		path = null;
 	}
 	
 	@Override
@@ -152,13 +163,8 @@ public class Wizard implements RobotDriver {
 			int x = position[0];
 			int y = position[1];
 			
-			// get the difference between current and closer neighbor
-			int[] closer_cell = maze.getNeighborCloserToExit(x, y);
-			int dx = closer_cell[0]-x;
-			int dy = closer_cell[1]-y;
-			
-			// using this difference, get the direction of the closer neighbor
-			CardinalDirection new_direction = CardinalDirection.getDirection(dx, dy);
+			// get the direction of the next cell on the path
+			CardinalDirection new_direction = getDirectionOnPath(x, y);
 			
 			// set robot to face the neighbor
 			while (robot.getCurrentDirection()!= new_direction) {
@@ -204,10 +210,30 @@ public class Wizard implements RobotDriver {
 			
 			// now that we are oriented correctly, move 1 space and return true
 			robot.move(1);
+			expected = path[pathIndex++];
 			return true;
 		}
 	}
 	
+	/**
+	 * Gives the direction towards the next cell on the path to the exit.
+	 * The path is planned on the junction graph of the maze if there is none yet
+	 * or if the robot is not at the position where the path expects it.
+	 * @param x is the x coordinate of the robot, not at the exit
+	 * @param y is the y coordinate of the robot, not at the exit
+	 * @return the direction towards the next cell
+	 */
+	private CardinalDirection getDirectionOnPath(int x, int y) {
+		if (null == path || pathIndex == path.length || expected[0] != x || expected[1] != y) {
+			int[] exit = maze.getExitPosition();
+			path = maze.getJunctionGraph().getPath(x, y, exit[0], exit[1]);
+			pathIndex = 0;
+			expected = new int[] {x, y};
+		}
+		int[] next = path[pathIndex];
+		return CardinalDirection.getDirection(next[0] - x, next[1] - y);
+	}
+	
 	/**
 	 * This method attempts to stop the failure and repair processes for each of the 
 	 * robot's sensors. If the sensor is unreliable, it will stop the process and if
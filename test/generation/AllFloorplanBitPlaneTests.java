@@ -0,0 +1,15 @@
+//package generation;
+
+import org.junit.runner.RunWith;
+import org.junit.runners.Suite;
+import org.junit.runners.Suite.SuiteClasses;
+
+/**
+ * Runs the Floorplan tests unchanged but with the bit plane
+ * representation for all floorplans.
+ */
+@RunWith(Suite.class)
+@SuiteClasses({ FloorplanBitPlaneTest.class, FloorplanBitPlaneTestIterator.class })
+public class AllFloorplanBitPlaneTests {
+
+}
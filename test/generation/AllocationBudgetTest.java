@@ -0,0 +1,162 @@
+//package generation;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.management.ManagementFactory;
+
+import org.junit.jupiter.api.Test;
+
+import gui.Constants;
+
+/**
+ * Guards the generation hot path against allocation regressions.
+ * Measures the bytes allocated by the current thread while a maze of skill level 9
+ * is generated and fails if that exceeds a budget.
+ * Data that belongs to the result, floorplan and distance matrix,
+ * is allocated by buildOrder and not measured.
+ * The budgets leave room for a small constant amount plus a few bytes
+ * per cell for the generation and a single object per wall.
+ */
+class AllocationBudgetTest {
+
+	private static final int SKILL = 9;
+	private static final long CONSTANT_BUDGET = 8*1024; // bytes, independent of the maze size
+	private static final long BYTES_PER_CELL = 2; // e.g. a byte per cell to memorize directions
+	// weights and candidates for two wallboards per cell plus a disjoint set and the cheapest candidate per component
+	private static final long BYTES_PER_CELL_BORUVKA = 32;
+	// candidates for two wallboards per cell plus a disjoint set
+	private static final long BYTES_PER_CELL_KRUSKAL = 16;
+	// a flag for two wallboards per cell plus a disjoint set to connect parts that rooms cut off
+	private static final long BYTES_PER_CELL_RECURSIVE_DIVISION = 8;
+	// active cells, up to all cells with a newest selection, in a buffer that doubles its capacity
+	private static final long BYTES_PER_CELL_GROWING_TREE = 16;
+	// candidates for two wallboards per cell plus a disjoint set per tile and the tile component of each cell
+	private static final long BYTES_PER_CELL_TILED = 24;
+	private static final long BYTES_PER_WALL = 400; // the wall object itself
+
+	private final int cells = Constants.SKILL_X[SKILL]*Constants.SKILL_Y[SKILL];
+
+	private static long allocatedBytes() {
+		return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()).getCurrentThreadAllocatedBytes();
+	}
+
+	private MazeBuilder createBuilder(Order.Builder builder) {
+		MazeBuilder mb;
+		switch (builder) {
+		case Prim: mb = new MazeBuilderPrim(); break;
+		case Boruvka: mb = new MazeBuilderBoruvka(); break;
+		case Kruskal: mb = new MazeBuilderKruskal(); break;
+		case Eller: mb = new MazeBuilderEller(); break;
+		case Wilson: mb = new MazeBuilderWilson(); break;
+		case RecursiveDivision: mb = new MazeBuilderRecursiveDivision(); break;
+		case HuntAndKill: mb = new MazeBuilderHuntAndKill(); break;
+		case GrowingTree: mb = new MazeBuilderGrowingTree(); break;
+		case BinaryTree: mb = new MazeBuilderBinaryTree(); break;
+		case Sidewinder: mb = new MazeBuilderSidewinder(); break;
+		case Tiled: mb = new MazeBuilderTiled(); break;
+		default: mb = new MazeBuilder();
+		}
+		mb.buildOrder(new Stuborder(13, SKILL, false, builder));
+		return mb;
+	}
+
+	/**
+	 * Runs all steps of the generation that are subject to a budget,
+	 * once to warm up class loading and initialization, once to measure.
+	 */
+	private void assertWithinBudget(Order.Builder builder, long bytesPerCell) {
+		for (int round = 0; round < 2; round++) {
+			MazeBuilder mb = createBuilder(builder);
+			long start = allocatedBytes();
+			mb.floorplan.initialize();
+			mb.generateRooms();
+			mb.generatePathways();
+			long pathways = allocatedBytes() - start;
+
+			start = allocatedBytes();
+			mb.dists.computeDistances(mb.floorplan);
+			long distances = allocatedBytes() - start;
+
+			int[] sequences = new int[1];
+			start = allocatedBytes();
+			for (int y = 0; y < mb.height; y++) {
+				mb.floorplan.forEachSequence(0, y, CardinalDirection.North, (s, e) -> sequences[0]++);
+				mb.floorplan.forEachSequence(0, y, CardinalDirection.South, (s, e) -> sequences[0]++);
+			}
+			long iteration = allocatedBytes() - start;
+
+			long[] walls = new long[1];
+			start = allocatedBytes();
+			new ListOfWallsBuilder(mb.width, mb.height, mb.floorplan, mb.dists, 0).generateWalls(w -> walls[0]++);
+			long wallList = allocatedBytes() - start;
+
+			if (round == 0)
+				continue;
+			assertTrue(pathways <= CONSTANT_BUDGET + bytesPerCell*cells, builder + " pathways allocated " + pathways);
+			assertTrue(distances <= CONSTANT_BUDGET, builder + " distances allocated " + distances);
+			assertTrue(sequences[0] > 0);
+			assertTrue(iteration <= CONSTANT_BUDGET, builder + " sequences allocated " + iteration);
+			assertTrue(wallList <= CONSTANT_BUDGET + BYTES_PER_WALL*walls[0], builder + " walls allocated " + wallList);
+		}
+	}
+
+	@Test
+	void testDFSAllocation() {
+		assertWithinBudget(Order.Builder.DFS, BYTES_PER_CELL);
+	}
+
+	@Test
+	void testPrimAllocation() {
+		assertWithinBudget(Order.Builder.Prim, BYTES_PER_CELL);
+	}
+
+	@Test
+	void testBoruvkaAllocation() {
+		assertWithinBudget(Order.Builder.Boruvka, BYTES_PER_CELL_BORUVKA);
+	}
+
+	@Test
+	void testKruskalAllocation() {
+		assertWithinBudget(Order.Builder.Kruskal, BYTES_PER_CELL_KRUSKAL);
+	}
+
+	@Test
+	void testEllerAllocation() {
+		assertWithinBudget(Order.Builder.Eller, BYTES_PER_CELL);
+	}
+
+	@Test
+	void testWilsonAllocation() {
+		assertWithinBudget(Order.Builder.Wilson, BYTES_PER_CELL);
+	}
+
+	@Test
+	void testRecursiveDivisionAllocation() {
+		assertWithinBudget(Order.Builder.RecursiveDivision, BYTES_PER_CELL_RECURSIVE_DIVISION);
+	}
+
+	@Test
+	void testHuntAndKillAllocation() {
+		assertWithinBudget(Order.Builder.HuntAndKill, BYTES_PER_CELL);
+	}
+
+	@Test
+	void testGrowingTreeAllocation() {
+		assertWithinBudget(Order.Builder.GrowingTree, BYTES_PER_CELL_GROWING_TREE);
+	}
+
+	@Test
+	void testBinaryTreeAllocation() {
+		assertWithinBudget(Order.Builder.BinaryTree, BYTES_PER_CELL);
+	}
+
+	@Test
+	void testSidewinderAllocation() {
+		assertWithinBudget(Order.Builder.Sidewinder, BYTES_PER_CELL);
+	}
+
+	@Test
+	void testTiledAllocation() {
+		assertWithinBudget(Order.Builder.Tiled, BYTES_PER_CELL_TILED);
+	}
+}
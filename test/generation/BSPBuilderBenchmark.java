@@ -0,0 +1,76 @@
+//package generation;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import gui.Constants;
+
+/**
+ * Compares the gradings of candidate splitters in the BSPBuilder.
+ * Reports the fastest time to build the BSP tree, the number of nodes, the depth,
+ * the number of leaves and the average and largest number of walls per leaf
+ * for a maze with rooms from the depth first search at each skill level.
+ * Not a unit test, run its main method, optionally with the highest skill level as argument.
+ */
+public class BSPBuilderBenchmark {
+
+	static final int ROUNDS = 3;
+
+	public static void main(String[] args) throws InterruptedException {
+		final int maxSkill = (args.length > 0) ? Integer.parseInt(args[0]) : 9;
+		final MazeBuilder mb = new MazeBuilder();
+		final List<String> lines = new ArrayList<>();
+		for (int skill = 0; skill <= maxSkill; skill++) {
+			mb.buildOrder(new Stuborder(13, skill, false, Order.Builder.DFS));
+			mb.floorplan.initialize();
+			mb.generateRooms();
+			mb.generatePathways();
+			mb.dists.computeDistances(mb.floorplan);
+			for (BSPBuilder.Grading grading : BSPBuilder.Grading.values()) {
+				lines.add(String.format("%5d %4dx%-4d %8s %s", skill, Constants.SKILL_X[skill], Constants.SKILL_Y[skill],
+						grading, measure(mb, grading)));
+			}
+		}
+		System.out.println("skill    size     grading   bsp ms    nodes depth   leaves walls/leaf max");
+		for (String line : lines) {
+			System.out.println(line);
+		}
+	}
+
+	/**
+	 * Gives the fastest time in ms to build the BSP tree with the given grading
+	 * and the shape of the tree, formatted as a row of the table.
+	 */
+	private static String measure(MazeBuilder mb, BSPBuilder.Grading grading) throws InterruptedException {
+		long best = Long.MAX_VALUE;
+		BSPNode root = null;
+		for (int round = 0; round < ROUNDS; round++) {
+			// without an order, the BSPBuilder does not report progress
+			final BSPBuilder bsp = new BSPBuilder(null, mb.dists, mb.floorplan, mb.width, mb.height, 0, 1);
+			bsp.setGrading(grading);
+			final long start = System.nanoTime();
+			root = bsp.generateBSPNodes();
+			best = Math.min(best, System.nanoTime() - start);
+		}
+		// nodes, depth, leaves, walls in leaves, largest leaf
+		final int[] shape = new int[5];
+		collectShape(root, 1, shape);
+		return String.format("%8.1f %8d %5d %8d %10.1f %3d", best / 1e6, shape[0], shape[1], shape[2],
+				(double) shape[3] / shape[2], shape[4]);
+	}
+
+	private static void collectShape(BSPNode node, int depth, int[] shape) {
+		shape[0]++;
+		shape[1] = Math.max(shape[1], depth);
+		if (node.isIsleaf()) {
+			final int walls = ((BSPLeaf) node).getAllWalls().size();
+			shape[2]++;
+			shape[3] += walls;
+			shape[4] = Math.max(shape[4], walls);
+			return;
+		}
+		final BSPBranch branch = (BSPBranch) node;
+		collectShape(branch.getLeftBranch(), depth + 1, shape);
+		collectShape(branch.getRightBranch(), depth + 1, shape);
+	}
+}
@@ -0,0 +1,79 @@
+//package generation;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import gui.Constants;
+
+/**
+ * Measures how building the BSP tree in parallel scales with the number of threads.
+ * Reports the fastest time to build the BSP tree for a maze with rooms from the depth first search
+ * at skill levels 12 to 15 and for larger mazes with the rooms of skill level 15,
+ * for both gradings on 1, 2, 4 and 8 threads, and the speedup over a single thread.
+ * Not a unit test, run its main method, optionally with the largest width as argument.
+ */
+public class BSPBuilderParallelBenchmark {
+
+	static final int ROUNDS = 3;
+	static final int[] SKILLS = {12, 13, 14, 15};
+	static final int[][] LARGE_SIZES = { {600, 480}, {1000, 800} };
+	static final int[] THREADS = {1, 2, 4, 8};
+
+	public static void main(String[] args) throws InterruptedException {
+		final int maxWidth = (args.length > 0) ? Integer.parseInt(args[0]) : 1000;
+		final MazeBuilder mb = new MazeBuilder();
+		// skill level, width and height for each maze
+		final List<int[]> mazes = new ArrayList<>();
+		for (int skill : SKILLS)
+			mazes.add(new int[] {skill, Constants.SKILL_X[skill], Constants.SKILL_Y[skill]});
+		for (int[] size : LARGE_SIZES) {
+			if (size[0] <= maxWidth)
+				mazes.add(new int[] {15, size[0], size[1]});
+		}
+		// warm up such that the first configuration does not pay for compilation
+		for (BSPBuilder.Grading grading : BSPBuilder.Grading.values())
+			time(mb, mazes.get(0), grading, 2);
+		final List<String> lines = new ArrayList<>();
+		for (int[] maze : mazes) {
+			for (BSPBuilder.Grading grading : BSPBuilder.Grading.values()) {
+				double single = 0;
+				for (int threads : THREADS) {
+					final double time = time(mb, maze, grading, threads);
+					if (threads == 1)
+						single = time;
+					lines.add(String.format("%5d %4dx%-4d %8s %8d %9.1f %8.2f", maze[0], maze[1], maze[2],
+							grading, threads, time, single / time));
+				}
+			}
+		}
+		System.out.println("processors: " + Runtime.getRuntime().availableProcessors());
+		System.out.println("skill    size     grading  threads    bsp ms  speedup");
+		for (String line : lines) {
+			System.out.println(line);
+		}
+	}
+
+	/**
+	 * Gives the fastest time in ms to build the BSP tree with the given grading and number of threads.
+	 * @param maze the skill level, width and height of the maze
+	 */
+	private static double time(MazeBuilder mb, int[] maze, BSPBuilder.Grading grading, int threads) throws InterruptedException {
+		long best = Long.MAX_VALUE;
+		for (int round = 0; round < ROUNDS; round++) {
+			// a new maze for each round as the BSPBuilder marks the walls that it uses as partitions
+			mb.buildOrder(new Stuborder(13, maze[0], false, Order.Builder.DFS), maze[1], maze[2]);
+			mb.floorplan.initialize();
+			mb.generateRooms();
+			mb.generatePathways();
+			mb.dists.computeDistances(mb.floorplan);
+			// without an order, the BSPBuilder does not report progress
+			final BSPBuilder bsp = new BSPBuilder(null, mb.dists, mb.floorplan, mb.width, mb.height, 0, 1);
+			bsp.setGrading(grading);
+			bsp.setParallelism(threads);
+			final long start = System.nanoTime();
+			bsp.generateBSPNodes();
+			best = Math.min(best, System.nanoTime() - start);
+		}
+		return best / 1e6;
+	}
+}
@@ -0,0 +1,170 @@
+//package generation;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import gui.Constants;
+
+/**
+ * Tests that building subtrees and grading candidate splitters in parallel gives
+ * the same BSP tree as the sequential build for both gradings and any number of threads,
+ * that subtrees own disjoint walls and that an interrupt still stops the construction.
+ */
+class BSPBuilderParallelTest {
+
+	private BSPBuilder newBuilder(int skill, BSPBuilder.Grading grading, int threads) {
+		MazeBuilder mb = new MazeBuilder();
+		mb.buildOrder(new Stuborder(13, skill, false, Order.Builder.DFS));
+		mb.floorplan.initialize();
+		mb.generateRooms();
+		mb.generatePathways();
+		mb.dists.computeDistances(mb.floorplan);
+		BSPBuilder bsp = new BSPBuilder(null, mb.dists, mb.floorplan, mb.width, mb.height, 0, 1);
+		bsp.setGrading(grading);
+		bsp.setParallelism(threads);
+		return bsp;
+	}
+
+	private BSPNode buildTree(int skill, BSPBuilder.Grading grading, int threads) throws InterruptedException {
+		return newBuilder(skill, grading, threads).generateBSPNodes();
+	}
+
+	private void assertSameTree(BSPNode expected, BSPNode actual, String msg) {
+		assertEquals(expected.isIsleaf(), actual.isIsleaf(), msg);
+		if (expected.isIsleaf()) {
+			List<Wall> expectedWalls = ((BSPLeaf) expected).getAllWalls();
+			List<Wall> actualWalls = ((BSPLeaf) actual).getAllWalls();
+			assertEquals(expectedWalls.size(), actualWalls.size(), msg);
+			for (int i = 0; i < expectedWalls.size(); i++) {
+				Wall e = expectedWalls.get(i);
+				Wall a = actualWalls.get(i);
+				assertArrayEquals(new int[] {e.getStartPositionX(), e.getStartPositionY(), e.getExtensionX(), e.getExtensionY()},
+						new int[] {a.getStartPositionX(), a.getStartPositionY(), a.getExtensionX(), a.getExtensionY()}, msg);
+			}
+			return;
+		}
+		BSPBranch e = (BSPBranch) expected;
+		BSPBranch a = (BSPBranch) actual;
+		assertArrayEquals(new int[] {e.getX(), e.getY(), e.getDx(), e.getDy()},
+				new int[] {a.getX(), a.getY(), a.getDx(), a.getDy()}, msg);
+		assertSameTree(e.getLeftBranch(), a.getLeftBranch(), msg);
+		assertSameTree(e.getRightBranch(), a.getRightBranch(), msg);
+	}
+
+	@Test
+	void testSameAsSequential() throws InterruptedException {
+		for (int skill = 0; skill <= 6; skill++) {
+			for (BSPBuilder.Grading grading : BSPBuilder.Grading.values()) {
+				BSPNode expected = buildTree(skill, grading, 1);
+				for (int threads : new int[] {2, 3}) {
+					// grade all nodes in parallel, also the small ones of small mazes
+					BSPBuilder bsp = newBuilder(skill, grading, threads);
+					bsp.setParallelThreshold(0);
+					assertSameTree(expected, bsp.generateBSPNodes(), "skill " + skill + ", " + grading + ", threads " + threads);
+				}
+			}
+		}
+	}
+
+	@Test
+	void testSameAsSequentialWithThreshold() throws InterruptedException {
+		// the root and the first levels of the largest skill level are above the threshold
+		for (BSPBuilder.Grading grading : BSPBuilder.Grading.values()) {
+			assertSameTree(buildTree(15, grading, 1), buildTree(15, grading, 4), grading.toString());
+		}
+	}
+
+	@Test
+	void testForkedSubtreesSameAsSequential() throws InterruptedException {
+		for (int skill = 0; skill <= 6; skill++) {
+			for (BSPBuilder.Grading grading : BSPBuilder.Grading.values()) {
+				BSPNode expected = buildTree(skill, grading, 1);
+				for (int threads : new int[] {2, 4}) {
+					// fork all nodes, also the small ones of small mazes
+					BSPBuilder bsp = newBuilder(skill, grading, threads);
+					bsp.setForkThreshold(0);
+					assertSameTree(expected, bsp.generateBSPNodes(), "skill " + skill + ", " + grading + ", threads " + threads);
+				}
+			}
+		}
+	}
+
+	@Test
+	void testSubtreesOwnDisjointWalls() throws InterruptedException {
+		// walls that two subtrees share would get partition bits from both tasks
+		for (int threads : new int[] {1, 4}) {
+			Map<Wall, BSPLeaf> owners = new IdentityHashMap<>();
+			collectOwners(buildTree(15, BSPBuilder.Grading.Sampled, threads), owners);
+			assertFalse(owners.containsValue(null), "wall in more than one leaf, threads " + threads);
+		}
+	}
+
+	/**
+	 * Maps each wall to its leaf, or to null if it is in more than one leaf.
+	 */
+	private void collectOwners(BSPNode node, Map<Wall, BSPLeaf> owners) {
+		if (node.isIsleaf()) {
+			for (Wall wall : ((BSPLeaf) node).getAllWalls()) {
+				owners.put(wall, owners.containsKey(wall) ? null : (BSPLeaf) node);
+			}
+			return;
+		}
+		collectOwners(((BSPBranch) node).getLeftBranch(), owners);
+		collectOwners(((BSPBranch) node).getRightBranch(), owners);
+	}
+
+	@Test
+	void testInterruptWhileBuilding() throws InterruptedException {
+		MazeBuilder mb = new MazeBuilder();
+		mb.buildOrder(new Stuborder(13, 15, false, Order.Builder.DFS));
+		mb.floorplan.initialize();
+		mb.generateRooms();
+		mb.generatePathways();
+		mb.dists.computeDistances(mb.floorplan);
+		BSPBuilder bsp = new BSPBuilder(new Stuborder(13, 15, false, Order.Builder.DFS), mb.dists, mb.floorplan,
+				mb.width, mb.height, 0, Constants.SKILL_PARTCT[15]);
+		bsp.setParallelism(4);
+		final Throwable[] thrown = new Throwable[1];
+		Thread builder = new Thread(() -> {
+			try {
+				bsp.generateBSPNodes();
+			}
+			catch (Throwable ex) {
+				thrown[0] = ex;
+			}
+		});
+		builder.start();
+		Thread.sleep(20);
+		builder.interrupt();
+		builder.join(10000);
+		assertFalse(builder.isAlive());
+		assertTrue(thrown[0] instanceof InterruptedException, "expected an InterruptedException but got " + thrown[0]);
+	}
+
+	@Test
+	void testInterrupt() {
+		try {
+			MazeBuilder mb = new MazeBuilder();
+			mb.buildOrder(new Stuborder(13, 5, false, Order.Builder.DFS));
+			mb.floorplan.initialize();
+			mb.generateRooms();
+			mb.generatePathways();
+			mb.dists.computeDistances(mb.floorplan);
+			// with an order and a large expected number of iterations, progress updates sleep and notice the interrupt
+			BSPBuilder bsp = new BSPBuilder(new Stuborder(13, 5, false, Order.Builder.DFS), mb.dists, mb.floorplan,
+					mb.width, mb.height, 0, 1 << 20);
+			bsp.setParallelism(2);
+			bsp.setParallelThreshold(0);
+			Thread.currentThread().interrupt();
+			assertThrows(InterruptedException.class, bsp::generateBSPNodes);
+		}
+		finally {
+			Thread.interrupted();
+		}
+	}
+}
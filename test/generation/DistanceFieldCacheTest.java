@@ -0,0 +1,95 @@
+//package generation;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests distance fields for arbitrary targets and
+ * the size bounded cache that keeps them.
+ */
+class DistanceFieldCacheTest {
+
+	private MazeBuilder build(int skill, boolean perfect) {
+		MazeBuilder mb = new MazeBuilder();
+		mb.buildOrder(new Stuborder(13, skill, perfect, Order.Builder.DFS));
+		mb.floorplan.initialize();
+		mb.generateRooms();
+		mb.generate();
+		return mb;
+	}
+
+	@Test
+	void testFieldForExitMatchesMazeDistances() {
+		MazeBuilder mb = build(5, false);
+		DistanceFieldCache cache = new DistanceFieldCache(mb.floorplan, mb.width, mb.height, DistanceFieldCache.DEFAULT_MAX_BYTES);
+		int[] exit = mb.dists.getExitPosition();
+		Distance field = cache.getDistanceField(exit[0], exit[1]);
+		assertArrayEquals(exit, field.getExitPosition());
+		int[][] expected = mb.dists.getAllDistanceValues();
+		int[][] actual = field.getAllDistanceValues();
+		for (int x = 0; x < mb.width; x++) {
+			assertArrayEquals(expected[x], actual[x]);
+		}
+	}
+
+	@Test
+	void testDistancesAreSymmetric() {
+		MazeBuilder mb = build(4, false);
+		DistanceFieldCache cache = new DistanceFieldCache(mb.floorplan, mb.width, mb.height, DistanceFieldCache.DEFAULT_MAX_BYTES);
+		int[][] targets = { {0, 0}, {mb.width-1, mb.height-1}, {mb.width/2, mb.height/3}, {3, mb.height-2} };
+		for (int[] a : targets) {
+			assertEquals(0, cache.getDistance(a[0], a[1], a[0], a[1]));
+			for (int[] b : targets) {
+				assertEquals(cache.getDistance(a[0], a[1], b[0], b[1]), cache.getDistance(b[0], b[1], a[0], a[1]));
+			}
+		}
+		// directions lead to the target with one step less each time
+		int[] a = targets[0];
+		int[] b = targets[1];
+		Distance field = cache.getDistanceField(b[0], b[1]);
+		int x = a[0];
+		int y = a[1];
+		int steps = 0;
+		for (CardinalDirection cd = field.getDirectionToExit(x, y); cd != null; cd = field.getDirectionToExit(x, y)) {
+			assertFalse(mb.floorplan.hasWall(x, y, cd));
+			x += cd.getDx();
+			y += cd.getDy();
+			steps++;
+		}
+		assertEquals(b[0], x);
+		assertEquals(b[1], y);
+		assertEquals(cache.getDistance(a[0], a[1], b[0], b[1]), steps);
+	}
+
+	@Test
+	void testHitsMissesAndEviction() {
+		MazeBuilder mb = build(3, true);
+		long fieldSize = new Distance(mb.width, mb.height).getSizeInBytes();
+		// room for two fields
+		DistanceFieldCache cache = new DistanceFieldCache(mb.floorplan, mb.width, mb.height, 2*fieldSize+1);
+		Distance f1 = cache.getDistanceField(1, 1);
+		Distance f2 = cache.getDistanceField(2, 2);
+		assertEquals(0, cache.getHits());
+		assertEquals(2, cache.getMisses());
+		assertSame(f1, cache.getDistanceField(1, 1)); // (1,1) is now most recently used
+		assertEquals(1, cache.getHits());
+		assertEquals(2, cache.size());
+		assertEquals(2*fieldSize, cache.getSizeInBytes());
+		// a third field evicts the least recently used one, (2,2)
+		cache.getDistanceField(3, 3);
+		assertEquals(2, cache.size());
+		assertSame(f1, cache.getDistanceField(1, 1));
+		assertNotSame(f2, cache.getDistanceField(2, 2));
+		assertEquals(2, cache.getHits());
+		assertEquals(4, cache.getMisses());
+		assertTrue(cache.getSizeInBytes() <= cache.getMaxBytes());
+		// fields that are too large are computed but not cached
+		DistanceFieldCache tiny = new DistanceFieldCache(mb.floorplan, mb.width, mb.height, fieldSize-1);
+		assertNotNull(tiny.getDistanceField(0, 0));
+		assertEquals(0, tiny.size());
+		cache.clear();
+		assertEquals(0, cache.size());
+		assertEquals(0, cache.getSizeInBytes());
+	}
+}
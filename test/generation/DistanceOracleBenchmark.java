@@ -0,0 +1,55 @@
+//package generation;
+
+import java.util.Random;
+
+/**
+ * Measures the number of distance queries per second that the
+ * landmark distance oracle answers for a 300 x 240 maze at skill level 15,
+ * for a perfect maze and for a maze with rooms, and compares it
+ * with a breadth first search per query.
+ * Not a unit test, run its main method.
+ */
+public class DistanceOracleBenchmark {
+
+	static final int SKILL = 15;
+	static final int QUERIES = 1_000_000;
+	static final int BFS_QUERIES = 200;
+
+	public static void main(String[] args) {
+		for (boolean perfect : new boolean[] {true, false}) {
+			MazeBuilder mb = new MazeBuilder();
+			mb.buildOrder(new Stuborder(13, SKILL, perfect, Order.Builder.DFS));
+			mb.floorplan.initialize();
+			mb.generateRooms();
+			mb.generate();
+			for (int round = 0; round < 2; round++) // first round warms up
+				run(mb, perfect);
+		}
+	}
+
+	private static void run(MazeBuilder mb, boolean perfect) {
+		long start = System.nanoTime();
+		DistanceOracle oracle = new DistanceOracle(mb.floorplan, mb.width, mb.height);
+		final long setup = System.nanoTime() - start;
+
+		Random random = new Random(42);
+		long sum = 0;
+		start = System.nanoTime();
+		for (int i = 0; i < QUERIES; i++)
+			sum += oracle.getDistance(random.nextInt(mb.width), random.nextInt(mb.height),
+					random.nextInt(mb.width), random.nextInt(mb.height));
+		final long oracleTime = System.nanoTime() - start;
+
+		Distance field = new Distance(mb.width, mb.height);
+		start = System.nanoTime();
+		for (int i = 0; i < BFS_QUERIES; i++) {
+			field.computeDistancesTo(mb.floorplan, random.nextInt(mb.width), random.nextInt(mb.height));
+			sum += field.getDistanceValue(random.nextInt(mb.width), random.nextInt(mb.height));
+		}
+		final long bfsTime = System.nanoTime() - start;
+
+		System.out.printf("%dx%d %-7s %4d doors, setup %6.1f ms, oracle %,12.0f queries/s, bfs %,8.0f queries/s (checksum %d)%n",
+				mb.width, mb.height, perfect ? "perfect" : "rooms", oracle.getNumberOfDoors(), setup / 1e6,
+				QUERIES / (oracleTime / 1e9), BFS_QUERIES / (bfsTime / 1e9), sum);
+	}
+}
@@ -0,0 +1,107 @@
+//package generation;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the landmark distance oracle against distance fields
+ * computed with a breadth first search for each target.
+ */
+class DistanceOracleTest {
+
+	private MazeBuilder build(int skill, boolean perfect) {
+		MazeBuilder mb = new MazeBuilder();
+		mb.buildOrder(new Stuborder(13, skill, perfect, Order.Builder.DFS));
+		mb.floorplan.initialize();
+		mb.generateRooms();
+		mb.generate();
+		return mb;
+	}
+
+	/**
+	 * Compares the oracle for all origins against the fields of a few targets.
+	 */
+	private void assertExact(MazeBuilder mb, DistanceOracle oracle) {
+		Random random = new Random(17);
+		for (int n = 0; n < 20; n++) {
+			int tx = random.nextInt(mb.width);
+			int ty = random.nextInt(mb.height);
+			Distance field = new Distance(mb.width, mb.height);
+			field.computeDistancesTo(mb.floorplan, tx, ty);
+			for (int x = 0; x < mb.width; x++) {
+				for (int y = 0; y < mb.height; y++) {
+					int expected = field.getDistanceValue(x, y) - 1;
+					assertEquals(expected, oracle.getDistance(x, y, tx, ty), "from " + x + "," + y + " to " + tx + "," + ty);
+					assertEquals(expected, oracle.getDistance(tx, ty, x, y));
+					assertTrue(oracle.getLowerBound(x, y, tx, ty) <= expected);
+					assertTrue(expected <= oracle.getUpperBound(x, y, tx, ty));
+				}
+			}
+		}
+	}
+
+	@Test
+	void testPerfectMaze() {
+		MazeBuilder mb = build(5, true);
+		DistanceOracle oracle = new DistanceOracle(mb.floorplan, mb.width, mb.height);
+		assertTrue(oracle.hasTreeStructure());
+		assertEquals(0, oracle.getNumberOfDoors());
+		assertEquals(DistanceOracle.DEFAULT_LANDMARKS, oracle.getNumberOfLandmarks());
+		assertExact(mb, oracle);
+	}
+
+	@Test
+	void testMazeWithRooms() {
+		MazeBuilder mb = build(5, false);
+		DistanceOracle oracle = new DistanceOracle(mb.floorplan, mb.width, mb.height);
+		assertTrue(oracle.hasTreeStructure());
+		assertTrue(oracle.getNumberOfDoors() > 0);
+		assertExact(mb, oracle);
+	}
+
+	@Test
+	void testSearchWithoutTreeStructure() {
+		// a floorplan without any wallboards has cycles everywhere
+		MazeBuilder mb = build(3, false);
+		Floorplan open = new Floorplan(mb.width, mb.height);
+		DistanceOracle oracle = new DistanceOracle(open, mb.width, mb.height, 2);
+		assertFalse(oracle.hasTreeStructure());
+		assertEquals(mb.width+mb.height-2, oracle.getDistance(0, 0, mb.width-1, mb.height-1));
+		assertEquals(5, oracle.getDistance(1, 4, 4, 2));
+		// a perfect maze where one corridor is opened to a cycle
+		mb = build(3, true);
+		mb.floorplan.deleteWallboard(new Wallboard(0, 0, CardinalDirection.East));
+		mb.floorplan.deleteWallboard(new Wallboard(0, 0, CardinalDirection.South));
+		mb.floorplan.deleteWallboard(new Wallboard(1, 0, CardinalDirection.South));
+		mb.floorplan.deleteWallboard(new Wallboard(0, 1, CardinalDirection.East));
+		oracle = new DistanceOracle(mb.floorplan, mb.width, mb.height);
+		assertFalse(oracle.hasTreeStructure());
+		assertEquals(0, oracle.getNumberOfDoors());
+		assertExact(mb, oracle);
+	}
+
+	@Test
+	void testSingleLandmark() {
+		MazeBuilder mb = build(3, false);
+		DistanceOracle oracle = new DistanceOracle(mb.floorplan, mb.width, mb.height, 1);
+		assertEquals(1, oracle.getNumberOfLandmarks());
+		assertExact(mb, oracle);
+		assertThrows(IllegalArgumentException.class, () -> new DistanceOracle(mb.floorplan, mb.width, mb.height, 0));
+	}
+
+	@Test
+	void testLandmarksAreDistinct() {
+		MazeBuilder mb = build(4, false);
+		DistanceOracle oracle = new DistanceOracle(mb.floorplan, mb.width, mb.height);
+		for (int i = 0; i < oracle.getNumberOfLandmarks(); i++) {
+			int[] a = oracle.getLandmark(i);
+			// a landmark has distance 0 to itself and bounds are exact
+			assertEquals(0, oracle.getUpperBound(a[0], a[1], a[0], a[1]));
+			for (int j = 0; j < i; j++)
+				assertTrue(oracle.getDistance(a[0], a[1], oracle.getLandmark(j)[0], oracle.getLandmark(j)[1]) > 0);
+		}
+	}
+}
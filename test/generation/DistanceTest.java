@@ -0,0 +1,240 @@
+//package generation;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import gui.Constants;
+
+/**
+ * Regression tests for the breadth first search in the Distance class.
+ * The fix-point iteration that was used before serves as a reference,
+ * both computations must deliver the very same distance matrix,
+ * exit position and starting position.
+ */
+class DistanceTest {
+
+	protected int seed = 13;
+
+	/**
+	 * Creates a builder for the given algorithm, runs it up to
+	 * the point where pathways exist and distances can be computed.
+	 * @param builder the generation algorithm
+	 * @param skill the skill level
+	 * @param perfect true for a maze without rooms
+	 * @return the floorplan produced by the builder
+	 */
+	protected Floorplan buildFloorplan(Order.Builder builder, int skill, boolean perfect) {
+		MazeBuilder mb;
+		switch (builder) {
+		case Prim:
+			mb = new MazeBuilderPrim();
+			break;
+		case Boruvka:
+			mb = new MazeBuilderBoruvka();
+			break;
+		case Kruskal:
+			mb = new MazeBuilderKruskal();
+			break;
+		case Eller:
+			mb = new MazeBuilderEller();
+			break;
+		case Wilson:
+			mb = new MazeBuilderWilson();
+			break;
+		case RecursiveDivision:
+			mb = new MazeBuilderRecursiveDivision();
+			break;
+		case HuntAndKill:
+			mb = new MazeBuilderHuntAndKill();
+			break;
+		case GrowingTree:
+			mb = new MazeBuilderGrowingTree();
+			break;
+		case BinaryTree:
+			mb = new MazeBuilderBinaryTree();
+			break;
+		case Sidewinder:
+			mb = new MazeBuilderSidewinder();
+			break;
+		case Tiled:
+			mb = new MazeBuilderTiled();
+			break;
+		default:
+			mb = new MazeBuilder();
+			break;
+		}
+		mb.buildOrder(new Stuborder(seed, skill, perfect, builder));
+		mb.floorplan.initialize();
+		mb.generateRooms();
+		mb.generatePathways();
+		return mb.floorplan;
+	}
+
+	/**
+	 * Computes distances with both engines and compares the results.
+	 */
+	private void assertSameDistances(Order.Builder builder, int skill, boolean perfect) {
+		Floorplan floorplan = buildFloorplan(builder, skill, perfect);
+		int width = Constants.SKILL_X[skill];
+		int height = Constants.SKILL_Y[skill];
+		Distance bfs = new Distance(width, height);
+		Distance fixpoint = new Distance(width, height);
+		int[] exit = bfs.computeDistances(floorplan);
+		int[] exitFixpoint = fixpoint.computeDistancesByFixpoint(floorplan);
+		String msg = builder + " at skill " + skill;
+		assertArrayEquals(exitFixpoint, exit, msg);
+		int[][] expected = fixpoint.getAllDistanceValues();
+		int[][] actual = bfs.getAllDistanceValues();
+		for (int x = 0; x < width; x++) {
+			assertArrayEquals(expected[x], actual[x], msg);
+		}
+		assertArrayEquals(fixpoint.getStartPosition(), bfs.getStartPosition(), msg);
+		assertEquals(1, bfs.getMinDistance(), msg);
+	}
+
+	@Test
+	void testDFSAllSkillLevels() {
+		for (int skill = 0; skill < Constants.SKILL_X.length; skill++) {
+			assertSameDistances(Order.Builder.DFS, skill, false);
+			assertSameDistances(Order.Builder.DFS, skill, true);
+		}
+	}
+
+	@Test
+	void testPrimAllSkillLevels() {
+		for (int skill = 0; skill < Constants.SKILL_X.length; skill++) {
+			assertSameDistances(Order.Builder.Prim, skill, false);
+			assertSameDistances(Order.Builder.Prim, skill, true);
+		}
+	}
+
+	@Test
+	void testBoruvkaAllSkillLevels() {
+		for (int skill = 0; skill < Constants.SKILL_X.length; skill++) {
+			assertSameDistances(Order.Builder.Boruvka, skill, false);
+			assertSameDistances(Order.Builder.Boruvka, skill, true);
+		}
+	}
+
+	@Test
+	void testKruskalAllSkillLevels() {
+		for (int skill = 0; skill < Constants.SKILL_X.length; skill++) {
+			assertSameDistances(Order.Builder.Kruskal, skill, false);
+			assertSameDistances(Order.Builder.Kruskal, skill, true);
+		}
+	}
+
+	@Test
+	void testEllerAllSkillLevels() {
+		for (int skill = 0; skill < Constants.SKILL_X.length; skill++) {
+			assertSameDistances(Order.Builder.Eller, skill, false);
+		}
+	}
+
+	@Test
+	void testWilsonAllSkillLevels() {
+		for (int skill = 0; skill < Constants.SKILL_X.length; skill++) {
+			assertSameDistances(Order.Builder.Wilson, skill, false);
+			assertSameDistances(Order.Builder.Wilson, skill, true);
+		}
+	}
+
+	@Test
+	void testRecursiveDivisionAllSkillLevels() {
+		for (int skill = 0; skill < Constants.SKILL_X.length; skill++) {
+			assertSameDistances(Order.Builder.RecursiveDivision, skill, false);
+			assertSameDistances(Order.Builder.RecursiveDivision, skill, true);
+		}
+	}
+
+	@Test
+	void testHuntAndKillAllSkillLevels() {
+		for (int skill = 0; skill < Constants.SKILL_X.length; skill++) {
+			assertSameDistances(Order.Builder.HuntAndKill, skill, false);
+			assertSameDistances(Order.Builder.HuntAndKill, skill, true);
+		}
+	}
+
+	@Test
+	void testGrowingTreeAllSkillLevels() {
+		for (int skill = 0; skill < Constants.SKILL_X.length; skill++) {
+			assertSameDistances(Order.Builder.GrowingTree, skill, false);
+			assertSameDistances(Order.Builder.GrowingTree, skill, true);
+		}
+	}
+
+	@Test
+	void testRowBuildersAllSkillLevels() {
+		for (int skill = 0; skill < Constants.SKILL_X.length; skill++) {
+			assertSameDistances(Order.Builder.BinaryTree, skill, false);
+			assertSameDistances(Order.Builder.Sidewinder, skill, false);
+		}
+	}
+
+	@Test
+	void testTiledAllSkillLevels() {
+		for (int skill = 0; skill < Constants.SKILL_X.length; skill++) {
+			assertSameDistances(Order.Builder.Tiled, skill, false);
+			assertSameDistances(Order.Builder.Tiled, skill, true);
+		}
+	}
+
+	/**
+	 * Checks the precomputed directions towards the exit against
+	 * a search for the neighbor with the smallest distance
+	 * in the order North, East, South, West.
+	 */
+	private void assertSameDirectionsToExit(Order.Builder builder, int skill, boolean perfect) {
+		Floorplan floorplan = buildFloorplan(builder, skill, perfect);
+		int width = Constants.SKILL_X[skill];
+		int height = Constants.SKILL_Y[skill];
+		Distance dists = new Distance(width, height);
+		int[] exit = dists.computeDistances(floorplan);
+		floorplan.setExitPosition(exit[0], exit[1]);
+		String msg = builder + " at skill " + skill;
+		assertTrue(dists.hasDirectionsToExit(), msg);
+		for (int x = 0; x < width; x++) {
+			for (int y = 0; y < height; y++) {
+				CardinalDirection expected = null;
+				if (!floorplan.isExitPosition(x, y)) {
+					int min = dists.getDistanceValue(x, y);
+					for (CardinalDirection cd : CardinalDirection.values()) {
+						if (!floorplan.hasWall(x, y, cd) && dists.getDistanceValue(x+cd.getDx(), y+cd.getDy()) < min) {
+							min = dists.getDistanceValue(x+cd.getDx(), y+cd.getDy());
+							expected = cd;
+						}
+					}
+				}
+				assertEquals(expected, dists.getDirectionToExit(x, y), msg + " at " + x + ", " + y);
+			}
+		}
+		// directions can also be derived for distance values that are set directly
+		Distance copy = new Distance(dists.getAllDistanceValues());
+		assertFalse(copy.hasDirectionsToExit());
+		copy.computeDirectionsToExit(floorplan);
+		int[] start = dists.getStartPosition();
+		assertEquals(dists.getDirectionToExit(start[0], start[1]), copy.getDirectionToExit(start[0], start[1]), msg);
+	}
+
+	@Test
+	void testDirectionsToExit() {
+		for (int skill = 0; skill < Constants.SKILL_X.length; skill++) {
+			assertSameDirectionsToExit(Order.Builder.DFS, skill, false);
+			assertSameDirectionsToExit(Order.Builder.Prim, skill, true);
+			assertSameDirectionsToExit(Order.Builder.Boruvka, skill, false);
+		}
+	}
+
+	@Test
+	void testSingleCell() {
+		// corner case: the start and the exit are the same position
+		Floorplan floorplan = new Floorplan(1, 1);
+		floorplan.initialize();
+		Distance dists = new Distance(1, 1);
+		int[] exit = dists.computeDistances(floorplan);
+		assertEquals(0, exit[0]);
+		assertEquals(0, exit[1]);
+		assertEquals(1, dists.getDistanceValue(0, 0));
+	}
+}
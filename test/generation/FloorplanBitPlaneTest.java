@@ -0,0 +1,11 @@
+//package generation;
+
+/**
+ * Runs the Floorplan tests unchanged but with the bit plane representation.
+ */
+public class FloorplanBitPlaneTest extends FloorplanTest {
+
+	public FloorplanBitPlaneTest() {
+		super(Floorplan.Storage.BitPlane);
+	}
+}
@@ -0,0 +1,11 @@
+//package generation;
+
+/**
+ * Runs the Floorplan iterator tests unchanged but with the bit plane representation.
+ */
+public class FloorplanBitPlaneTestIterator extends FloorplanTestIterator {
+
+	public FloorplanBitPlaneTestIterator() {
+		super(Floorplan.Storage.BitPlane);
+	}
+}
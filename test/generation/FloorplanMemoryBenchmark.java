@@ -0,0 +1,87 @@
+//package generation;
+
+import java.lang.ref.Reference;
+
+/**
+ * Compares the heap consumption of the Dense and the Tiled storage
+ * for a generated 5000 x 5000 maze where the player only explores a short path.
+ * For each storage it generates the pathways with the depth first search of {@link MazeBuilder},
+ * computes the distances, then follows the path from the start towards the exit
+ * and records the walls along it as seen in a second floorplan as StatePlaying does.
+ * Reports the heap for the floorplan, the distances and the seen cells separately.
+ * Generation writes every cell of the floorplan and of the distances,
+ * so the Tiled storage only saves memory for the seen cells.
+ * Run with a heap of at least 1GB, e.g. -Xmx2g.
+ * Not a unit test, run its main method.
+ */
+public class FloorplanMemoryBenchmark {
+
+	static final int SIZE = 5000;
+	static final int PATH = 1000; // length of the explored path
+
+	public static void main(String[] args) {
+		for (Floorplan.Storage storage : new Floorplan.Storage[] {Floorplan.Storage.Dense, Floorplan.Storage.Tiled}) {
+			run(storage);
+		}
+	}
+
+	private static void run(Floorplan.Storage storage) {
+		final MazeBuilder mb = new MazeBuilder();
+		final Stuborder order = new Stuborder(13, 0, true, Order.Builder.DFS);
+		order.setStorage(storage);
+		final long before = usedMemory();
+		mb.buildOrder(order, SIZE, SIZE);
+		// the distances of the builder are replaced by a new object to measure them on their own
+		mb.dists = null;
+		mb.floorplan.initialize();
+		mb.generatePathways();
+		final Floorplan maze = mb.floorplan;
+		mb.floorplan = null;
+		final long afterFloorplan = usedMemory();
+		final Distance dists = new Distance(SIZE, SIZE, storage);
+		dists.computeDistances(maze);
+		final long afterDistances = usedMemory();
+		final Floorplan seenCells = new Floorplan(SIZE+1, SIZE+1, storage);
+		explore(maze, dists, seenCells);
+		final long afterSeen = usedMemory();
+		System.out.printf("%-6s %dx%d, path of %d cells: floorplan %7.1f MB, distances %7.1f MB, seen cells %7.1f MB%n",
+				storage, SIZE, SIZE, PATH, mb(afterFloorplan - before), mb(afterDistances - afterFloorplan), mb(afterSeen - afterDistances));
+		Reference.reachabilityFence(maze);
+		Reference.reachabilityFence(dists);
+		Reference.reachabilityFence(seenCells);
+	}
+
+	/**
+	 * Follows the path from the start towards the exit for PATH cells
+	 * and records the walls around each cell as seen.
+	 */
+	private static void explore(Floorplan maze, Distance dists, Floorplan seenCells) {
+		int[] pos = dists.getStartPosition();
+		int x = pos[0];
+		int y = pos[1];
+		for (int step = 0; step < PATH && !dists.isExitPosition(x, y); step++) {
+			CardinalDirection next = null;
+			for (CardinalDirection cd : CardinalDirection.values()) {
+				if (maze.hasWall(x, y, cd)) {
+					seenCells.addWallboard(new Wallboard(x, y, cd), false);
+				}
+				else if (dists.getDistanceValue(x + cd.getDx(), y + cd.getDy()) < dists.getDistanceValue(x, y)) {
+					next = cd;
+				}
+			}
+			x += next.getDx();
+			y += next.getDy();
+		}
+	}
+
+	private static double mb(long bytes) {
+		return bytes / (1024.0*1024.0);
+	}
+
+	private static long usedMemory() {
+		Runtime rt = Runtime.getRuntime();
+		for (int i = 0; i < 3; i++)
+			System.gc();
+		return rt.totalMemory() - rt.freeMemory();
+	}
+}
@@ -0,0 +1,168 @@
+//package generation;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.BitSet;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that all representations of a Floorplan behave the same,
+ * in particular the bulk operations of the bit plane representation
+ * that work on 64 cells at a time.
+ */
+class FloorplanStorageTest {
+
+	private int width = 100; // not a multiple of 64 such that rows cross word boundaries
+	private int height = 70;
+
+	/**
+	 * Builds a maze for the given builder, skill level and representation
+	 * up to the point where the exit is set.
+	 */
+	private MazeBuilder build(Order.Builder builder, int skill, Floorplan.Storage storage) {
+		MazeBuilder mb = (builder == Order.Builder.Prim) ? new MazeBuilderPrim() : new MazeBuilder();
+		Stuborder order = new Stuborder(13, skill, false, builder);
+		order.setStorage(storage);
+		mb.buildOrder(order);
+		mb.floorplan.initialize();
+		mb.generateRooms();
+		mb.generate();
+		return mb;
+	}
+
+	@Test
+	void testSameMazeForAllStorages() {
+		for (Order.Builder builder : new Order.Builder[] {Order.Builder.DFS, Order.Builder.Prim}) {
+			for (int skill = 0; skill <= 9; skill++) {
+				MazeBuilder dense = build(builder, skill, Floorplan.Storage.Dense);
+				for (Floorplan.Storage storage : new Floorplan.Storage[] {Floorplan.Storage.BitPlane, Floorplan.Storage.Mapped, Floorplan.Storage.Tiled}) {
+					MazeBuilder other = build(builder, skill, storage);
+					assertEquals(storage, other.floorplan.getStorage());
+					assertTrue(dense.floorplan.diff(other.floorplan).isEmpty(), builder + " at skill " + skill);
+					assertTrue(other.floorplan.diff(dense.floorplan).isEmpty(), builder + " at skill " + skill);
+					assertArrayEquals(dense.dists.getExitPosition(), other.dists.getExitPosition());
+					assertArrayEquals(dense.dists.getStartPosition(), other.dists.getStartPosition());
+				}
+			}
+		}
+	}
+
+	@Test
+	void testAreaOperations() {
+		Floorplan dense = new Floorplan(width, height, Floorplan.Storage.Dense);
+		Floorplan bitplane = new Floorplan(width, height, Floorplan.Storage.BitPlane);
+		Floorplan tiled = new Floorplan(width, height, Floorplan.Storage.Tiled);
+		dense.initialize();
+		bitplane.initialize();
+		tiled.initialize();
+		assertTrue(dense.diff(bitplane).isEmpty());
+		assertTrue(dense.diff(tiled).isEmpty());
+		// areas that start and end inside a word, span words, and cover full rows
+		int[][] areas = { {3, 2, 10, 5}, {60, 10, 70, 12}, {0, 20, width-1, 40}, {1, 50, 98, 50} };
+		for (int[] a : areas) {
+			dense.setBitsInArea(a[0], a[1], a[2], a[3], Floorplan.CW_IN_ROOM);
+			bitplane.setBitsInArea(a[0], a[1], a[2], a[3], Floorplan.CW_IN_ROOM);
+			dense.clearBitsInArea(a[0], a[1], a[2], a[3], Floorplan.CW_TOP | Floorplan.CW_LEFT);
+			bitplane.clearBitsInArea(a[0], a[1], a[2], a[3], Floorplan.CW_TOP | Floorplan.CW_LEFT);
+			tiled.setBitsInArea(a[0], a[1], a[2], a[3], Floorplan.CW_IN_ROOM);
+			tiled.clearBitsInArea(a[0], a[1], a[2], a[3], Floorplan.CW_TOP | Floorplan.CW_LEFT);
+		}
+		assertTrue(dense.diff(bitplane).isEmpty());
+		assertTrue(dense.diff(tiled).isEmpty());
+		assertEquals(dense.countCells(Floorplan.CW_IN_ROOM), tiled.countCells(Floorplan.CW_IN_ROOM));
+		assertEquals(dense.countCells(Floorplan.CW_IN_ROOM), bitplane.countCells(Floorplan.CW_IN_ROOM));
+		assertEquals(8*4 + 11*3 + width*21 + 98, bitplane.countCells(Floorplan.CW_IN_ROOM));
+		assertEquals(width*height, bitplane.countCells(Floorplan.CW_VISITED));
+		for (int x = 0; x < width; x++) {
+			for (int y = 0; y < height; y++) {
+				assertEquals(dense.getValueOfCell(x, y), bitplane.getValueOfCell(x, y));
+			}
+		}
+		assertTrue(bitplane.hasBitsInArea(10, 5, 20, 9, Floorplan.CW_IN_ROOM));
+		assertFalse(bitplane.hasBitsInArea(11, 0, 59, 9, Floorplan.CW_IN_ROOM));
+		assertFalse(bitplane.hasBitsInArea(71, 10, 99, 19, Floorplan.CW_IN_ROOM));
+		assertTrue(bitplane.hasBitsInArea(99, 40, 99, 45, Floorplan.CW_IN_ROOM));
+	}
+
+	@Test
+	void testMappedStorage() {
+		// a mapped storage spans several segments for this size
+		int w = 9000;
+		int h = 8000;
+		Floorplan mapped = new Floorplan(w, h, Floorplan.Storage.Mapped);
+		assertEquals(Floorplan.Storage.Mapped, mapped.getStorage());
+		mapped.initialize();
+		assertEquals(w*h, mapped.countCells(Floorplan.CW_VISITED));
+		mapped.setCellAsVisited(w-1, h-1);
+		mapped.setInRoomToOne(w/2, h/2);
+		assertEquals(w*h-1, mapped.countCells(Floorplan.CW_VISITED));
+		assertTrue(mapped.isInRoom(w/2, h/2));
+		// copies are independent
+		Floorplan copy = new Floorplan(mapped);
+		assertTrue(copy.equals(mapped));
+		copy.setCellAsVisited(0, 0);
+		assertFalse(copy.equals(mapped));
+		// distances in a mapped storage
+		Distance dists = new Distance(3, 2, Floorplan.Storage.Mapped);
+		int[][] values = { {1, 2}, {3, 4}, {5, 6} };
+		dists.setAllDistanceValues(values);
+		assertEquals(6, dists.getDistanceValue(2, 1));
+		assertArrayEquals(values[1], dists.getAllDistanceValues()[1]);
+	}
+
+	@Test
+	void testTiledStorageAllocatesOnChange() {
+		TiledCellStorage tiled = new TiledCellStorage(1000, 700);
+		// area operations that cover whole tiles do not allocate, including cut off tiles on the right and bottom
+		tiled.setBitsInArea(0, 0, 999, 699, Floorplan.CW_ALL | Floorplan.CW_VISITED);
+		assertEquals(0, tiled.getAllocatedTiles());
+		assertEquals(1000*700, tiled.countCells(Floorplan.CW_VISITED));
+		// setting bits that are already set does not allocate
+		tiled.setBits(500*1000+500, Floorplan.CW_TOP);
+		assertEquals(0, tiled.getAllocatedTiles());
+		// a change allocates a single tile that keeps the values of all other cells
+		tiled.clearBits(500*1000+500, Floorplan.CW_TOP);
+		assertEquals(1, tiled.getAllocatedTiles());
+		assertEquals(Floorplan.CW_ALL & ~Floorplan.CW_TOP | Floorplan.CW_VISITED, tiled.get(500*1000+500));
+		assertEquals(Floorplan.CW_ALL | Floorplan.CW_VISITED, tiled.get(500*1000+501));
+		assertFalse(tiled.hasBitsInArea(500, 500, 500, 500, Floorplan.CW_TOP));
+		assertTrue(tiled.hasBitsInArea(0, 0, 999, 699, Floorplan.CW_TOP));
+		assertEquals(1000*700-1, tiled.countCells(Floorplan.CW_TOP));
+		// a partial area allocates the tiles it touches
+		tiled.clearBitsInArea(0, 0, 99, 0, Floorplan.CW_VISITED);
+		assertEquals(3, tiled.getAllocatedTiles());
+		assertEquals(1000*700-100, tiled.countCells(Floorplan.CW_VISITED));
+		// copies are independent
+		CellStorage copy = tiled.copy();
+		copy.set(0, 0);
+		assertEquals(Floorplan.CW_ALL, tiled.get(0));
+		// filling the grid releases all tiles
+		tiled.fill(Integer.MAX_VALUE);
+		assertEquals(0, tiled.getAllocatedTiles());
+		assertEquals(Integer.MAX_VALUE, tiled.get(500*1000+500));
+	}
+
+	@Test
+	void testDiff() {
+		Floorplan a = new Floorplan(width, height, Floorplan.Storage.BitPlane);
+		Floorplan b = new Floorplan(width, height, Floorplan.Storage.BitPlane);
+		a.initialize();
+		b.initialize();
+		assertTrue(a.diff(b).isEmpty());
+		assertTrue(a.equals(b));
+		b.setCellAsVisited(63, 0);
+		b.setCellAsVisited(64, 0);
+		b.setInRoomToOne(width-1, height-1);
+		BitSet expected = new BitSet();
+		expected.set(63);
+		expected.set(64);
+		expected.set(width*height-1);
+		assertEquals(expected, a.diff(b));
+		assertFalse(a.equals(b));
+		// copies keep representation and content
+		Floorplan c = new Floorplan(b);
+		assertEquals(Floorplan.Storage.BitPlane, c.getStorage());
+		assertTrue(c.equals(b));
+	}
+}
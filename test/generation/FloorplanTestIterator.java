@@ -7,6 +7,20 @@ import java.util.Iterator;
 import org.junit.Test;
 
 public class FloorplanTestIterator {
+
+    private final Floorplan.Storage storage; // representation of all floorplans in the tests
+
+    public FloorplanTestIterator() {
+        this(Floorplan.Storage.Dense);
+    }
+
+    /**
+     * Runs the tests with the given representation, for subclasses that cover other representations.
+     * @param storage the representation of all floorplans in the tests
+     */
+    protected FloorplanTestIterator(Floorplan.Storage storage) {
+        this.storage = storage;
+    }
    
     /**
      * Test case: See if iterator works on floorplan with no wallboards
@@ -22,7 +36,7 @@ public class FloorplanTestIterator {
         // create a floorplan object we can test the iterator on
         int width = 4;
         int height = 5;
-        Floorplan floorplan = new Floorplan(width,height);
+        Floorplan floorplan = new Floorplan(width,height, storage);
         // check vertical wallboard, y coordinate changes, x stays
         for (int x = 0; x < width; x++) {
             for (int y = 0; y < height; y++) {
@@ -50,7 +64,7 @@ public class FloorplanTestIterator {
         // create a floorplan object we can test the iterator on
         int width = 4;
         int height = 5;
-        Floorplan floorplan = new Floorplan(width,height);
+        Floorplan floorplan = new Floorplan(width,height, storage);
         floorplan.initialize();
         // check vertical wallboard, y coordinate changes, x stays
         CardinalDirection cdBlocked;
@@ -166,7 +180,7 @@ public class FloorplanTestIterator {
         // height must == (seqLength+gapLength)* (#gaps) + seqLength
         final int height = (seqLength+gapLength)*total + seqLength;
         final int width = 4;
-        final Floorplan floorplan = new Floorplan(width,height);
+        final Floorplan floorplan = new Floorplan(width,height, storage);
         floorplan.initialize();
         // to start with a sequence of wallboards and end with a sequence of wallboards
         punchHolesEast(floorplan,width,height,seqLength,gapLength);
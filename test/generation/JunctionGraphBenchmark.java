@@ -0,0 +1,81 @@
+//package generation;
+
+/**
+ * Compares the junction graph of a maze with the full grid of cells
+ * for each builder: number of nodes and edges versus cells and openings,
+ * the time to build the graph and the time to compute a full distance field
+ * with a breadth first search on the grid versus Dijkstra's algorithm on the graph,
+ * the time of Dijkstra's algorithm alone and of a search from start to exit.
+ * Not a unit test, run its main method, optionally with a skill level as argument.
+ */
+public class JunctionGraphBenchmark {
+
+	static final int ROUNDS = 200;
+
+	public static void main(String[] args) {
+		final int skill = (args.length > 0) ? Integer.parseInt(args[0]) : 9;
+		for (Order.Builder builder : new Order.Builder[] {Order.Builder.DFS, Order.Builder.Prim, Order.Builder.Boruvka}) {
+			for (boolean perfect : new boolean[] {true, false}) {
+				MazeBuilder mb = createBuilder(builder);
+				mb.buildOrder(new Stuborder(13, skill, perfect, builder));
+				mb.floorplan.initialize();
+				mb.generateRooms();
+				mb.generate();
+				run(mb, builder, perfect); // warm up
+				run(mb, builder, perfect);
+			}
+		}
+	}
+
+	private static MazeBuilder createBuilder(Order.Builder builder) {
+		switch (builder) {
+		case Prim:
+			return new MazeBuilderPrim();
+		case Boruvka:
+			return new MazeBuilderBoruvka();
+		default:
+			return new MazeBuilder();
+		}
+	}
+
+	private static void run(MazeBuilder mb, Order.Builder builder, boolean perfect) {
+		final int[] exit = mb.dists.getExitPosition();
+		long start = System.nanoTime();
+		JunctionGraph graph = new JunctionGraph(mb.floorplan, mb.width, mb.height, mb.dists.getStartPosition(), exit);
+		final long build = System.nanoTime() - start;
+
+		Distance field = new Distance(mb.width, mb.height);
+		start = System.nanoTime();
+		for (int i = 0; i < ROUNDS; i++)
+			field.computeDistancesTo(mb.floorplan, exit[0], exit[1]);
+		final long grid = (System.nanoTime() - start) / ROUNDS;
+		start = System.nanoTime();
+		for (int i = 0; i < ROUNDS; i++)
+			field.computeDistancesTo(graph, exit[0], exit[1]);
+		final long contracted = (System.nanoTime() - start) / ROUNDS;
+		start = System.nanoTime();
+		for (int i = 0; i < ROUNDS; i++)
+			graph.computeNodeDistances(exit[0], exit[1]);
+		final long search = (System.nanoTime() - start) / ROUNDS;
+		start = System.nanoTime();
+		int sum = 0;
+		for (int i = 0; i < ROUNDS; i++)
+			sum += graph.getDistance(mb.dists.getStartPosition()[0], mb.dists.getStartPosition()[1], exit[0], exit[1]);
+		final long query = (System.nanoTime() - start) / ROUNDS;
+
+		int openings = 0;
+		for (int x = 0; x < mb.width; x++) {
+			for (int y = 0; y < mb.height; y++) {
+				if (x < mb.width-1 && mb.floorplan.hasNoWall(x, y, CardinalDirection.East))
+					openings++;
+				if (y < mb.height-1 && mb.floorplan.hasNoWall(x, y, CardinalDirection.South))
+					openings++;
+			}
+		}
+		System.out.printf("%-7s %-7s %dx%d: %6d cells %6d openings -> %6d nodes %6d edges, build %6.2f ms, "
+				+ "field grid %6.3f ms graph %6.3f ms, nodes only %6.3f ms, start to exit %6.3f ms (%d)%n",
+				builder, perfect ? "perfect" : "rooms", mb.width, mb.height, mb.width*mb.height, openings,
+				graph.getNumberOfNodes(), graph.getNumberOfEdges(), build / 1e6, grid / 1e6, contracted / 1e6,
+				search / 1e6, query / 1e6, sum / ROUNDS);
+	}
+}
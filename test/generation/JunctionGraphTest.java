@@ -0,0 +1,192 @@
+//package generation;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the junction graph: its structure against the floorplan
+ * it was built from and its distances and paths against the breadth first
+ * search of the Distance class on the grid.
+ */
+class JunctionGraphTest {
+
+	private MazeBuilder build(Order.Builder builder, int skill, boolean perfect) {
+		MazeBuilder mb = (builder == Order.Builder.Prim) ? new MazeBuilderPrim() : new MazeBuilder();
+		mb.buildOrder(new Stuborder(13, skill, perfect, builder));
+		mb.floorplan.initialize();
+		mb.generateRooms();
+		mb.generate();
+		return mb;
+	}
+
+	private JunctionGraph graphOf(MazeBuilder mb) {
+		return new JunctionGraph(mb.floorplan, mb.width, mb.height, mb.dists.getStartPosition(), mb.dists.getExitPosition());
+	}
+
+	/**
+	 * Checks that nodes and corridors cover every cell exactly once,
+	 * that corridors are sequences of adjacent cells without wallboards
+	 * and that their weights add up to the number of openings.
+	 */
+	private void assertStructure(Floorplan floorplan, int width, int height, JunctionGraph graph) {
+		int[] covered = new int[width*height];
+		for (int v = 0; v < graph.getNumberOfNodes(); v++) {
+			int[] p = graph.getNodePosition(v);
+			assertEquals(v, graph.getNode(p[0], p[1]));
+			covered[p[1]*width + p[0]]++;
+		}
+		long weights = 0;
+		int degrees = 0;
+		for (int e = 0; e < graph.getNumberOfEdges(); e++) {
+			int[] ends = graph.getCorridorNodes(e);
+			int[][] cells = graph.getCorridorCells(e);
+			assertEquals(cells.length + 1, graph.getCorridorWeight(e));
+			weights += graph.getCorridorWeight(e);
+			int[] previous = graph.getNodePosition(ends[0]);
+			for (int i = 0; i <= cells.length; i++) {
+				int[] next = (i < cells.length) ? cells[i] : graph.getNodePosition(ends[1]);
+				if (i < cells.length) {
+					assertEquals(-1, graph.getNode(next[0], next[1]));
+					covered[next[1]*width + next[0]]++;
+				}
+				assertEquals(1, Math.abs(next[0]-previous[0]) + Math.abs(next[1]-previous[1]));
+				CardinalDirection cd = CardinalDirection.getDirection(next[0]-previous[0], next[1]-previous[1]);
+				assertTrue(floorplan.hasNoWall(previous[0], previous[1], cd));
+				previous = next;
+			}
+		}
+		for (int v = 0; v < graph.getNumberOfNodes(); v++) {
+			degrees += graph.getDegree(v);
+			for (int i = 0; i < graph.getDegree(v); i++) {
+				int[] ends = graph.getCorridorNodes(graph.getCorridor(v, i));
+				assertTrue(ends[0] == v || ends[1] == v);
+				assertEquals(ends[0] == v ? ends[1] : ends[0], graph.getNeighbor(v, i));
+			}
+		}
+		assertEquals(2*graph.getNumberOfEdges(), degrees);
+		for (int c : covered)
+			assertEquals(1, c);
+		long openings = 0;
+		for (int x = 0; x < width; x++) {
+			for (int y = 0; y < height; y++) {
+				if (x < width-1 && floorplan.hasNoWall(x, y, CardinalDirection.East))
+					openings++;
+				if (y < height-1 && floorplan.hasNoWall(x, y, CardinalDirection.South))
+					openings++;
+			}
+		}
+		assertEquals(openings, weights);
+	}
+
+	/**
+	 * Checks that a path takes one step without a wallboard at a time
+	 * from the origin to the target and is as long as the distance.
+	 */
+	private void assertPath(Floorplan floorplan, int x, int y, int tx, int ty, int distance, int[][] path) {
+		assertEquals(distance, path.length);
+		int[] previous = {x, y};
+		for (int[] next : path) {
+			assertEquals(1, Math.abs(next[0]-previous[0]) + Math.abs(next[1]-previous[1]));
+			CardinalDirection cd = CardinalDirection.getDirection(next[0]-previous[0], next[1]-previous[1]);
+			assertTrue(floorplan.hasNoWall(previous[0], previous[1], cd));
+			previous = next;
+		}
+		assertArrayEquals(new int[] {tx, ty}, previous);
+	}
+
+	/**
+	 * Compares distance fields, point to point distances and paths with the grid.
+	 */
+	private void assertDistances(Floorplan floorplan, int width, int height, JunctionGraph graph) {
+		Random random = new Random(5);
+		Distance grid = new Distance(width, height);
+		Distance contracted = new Distance(width, height);
+		for (int n = 0; n < 10; n++) {
+			int tx = random.nextInt(width);
+			int ty = random.nextInt(height);
+			grid.computeDistancesTo(floorplan, tx, ty);
+			contracted.computeDistancesTo(graph, tx, ty);
+			assertArrayEquals(grid.getExitPosition(), contracted.getExitPosition());
+			for (int x = 0; x < width; x++) {
+				for (int y = 0; y < height; y++) {
+					assertEquals(grid.getDistanceValue(x, y), contracted.getDistanceValue(x, y));
+					assertEquals(grid.getDirectionToExit(x, y), contracted.getDirectionToExit(x, y));
+					if ((x + y) % 7 == n % 7) {
+						assertEquals(grid.getDistanceValue(x, y) - 1, graph.getDistance(x, y, tx, ty));
+						assertPath(floorplan, x, y, tx, ty, grid.getDistanceValue(x, y) - 1, graph.getPath(x, y, tx, ty));
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	void testPerfectMaze() {
+		MazeBuilder mb = build(Order.Builder.DFS, 5, true);
+		JunctionGraph graph = graphOf(mb);
+		// a tree contracts to a tree
+		assertEquals(graph.getNumberOfNodes() - 1, graph.getNumberOfEdges());
+		assertTrue(graph.getNumberOfNodes() < mb.width*mb.height/2);
+		int[] start = mb.dists.getStartPosition();
+		int[] exit = mb.dists.getExitPosition();
+		assertTrue(graph.getNode(start[0], start[1]) >= 0);
+		assertTrue(graph.getNode(exit[0], exit[1]) >= 0);
+		assertEquals(mb.dists.getDistanceValue(start[0], start[1]) - 1, graph.getDistance(start[0], start[1], exit[0], exit[1]));
+		assertStructure(mb.floorplan, mb.width, mb.height, graph);
+		assertDistances(mb.floorplan, mb.width, mb.height, graph);
+	}
+
+	@Test
+	void testMazeWithRooms() {
+		for (Order.Builder builder : new Order.Builder[] {Order.Builder.DFS, Order.Builder.Prim}) {
+			MazeBuilder mb = build(builder, 5, false);
+			JunctionGraph graph = graphOf(mb);
+			for (int x = 0; x < mb.width; x++) {
+				for (int y = 0; y < mb.height; y++) {
+					if (mb.floorplan.isInRoom(x, y))
+						assertTrue(graph.getNode(x, y) >= 0);
+				}
+			}
+			assertStructure(mb.floorplan, mb.width, mb.height, graph);
+			assertDistances(mb.floorplan, mb.width, mb.height, graph);
+		}
+	}
+
+	@Test
+	void testRingWithoutJunction() {
+		// a corridor around the center cell of a 3x3 maze has no dead end or junction
+		Floorplan floorplan = new Floorplan(3, 3);
+		floorplan.initialize();
+		int[][] ring = { {0,0}, {1,0}, {2,0}, {2,1}, {2,2}, {1,2}, {0,2}, {0,1} };
+		for (int i = 0; i < ring.length; i++) {
+			int[] a = ring[i];
+			int[] b = ring[(i+1) % ring.length];
+			floorplan.deleteWallboard(new Wallboard(a[0], a[1], CardinalDirection.getDirection(b[0]-a[0], b[1]-a[1])));
+		}
+		// the center cell is isolated and a node of its own
+		Floorplan connected = new Floorplan(floorplan);
+		JunctionGraph graph = new JunctionGraph(floorplan, 3, 3);
+		assertEquals(2, graph.getNumberOfNodes());
+		assertEquals(1, graph.getNumberOfEdges());
+		int[] ends = graph.getCorridorNodes(0);
+		assertEquals(ends[0], ends[1]);
+		assertEquals(8, graph.getCorridorWeight(0));
+		assertEquals(2, graph.getDegree(ends[0]));
+		assertEquals(4, graph.getDistance(0, 0, 2, 2));
+		assertEquals(3, graph.getDistance(1, 0, 0, 2));
+		assertEquals(Integer.MAX_VALUE, graph.getDistance(1, 1, 0, 0));
+		assertStructure(floorplan, 3, 3, graph);
+		// connect the center to the ring
+		connected.deleteWallboard(new Wallboard(1, 1, CardinalDirection.North));
+		graph = new JunctionGraph(connected, 3, 3);
+		// the center is a dead end and its neighbor a junction with a corridor back to itself
+		assertEquals(2, graph.getNumberOfNodes());
+		assertEquals(2, graph.getNumberOfEdges());
+		assertEquals(3, graph.getDegree(graph.getNode(1, 0)));
+		assertStructure(connected, 3, 3, graph);
+		assertDistances(connected, 3, 3, graph);
+	}
+}
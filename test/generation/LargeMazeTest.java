@@ -0,0 +1,82 @@
+//package generation;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the generation of a maze whose floorplan and distances
+ * do not fit on the heap. A 10000 x 10000 maze needs 400MB for
+ * the floorplan alone, it is generated with a Mapped storage
+ * in a separate virtual machine with a heap of only 64MB.
+ */
+class LargeMazeTest {
+
+	private static final String HEAP = "-Xmx64m";
+	private static final int SIZE = 10000;
+
+	@Test
+	void testMazeLargerThanHeap() throws IOException, InterruptedException, URISyntaxException {
+		String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+		// test runners may load classes from locations that are not on the class path property
+		String classpath = System.getProperty("java.class.path") 
+				+ File.pathSeparator + location(LargeMazeTest.class) 
+				+ File.pathSeparator + location(MazeBuilder.class);
+		ProcessBuilder pb = new ProcessBuilder(java, HEAP, "-ea",
+				"-cp", classpath,
+				LargeMazeTest.class.getName(), Integer.toString(SIZE), Integer.toString(SIZE));
+		pb.redirectErrorStream(true);
+		Process process = pb.start();
+		String output = new String(process.getInputStream().readAllBytes());
+		assertTrue(process.waitFor(10, TimeUnit.MINUTES), output);
+		assertEquals(0, process.exitValue(), output);
+		assertTrue(output.contains("OK"), output);
+	}
+
+	private static String location(Class<?> c) throws URISyntaxException {
+		return Paths.get(c.getProtectionDomain().getCodeSource().getLocation().toURI()).toString();
+	}
+
+	/**
+	 * Generates a perfect maze of the given dimensions with a Mapped storage,
+	 * computes its distances and walls and checks the result.
+	 * Runs in the separate virtual machine, exits with a non-zero
+	 * status if a check fails.
+	 * @param args width and height of the maze
+	 */
+	public static void main(String[] args) {
+		int width = Integer.parseInt(args[0]);
+		int height = Integer.parseInt(args[1]);
+		Stuborder order = new Stuborder(13, 0, true, Order.Builder.DFS);
+		order.setStorage(Floorplan.Storage.Mapped);
+		MazeBuilder mb = new MazeBuilder();
+		mb.buildOrder(order, width, height);
+		mb.floorplan.initialize();
+		mb.generate();
+		// each cell must be reachable, the exit is the only cell with distance 1
+		int[] exit = mb.dists.getExitPosition();
+		check(mb.floorplan.isExitPosition(exit[0], exit[1]), "exit is not marked in the floorplan");
+		check(1 == mb.dists.getMinDistance(), "minimum distance is not 1");
+		check(mb.dists.getMaxDistance() > Math.max(width, height), "maximum distance is too small");
+		check(0 == mb.floorplan.countCells(Floorplan.CW_VISITED), "not all cells are visited");
+		// walls are streamed, a list of them would not fit on the heap either
+		long[] walls = new long[1];
+		new ListOfWallsBuilder(width, height, mb.floorplan, mb.dists, 0).generateWalls(w -> walls[0]++);
+		check(walls[0] > 2*(width+height), "too few walls");
+		System.out.println("OK " + width + " x " + height + ", walls: " + walls[0]
+				+ ", max distance: " + mb.dists.getMaxDistance());
+	}
+
+	private static void check(boolean condition, String message) {
+		if (!condition) {
+			System.out.println("FAILED: " + message);
+			System.exit(1);
+		}
+	}
+}
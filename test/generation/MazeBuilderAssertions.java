@@ -0,0 +1,107 @@
+//package generation;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Fixture and assertions that the tests of the maze builders share.
+ * A builder test builds a maze with {@link #build(MazeBuilder, Order)},
+ * checks the properties that all builders have with the assertions here
+ * and adds the checks that are specific to its builder.
+ */
+final class MazeBuilderAssertions {
+
+	private MazeBuilderAssertions() {
+	}
+
+	/**
+	 * Builds the floorplan of a maze for the order with the given builder:
+	 * rooms as far as the order asks for them, then pathways.
+	 * @param mb the builder
+	 * @param order the order with seed, skill level and builder
+	 * @return the builder with its floorplan
+	 */
+	static <T extends MazeBuilder> T build(T mb, Order order) {
+		mb.buildOrder(order);
+		return generate(mb);
+	}
+
+	/**
+	 * Builds the floorplan of a maze of the given size for the order with the given builder.
+	 * @param mb the builder
+	 * @param order the order with seed, skill level and builder
+	 * @param width the width of the maze
+	 * @param height the height of the maze
+	 * @return the builder with its floorplan
+	 */
+	static <T extends MazeBuilder> T build(T mb, Order order, int width, int height) {
+		mb.buildOrder(order, width, height);
+		return generate(mb);
+	}
+
+	private static <T extends MazeBuilder> T generate(T mb) {
+		mb.floorplan.initialize();
+		mb.generateRooms();
+		mb.generatePathways();
+		return mb;
+	}
+
+	/**
+	 * Asserts that the pathways of a maze without rooms form a spanning tree of all cells:
+	 * all cells are reached and a tree has one edge less than nodes.
+	 * @param mb the builder with its floorplan
+	 * @param msg describes the maze for failures
+	 */
+	static void assertSpanningTree(MazeBuilder mb, String msg) {
+		int openings = 0;
+		for (int x = 0; x < mb.width; x++) {
+			for (int y = 0; y < mb.height; y++) {
+				if (x < mb.width-1 && mb.floorplan.hasNoWall(x, y, CardinalDirection.East))
+					openings++;
+				if (y < mb.height-1 && mb.floorplan.hasNoWall(x, y, CardinalDirection.South))
+					openings++;
+			}
+		}
+		assertEquals(mb.width*mb.height - 1, openings, msg);
+		assertAllReached(mb, msg);
+	}
+
+	/**
+	 * Asserts that all cells of a maze, possibly with rooms, can be reached from the exit.
+	 * @param mb the builder with its floorplan
+	 * @param msg describes the maze for failures
+	 */
+	static void assertAllReached(MazeBuilder mb, String msg) {
+		Distance dists = new Distance(mb.width, mb.height);
+		dists.computeDistances(mb.floorplan);
+		for (int x = 0; x < mb.width; x++) {
+			for (int y = 0; y < mb.height; y++) {
+				assertNotEquals(Distance.INFINITY, dists.getDistanceValue(x, y), msg + ", cell not reached " + x + "," + y);
+			}
+		}
+	}
+
+	/**
+	 * Asserts that a maze has no rooms, for builders that ignore rooms of the order.
+	 * @param mb the builder with its floorplan
+	 * @param msg describes the maze for failures
+	 */
+	static void assertNoRooms(MazeBuilder mb, String msg) {
+		for (int x = 0; x < mb.width; x++) {
+			for (int y = 0; y < mb.height; y++) {
+				assertFalse(mb.floorplan.isInRoom(x, y), msg + ", cell in room " + x + "," + y);
+			}
+		}
+	}
+
+	/**
+	 * Asserts that two builders produced the same floorplan.
+	 * @param expected the builder with the expected floorplan
+	 * @param actual the builder to check
+	 * @param msg describes the maze for failures
+	 */
+	static void assertSameFloorplan(MazeBuilder expected, MazeBuilder actual, String msg) {
+		for (int i = 0; i < expected.width*expected.height; i++) {
+			assertEquals(expected.floorplan.getValueOfCell(i), actual.floorplan.getValueOfCell(i), msg + ", cell " + i);
+		}
+	}
+}
@@ -0,0 +1,120 @@
+//package generation;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import gui.Constants;
+
+/**
+ * Compares the throughput of the maze builders at each skill level.
+ * Reports the fastest time to generate pathways for a maze with rooms
+ * and the resulting number of cells per microsecond for each builder.
+ * For the builders that generate one row at a time, it also reports the number
+ * of cells per second for a 10000x1000 maze that is streamed in the binary format
+ * of {@link RowSink#binaryWriter(OutputStream, int)} without a floorplan.
+ * Not a unit test, run its main method.
+ */
+public class MazeBuilderBenchmark {
+
+	static final int ROUNDS = 5;
+	static final Order.Builder[] BUILDERS = {Order.Builder.DFS, Order.Builder.Prim, Order.Builder.Boruvka, Order.Builder.Kruskal, Order.Builder.Eller, Order.Builder.Wilson, Order.Builder.RecursiveDivision, Order.Builder.HuntAndKill, Order.Builder.GrowingTree, Order.Builder.BinaryTree, Order.Builder.Sidewinder, Order.Builder.Tiled};
+	static final int STREAM_WIDTH = 10000;
+	static final int STREAM_HEIGHT = 1000;
+
+	public static void main(String[] args) throws IOException {
+		// builders print a message when created, so create them before the table
+		final MazeBuilder[] builders = new MazeBuilder[BUILDERS.length];
+		for (int i = 0; i < BUILDERS.length; i++)
+			builders[i] = createBuilder(BUILDERS[i]);
+		final MazeBuilderEller eller = new MazeBuilderEller();
+		final MazeBuilderBinaryTree binaryTree = new MazeBuilderBinaryTree();
+		final MazeBuilderSidewinder sidewinder = new MazeBuilderSidewinder();
+		System.out.print("skill    size  ");
+		for (Order.Builder builder : BUILDERS)
+			System.out.printf("%18s ms cells/us", builder);
+		System.out.println();
+		for (int skill = 0; skill < Constants.SKILL_X.length; skill++) {
+			// the random number generator prints a warning with each order, so measure first
+			final double[] ms = new double[BUILDERS.length];
+			for (int i = 0; i < BUILDERS.length; i++)
+				ms[i] = time(builders[i], BUILDERS[i], skill);
+			final int cells = Constants.SKILL_X[skill]*Constants.SKILL_Y[skill];
+			System.out.printf("%5d %4dx%-4d", skill, Constants.SKILL_X[skill], Constants.SKILL_Y[skill]);
+			for (int i = 0; i < BUILDERS.length; i++)
+				System.out.printf("%21.2f %8.1f", ms[i], cells / (ms[i] * 1000));
+			System.out.println();
+		}
+		final double[] ms = {
+				timeStreaming(sink -> eller.generateRows(13, STREAM_WIDTH, STREAM_HEIGHT, sink)),
+				timeStreaming(sink -> binaryTree.generateRows(13, STREAM_WIDTH, STREAM_HEIGHT, sink)),
+				timeStreaming(sink -> sidewinder.generateRows(13, STREAM_WIDTH, STREAM_HEIGHT, sink))};
+		final double cells = (double) STREAM_WIDTH*STREAM_HEIGHT;
+		System.out.printf("streaming %dx%d: Eller %.1f, BinaryTree %.1f, Sidewinder %.1f million cells/s%n", STREAM_WIDTH, STREAM_HEIGHT,
+				cells / ms[0] / 1e3, cells / ms[1] / 1e3, cells / ms[2] / 1e3);
+	}
+
+	/**
+	 * Streams rows into a sink.
+	 */
+	private interface Streaming {
+		void generateRows(RowSink sink) throws IOException;
+	}
+
+	/**
+	 * Gives the fastest time in ms to stream a maze in the binary format to a stream that discards it.
+	 */
+	private static double timeStreaming(Streaming streaming) throws IOException {
+		long best = Long.MAX_VALUE;
+		for (int round = 0; round < ROUNDS; round++) {
+			final long start = System.nanoTime();
+			streaming.generateRows(RowSink.binaryWriter(OutputStream.nullOutputStream(), STREAM_WIDTH));
+			best = Math.min(best, System.nanoTime() - start);
+		}
+		return best / 1e6;
+	}
+
+	private static MazeBuilder createBuilder(Order.Builder builder) {
+		switch (builder) {
+		case Prim:
+			return new MazeBuilderPrim();
+		case Boruvka:
+			return new MazeBuilderBoruvka();
+		case Kruskal:
+			return new MazeBuilderKruskal();
+		case Eller:
+			return new MazeBuilderEller();
+		case Wilson:
+			return new MazeBuilderWilson();
+		case RecursiveDivision:
+			return new MazeBuilderRecursiveDivision();
+		case HuntAndKill:
+			return new MazeBuilderHuntAndKill();
+		case GrowingTree:
+			return new MazeBuilderGrowingTree();
+		case BinaryTree:
+			return new MazeBuilderBinaryTree();
+		case Sidewinder:
+			return new MazeBuilderSidewinder();
+		case Tiled:
+			return new MazeBuilderTiled();
+		default:
+			return new MazeBuilder();
+		}
+	}
+
+	/**
+	 * Gives the fastest time in ms to generate pathways for a maze with rooms.
+	 */
+	private static double time(MazeBuilder mb, Order.Builder builder, int skill) {
+		long best = Long.MAX_VALUE;
+		for (int round = 0; round < ROUNDS; round++) {
+			mb.buildOrder(new Stuborder(13, skill, false, builder));
+			mb.floorplan.initialize();
+			mb.generateRooms();
+			final long start = System.nanoTime();
+			mb.generatePathways();
+			best = Math.min(best, System.nanoTime() - start);
+		}
+		return best / 1e6;
+	}
+}
@@ -0,0 +1,57 @@
+//package generation;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static generation.MazeBuilderAssertions.*;
+
+import java.io.IOException;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that the binary tree algorithm produces perfect mazes as spanning trees
+ * in a floorplan and that its streaming mode delivers the same maze row by row.
+ */
+class MazeBuilderBinaryTreeTest {
+
+	private MazeBuilderBinaryTree build(int seed, int skill, boolean perfect) {
+		return MazeBuilderAssertions.build(new MazeBuilderBinaryTree(), new Stuborder(seed, skill, perfect, Order.Builder.BinaryTree));
+	}
+
+	@Test
+	void testSpanningTree() {
+		for (int skill = 0; skill <= 9; skill++) {
+			// no rooms even if the order asks for them
+			MazeBuilderBinaryTree mb = build(13, skill, false);
+			assertNoRooms(mb, "skill " + skill);
+			assertSpanningTree(mb, "skill " + skill);
+		}
+	}
+
+	@Test
+	void testStreamingSameAsFloorplan() throws IOException {
+		MazeBuilderBinaryTree mb = build(7, 6, true);
+		int[] rows = new int[1];
+		new MazeBuilderBinaryTree().generateRows(7, mb.width, mb.height, (y, cells) -> {
+			assertEquals(rows[0]++, y);
+			for (int x = 0; x < mb.width; x++) {
+				for (CardinalDirection cd : CardinalDirection.values()) {
+					boolean wall = (cells[x] & Floorplan.CW_BY_DIRECTION[cd.ordinal()]) != 0;
+					assertEquals(mb.floorplan.hasWall(x, y, cd), wall, x + "," + y + " " + cd);
+				}
+			}
+		});
+		assertEquals(mb.height, rows[0]);
+	}
+
+	@Test
+	void testCorridors() {
+		// the last row and the last column are corridors
+		MazeBuilderBinaryTree mb = build(13, 5, true);
+		for (int x = 0; x < mb.width-1; x++) {
+			assertTrue(mb.floorplan.hasNoWall(x, mb.height-1, CardinalDirection.East));
+		}
+		for (int y = 0; y < mb.height-1; y++) {
+			assertTrue(mb.floorplan.hasNoWall(mb.width-1, y, CardinalDirection.South));
+		}
+	}
+}
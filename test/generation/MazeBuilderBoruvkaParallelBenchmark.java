@@ -0,0 +1,49 @@
+//package generation;
+
+/**
+ * Measures how the parallel rounds of Boruvka's algorithm scale with the number of threads
+ * for perfect mazes from the size of the highest skill level, 300x240, up to 4000x4000.
+ * Reports the fastest time to generate pathways with the sequential builder and
+ * with 1, 2, 4 and 8 threads, and the speedup over a single thread.
+ * The largest maze needs about 1GB of heap, e.g. run with -Xmx2g.
+ * Not a unit test, run its main method, optionally with the largest width as argument.
+ */
+public class MazeBuilderBoruvkaParallelBenchmark {
+
+	static final int ROUNDS = 3;
+	static final int[][] SIZES = { {300, 240}, {1000, 1000}, {2000, 2000}, {4000, 4000} };
+	static final int[] THREADS = {1, 2, 4, 8};
+
+	public static void main(String[] args) {
+		final int maxWidth = (args.length > 0) ? Integer.parseInt(args[0]) : 4000;
+		System.out.println("processors: " + Runtime.getRuntime().availableProcessors());
+		System.out.println("     size     sequential ms  threads   parallel ms  speedup");
+		for (int[] size : SIZES) {
+			if (size[0] > maxWidth)
+				break;
+			final double sequential = time(new MazeBuilderBoruvka(), size[0], size[1]);
+			double single = 0;
+			for (int threads : THREADS) {
+				final double parallel = time(new MazeBuilderBoruvkaParallel(threads), size[0], size[1]);
+				if (threads == 1)
+					single = parallel;
+				System.out.printf("%4dx%-4d %14.1f %8d %13.1f %8.2f%n", size[0], size[1], sequential, threads, parallel, single / parallel);
+			}
+		}
+	}
+
+	/**
+	 * Gives the fastest time in ms to generate pathways for a perfect maze of the given size.
+	 */
+	private static double time(MazeBuilder mb, int width, int height) {
+		long best = Long.MAX_VALUE;
+		for (int round = 0; round < ROUNDS; round++) {
+			mb.buildOrder(new Stuborder(13, 0, true, Order.Builder.Boruvka), width, height);
+			mb.floorplan.initialize();
+			final long start = System.nanoTime();
+			mb.generatePathways();
+			best = Math.min(best, System.nanoTime() - start);
+		}
+		return best / 1e6;
+	}
+}
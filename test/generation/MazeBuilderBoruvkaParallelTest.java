@@ -0,0 +1,44 @@
+//package generation;
+
+import static generation.MazeBuilderAssertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import gui.Constants;
+
+/**
+ * Tests that the parallel rounds of Boruvka's algorithm tear down
+ * the same wallboards as the sequential version for any number of threads.
+ */
+class MazeBuilderBoruvkaParallelTest {
+
+	private MazeBuilder build(MazeBuilder mb, int skill, boolean perfect, int width, int height) {
+		return MazeBuilderAssertions.build(mb, new Stuborder(13, skill, perfect, Order.Builder.Boruvka), width, height);
+	}
+
+	@Test
+	void testSameAsSequential() {
+		for (int skill = 0; skill < 10; skill++) {
+			for (boolean perfect : new boolean[] {true, false}) {
+				int width = Constants.SKILL_X[skill];
+				int height = Constants.SKILL_Y[skill];
+				MazeBuilder expected = build(new MazeBuilderBoruvka(), skill, perfect, width, height);
+				for (int threads : new int[] {1, 3}) {
+					MazeBuilder actual = build(new MazeBuilderBoruvkaParallel(threads), skill, perfect, width, height);
+					assertSameFloorplan(expected, actual, "skill " + skill + ", perfect " + perfect + ", threads " + threads);
+				}
+			}
+		}
+	}
+
+	@Test
+	void testIndependentOfThreads() {
+		// large enough for several chunks per round
+		MazeBuilder expected = build(new MazeBuilderBoruvkaParallel(1), 0, true, 400, 300);
+		for (int threads : new int[] {2, 4, 8}) {
+			MazeBuilder actual = build(new MazeBuilderBoruvkaParallel(threads), 0, true, 400, 300);
+			assertSameFloorplan(expected, actual, "threads " + threads);
+		}
+		assertSameFloorplan(build(new MazeBuilderBoruvka(), 0, true, 400, 300), expected, "sequential");
+	}
+}
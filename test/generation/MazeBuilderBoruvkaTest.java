@@ -367,4 +367,35 @@ class MazeBuilderBoruvkaTest extends MazeFactoryTest {
 		CardinalDirection cd = CardinalDirection.East;
 		assertEquals(mb.getIdx(new Wallboard(x,y,cd)),2*x + 2*mb.width*y);
 	}
+	
+	/**
+	 * Builds the pathways of a maze with the given method on a floorplan with rooms.
+	 */
+	private MazeBuilderBoruvka buildPathways(int skill, boolean perfect, boolean reference) {
+		MazeBuilderBoruvka builder = new MazeBuilderBoruvka();
+		builder.buildOrder(new Stuborder(seed, skill, perfect, Order.Builder.Boruvka));
+		builder.floorplan.initialize();
+		builder.generateRooms();
+		if (reference)
+			builder.generatePathwaysByComponentLists();
+		else
+			builder.generatePathways();
+		return builder;
+	}
+	
+	@Test
+	void testSameSpanningTreeAsComponentLists() {
+		// the disjoint set implementation must tear down exactly the same
+		// wallboards as the original implementation for the same seed
+		for (int skill = 0; skill <= 4; skill++) {
+			for (boolean perfect : new boolean[] {true, false}) {
+				MazeBuilderBoruvka expected = buildPathways(skill, perfect, true);
+				MazeBuilderBoruvka actual = buildPathways(skill, perfect, false);
+				for (int i = 0; i < expected.width*expected.height; i++) {
+					assertEquals(expected.floorplan.getValueOfCell(i), actual.floorplan.getValueOfCell(i), 
+							"skill " + skill + ", perfect " + perfect + ", cell " + i);
+				}
+			}
+		}
+	}
 }
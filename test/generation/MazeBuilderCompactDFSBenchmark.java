@@ -0,0 +1,61 @@
+//package generation;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Compares the depth first search of MazeBuilder with the compact version
+ * for perfect mazes from the size of the highest skill level, 300x240, up to 4000x4000.
+ * Reports the fastest time to generate pathways, the resulting number of cells per second
+ * and the peak memory for the search itself, i.e. the bytes that generatePathways allocates
+ * in addition to the floorplan.
+ * Not a unit test, run its main method, optionally with the largest width as argument.
+ */
+public class MazeBuilderCompactDFSBenchmark {
+
+	static final int ROUNDS = 3;
+	static final int[][] SIZES = { {300, 240}, {1000, 1000}, {2000, 2000}, {4000, 4000} };
+
+	public static void main(String[] args) {
+		final int maxWidth = (args.length > 0) ? Integer.parseInt(args[0]) : 4000;
+		final MazeBuilder dfs = new MazeBuilder();
+		final MazeBuilder compact = new MazeBuilderCompactDFS();
+		final String[] lines = new String[SIZES.length];
+		for (int i = 0; i < SIZES.length && SIZES[i][0] <= maxWidth; i++) {
+			final double[] before = measure(dfs, SIZES[i][0], SIZES[i][1]);
+			final double[] after = measure(compact, SIZES[i][0], SIZES[i][1]);
+			lines[i] = String.format("%4dx%-4d %10.1f %12.2f %9.1f %12.1f %12.2f %9.1f",
+					SIZES[i][0], SIZES[i][1], before[0], before[1], before[2], after[0], after[1], after[2]);
+		}
+		// the random number generator prints a warning with each order, so print the table at the end
+		System.out.println("               MazeBuilder                      MazeBuilderCompactDFS");
+		System.out.println("     size         ms  Mcells/s   peak MB           ms  Mcells/s   peak MB");
+		for (String line : lines) {
+			if (line != null)
+				System.out.println(line);
+		}
+	}
+
+	private static long allocatedBytes() {
+		return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()).getCurrentThreadAllocatedBytes();
+	}
+
+	/**
+	 * Gives the fastest time in ms to generate pathways for a perfect maze of the given size,
+	 * the number of million cells per second for that time and the MB allocated by the search.
+	 */
+	private static double[] measure(MazeBuilder mb, int width, int height) {
+		long best = Long.MAX_VALUE;
+		long allocated = 0;
+		for (int round = 0; round < ROUNDS; round++) {
+			mb.buildOrder(new Stuborder(13, 0, true, Order.Builder.DFS), width, height);
+			mb.floorplan.initialize();
+			final long bytes = allocatedBytes();
+			final long start = System.nanoTime();
+			mb.generatePathways();
+			best = Math.min(best, System.nanoTime() - start);
+			allocated = allocatedBytes() - bytes;
+		}
+		final double cells = (double) width*height;
+		return new double[] {best / 1e6, cells / (best / 1e9) / 1e6, allocated / 1e6};
+	}
+}
@@ -0,0 +1,53 @@
+//package generation;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static generation.MazeBuilderAssertions.*;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that the compact depth first search produces perfect mazes as spanning trees,
+ * reaches all cells in mazes with rooms and keeps the style of the mazes
+ * from the depth first search in MazeBuilder with few dead ends and long corridors.
+ */
+class MazeBuilderCompactDFSTest {
+
+	private MazeBuilder build(MazeBuilder mb, int seed, int skill, boolean perfect) {
+		return MazeBuilderAssertions.build(mb, new Stuborder(seed, skill, perfect, Order.Builder.DFS));
+	}
+
+	@Test
+	void testSpanningTree() {
+		for (int skill = 0; skill <= 9; skill++) {
+			assertSpanningTree(build(new MazeBuilderCompactDFS(), 13, skill, true), "skill " + skill);
+		}
+	}
+
+	@Test
+	void testAllReachableWithRooms() {
+		for (int skill = 0; skill <= 9; skill++) {
+			assertAllReached(build(new MazeBuilderCompactDFS(), 13, skill, false), "skill " + skill);
+		}
+	}
+
+	@Test
+	void testSameStyle() {
+		// both searches produce about one dead end per ten cells
+		double[] fractions = new double[2];
+		for (int i = 0; i < 2; i++) {
+			long deadEnds = 0;
+			long cells = 0;
+			for (int seed = 0; seed < 5; seed++) {
+				MazeBuilder mb = build((i == 0) ? new MazeBuilder() : new MazeBuilderCompactDFS(), seed, 9, true);
+				JunctionGraph graph = new JunctionGraph(mb.floorplan, mb.width, mb.height);
+				for (int v = 0; v < graph.getNumberOfNodes(); v++) {
+					if (graph.getDegree(v) == 1)
+						deadEnds++;
+				}
+				cells += mb.width*mb.height;
+			}
+			fractions[i] = (double) deadEnds / cells;
+		}
+		assertEquals(fractions[0], fractions[1], 0.02, "fraction of dead ends");
+	}
+}
@@ -0,0 +1,84 @@
+//package generation;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static generation.MazeBuilderAssertions.*;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that Eller's algorithm produces perfect mazes as spanning trees
+ * in a floorplan and that its streaming mode delivers the same maze row by row.
+ */
+class MazeBuilderEllerTest {
+
+	private MazeBuilderEller build(int seed, int skill, boolean perfect) {
+		return MazeBuilderAssertions.build(new MazeBuilderEller(), new Stuborder(seed, skill, perfect, Order.Builder.Eller));
+	}
+
+	@Test
+	void testSpanningTree() {
+		for (int skill = 0; skill <= 9; skill++) {
+			// no rooms even if the order asks for them
+			MazeBuilderEller mb = build(13, skill, false);
+			assertNoRooms(mb, "skill " + skill);
+			assertSpanningTree(mb, "skill " + skill);
+		}
+	}
+
+	@Test
+	void testStreamingSameAsFloorplan() throws IOException {
+		MazeBuilderEller mb = build(7, 6, true);
+		int[] rows = new int[1];
+		new MazeBuilderEller().generateRows(7, mb.width, mb.height, (y, cells) -> {
+			assertEquals(rows[0]++, y);
+			assertEquals(mb.width, cells.length);
+			for (int x = 0; x < mb.width; x++) {
+				for (CardinalDirection cd : CardinalDirection.values()) {
+					boolean wall = (cells[x] & Floorplan.CW_BY_DIRECTION[cd.ordinal()]) != 0;
+					assertEquals(mb.floorplan.hasWall(x, y, cd), wall, x + "," + y + " " + cd);
+				}
+			}
+		});
+		assertEquals(mb.height, rows[0]);
+	}
+
+	@Test
+	void testStreamingTallMaze() throws IOException {
+		// a narrow and tall maze is still a spanning tree
+		final int width = 20;
+		final int height = 50000;
+		final IntDisjointSet components = new IntDisjointSet(width*height);
+		long[] openings = new long[1];
+		new MazeBuilderEller().generateRows(3, width, height, (y, cells) -> {
+			for (int x = 0; x < width; x++) {
+				if ((cells[x] & Floorplan.CW_RIGHT) == 0) {
+					assertTrue(components.union(y*width + x, y*width + x + 1), "cycle at " + x + "," + y);
+					openings[0]++;
+				}
+				if ((cells[x] & Floorplan.CW_BOT) == 0) {
+					assertTrue(components.union(y*width + x, (y+1)*width + x), "cycle at " + x + "," + y);
+					openings[0]++;
+				}
+			}
+		});
+		assertEquals((long) width*height - 1, openings[0]);
+	}
+
+	@Test
+	void testTextWriter() throws IOException {
+		StringWriter out = new StringWriter();
+		new MazeBuilderEller().generateRows(5, 4, 3, RowSink.textWriter(out, 3));
+		String[] lines = out.toString().split("\n");
+		assertEquals(2*3 + 1, lines.length);
+		assertEquals("+--+--+--+--+", lines[0]);
+		assertEquals("+--+--+--+--+", lines[6]);
+		for (int i = 1; i < lines.length; i += 2) {
+			assertEquals(13, lines[i].length());
+			assertEquals('|', lines[i].charAt(0));
+			assertEquals('|', lines[i].charAt(12));
+		}
+	}
+}
@@ -0,0 +1,62 @@
+//package generation;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static generation.MazeBuilderAssertions.*;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that the growing tree algorithm produces perfect mazes as spanning trees
+ * for all selections and that the selection changes the texture of the maze.
+ */
+class MazeBuilderGrowingTreeTest {
+
+	private MazeBuilderGrowingTree build(int skill, boolean perfect, Order.Selection selection, double ratio) {
+		MazeBuilderGrowingTree mb = new MazeBuilderGrowingTree();
+		Stuborder order = new Stuborder(13, skill, perfect, Order.Builder.GrowingTree);
+		order.setSelection(selection, ratio);
+		return MazeBuilderAssertions.build(mb, order);
+	}
+
+	/**
+	 * Counts the cells with a single opening.
+	 */
+	private int countDeadEnds(MazeBuilder mb) {
+		int result = 0;
+		for (int x = 0; x < mb.width; x++) {
+			for (int y = 0; y < mb.height; y++) {
+				int openings = 0;
+				for (CardinalDirection cd : CardinalDirection.values()) {
+					if (mb.floorplan.hasNoWall(x, y, cd))
+						openings++;
+				}
+				if (openings == 1)
+					result++;
+			}
+		}
+		return result;
+	}
+
+	@Test
+	void testSpanningTree() {
+		for (Order.Selection selection : Order.Selection.values()) {
+			for (int skill = 0; skill <= 9; skill++) {
+				assertSpanningTree(build(skill, true, selection, 0.5), selection + " at skill " + skill);
+			}
+		}
+	}
+
+	@Test
+	void testTexture() {
+		// the newest cell gives long corridors, a random cell many dead ends, the mix lies in between
+		final int newest = countDeadEnds(build(9, true, Order.Selection.Newest, 0.5));
+		final int mixed = countDeadEnds(build(9, true, Order.Selection.Mixed, 0.5));
+		final int random = countDeadEnds(build(9, true, Order.Selection.Random, 0.5));
+		assertTrue(newest < mixed && mixed < random, newest + " < " + mixed + " < " + random);
+		// the ratio is the share of the newest cell
+		final int mostlyNewest = countDeadEnds(build(9, true, Order.Selection.Mixed, 0.9));
+		final int mostlyRandom = countDeadEnds(build(9, true, Order.Selection.Mixed, 0.1));
+		assertTrue(mostlyNewest < mixed && mixed < mostlyRandom, mostlyNewest + " < " + mixed + " < " + mostlyRandom);
+	}
+
+}
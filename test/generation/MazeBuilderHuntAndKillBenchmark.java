@@ -0,0 +1,66 @@
+//package generation;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import gui.Constants;
+
+/**
+ * Compares the hunt of hunt-and-kill with the index of frontier cells
+ * against a scan from the top for perfect mazes at skill levels 9 to 15 and at 2000x2000,
+ * with the depth first search of MazeBuilder as a baseline.
+ * Reports the fastest time to generate pathways and the nanoseconds per cell, which stay
+ * about the same for the indexed hunt but grow with the size for the scan.
+ * The scan is skipped for mazes of more than 100,000 cells as it takes minutes.
+ * Not a unit test, run its main method.
+ */
+public class MazeBuilderHuntAndKillBenchmark {
+
+	static final int ROUNDS = 3;
+	static final int MAX_RESCAN_CELLS = 100_000;
+
+	public static void main(String[] args) {
+		// builders print a line when they are created, so create them before any results
+		final MazeBuilder dfs = new MazeBuilder();
+		final MazeBuilderHuntAndKill huntAndKill = new MazeBuilderHuntAndKill();
+		final List<int[]> sizes = new ArrayList<>();
+		for (int skill = 9; skill < Constants.SKILL_X.length; skill++)
+			sizes.add(new int[] {Constants.SKILL_X[skill], Constants.SKILL_Y[skill]});
+		sizes.add(new int[] {2000, 2000});
+		final List<String> lines = new ArrayList<>();
+		for (int[] size : sizes) {
+			final double cells = (double) size[0]*size[1];
+			final double dfsTime = time(dfs, size[0], size[1], false);
+			final double indexed = time(huntAndKill, size[0], size[1], false);
+			String line = String.format("%4dx%-4d %9.1f %8.1f %11.1f %8.1f", size[0], size[1],
+					dfsTime, dfsTime*1e6 / cells, indexed, indexed*1e6 / cells);
+			if (cells <= MAX_RESCAN_CELLS) {
+				final double rescan = time(huntAndKill, size[0], size[1], true);
+				line += String.format(" %11.1f %8.1f", rescan, rescan*1e6 / cells);
+			}
+			lines.add(line);
+		}
+		System.out.println("     size     dfs ms  ns/cell  indexed ms  ns/cell   rescan ms  ns/cell");
+		for (String line : lines) {
+			System.out.println(line);
+		}
+	}
+
+	/**
+	 * Gives the fastest time in ms to generate pathways for a perfect maze of the given size.
+	 */
+	private static double time(MazeBuilder mb, int width, int height, boolean rescan) {
+		long best = Long.MAX_VALUE;
+		for (int round = 0; round < ROUNDS; round++) {
+			mb.buildOrder(new Stuborder(13, 0, true, Order.Builder.HuntAndKill), width, height);
+			mb.floorplan.initialize();
+			final long start = System.nanoTime();
+			if (rescan)
+				((MazeBuilderHuntAndKill) mb).generatePathwaysByRescan();
+			else
+				mb.generatePathways();
+			best = Math.min(best, System.nanoTime() - start);
+		}
+		return best / 1e6;
+	}
+}
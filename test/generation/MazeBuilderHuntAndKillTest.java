@@ -0,0 +1,40 @@
+//package generation;
+
+import static generation.MazeBuilderAssertions.*;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that hunt-and-kill produces perfect mazes as spanning trees
+ * and that the indexed hunt gives the same maze as a scan from the top.
+ */
+class MazeBuilderHuntAndKillTest {
+
+	private MazeBuilderHuntAndKill build(int skill, boolean perfect, boolean rescan) {
+		MazeBuilderHuntAndKill mb = new MazeBuilderHuntAndKill();
+		mb.buildOrder(new Stuborder(13, skill, perfect, Order.Builder.HuntAndKill));
+		mb.floorplan.initialize();
+		mb.generateRooms();
+		if (rescan)
+			mb.generatePathwaysByRescan();
+		else
+			mb.generatePathways();
+		return mb;
+	}
+
+	@Test
+	void testSpanningTree() {
+		for (int skill = 0; skill <= 9; skill++) {
+			assertSpanningTree(build(skill, true, false), "skill " + skill);
+		}
+	}
+
+	@Test
+	void testSameAsRescan() {
+		for (int skill = 0; skill <= 9; skill++) {
+			for (boolean perfect : new boolean[] {true, false}) {
+				assertSameFloorplan(build(skill, perfect, true), build(skill, perfect, false), "skill " + skill + ", perfect " + perfect);
+			}
+		}
+	}
+}
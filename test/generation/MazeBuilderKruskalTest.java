@@ -0,0 +1,19 @@
+//package generation;
+
+import static generation.MazeBuilderAssertions.*;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that Kruskal's algorithm produces perfect mazes as spanning trees.
+ */
+class MazeBuilderKruskalTest {
+
+	@Test
+	void testSpanningTree() {
+		for (int skill = 0; skill <= 9; skill++) {
+			MazeBuilderKruskal mb = build(new MazeBuilderKruskal(), new Stuborder(13, skill, true, Order.Builder.Kruskal));
+			assertSpanningTree(mb, "skill " + skill);
+		}
+	}
+}
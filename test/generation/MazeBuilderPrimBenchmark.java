@@ -0,0 +1,108 @@
+//package generation;
+
+import java.util.ArrayList;
+
+import gui.Constants;
+
+/**
+ * Compares the build time of Prim's algorithm for skill levels 0 to 15
+ * before and after candidates became a set of packed integers with
+ * constant time removal. The version before keeps candidates as
+ * Wallboard objects in an ArrayList and removes them by index,
+ * which shifts the tail of the list.
+ * For perfect mazes, it also reports the fraction of dead ends and
+ * the average corridor length from the junction graph to show that
+ * both versions produce mazes with the same statistical properties.
+ * Not a unit test, run its main method.
+ */
+public class MazeBuilderPrimBenchmark {
+
+	static final int ROUNDS = 5;
+	static final int SEEDS = 20;
+
+	/**
+	 * Prim's algorithm as it was before, with a list of wallboard objects.
+	 */
+	static class ListPrim extends MazeBuilder {
+		@Override
+		protected void generatePathways() {
+			int x = random.nextIntWithinInterval(0, width-1);
+			int y = random.nextIntWithinInterval(0, height-1);
+			final ArrayList<Wallboard> candidates = new ArrayList<Wallboard>();
+			updateListOfWallboards(x, y, candidates);
+			while (!candidates.isEmpty()) {
+				Wallboard wallboard = candidates.remove(random.nextIntWithinInterval(0, candidates.size()-1));
+				if (floorplan.canTearDown(wallboard)) {
+					floorplan.deleteWallboard(wallboard);
+					x = wallboard.getNeighborX();
+					y = wallboard.getNeighborY();
+					floorplan.setCellAsVisited(x, y);
+					updateListOfWallboards(x, y, candidates);
+				}
+			}
+		}
+		private void updateListOfWallboards(int x, int y, ArrayList<Wallboard> wallboards) {
+			Wallboard wallboard = new Wallboard(x, y, CardinalDirection.East);
+			for (CardinalDirection cd : CardinalDirection.values()) {
+				wallboard.setLocationDirection(x, y, cd);
+				if (floorplan.canTearDown(wallboard))
+					wallboards.add(new Wallboard(x, y, cd));
+			}
+		}
+	}
+
+	public static void main(String[] args) {
+		System.out.println("skill    size    before ms   after ms");
+		for (int skill = 0; skill < Constants.SKILL_X.length; skill++) {
+			final double before = time(new ListPrim(), skill);
+			final double after = time(new MazeBuilderPrim(), skill);
+			System.out.printf("%5d %4dx%-4d %9.2f %10.2f%n", skill, Constants.SKILL_X[skill], Constants.SKILL_Y[skill], before, after);
+		}
+		for (int skill : new int[] {5, 9, 15}) {
+			System.out.printf("skill %2d before: %s%n", skill, statistics(new ListPrim(), skill));
+			System.out.printf("skill %2d after:  %s%n", skill, statistics(new MazeBuilderPrim(), skill));
+		}
+	}
+
+	/**
+	 * Gives the fastest time in ms to generate pathways for a maze with rooms.
+	 */
+	private static double time(MazeBuilder mb, int skill) {
+		long best = Long.MAX_VALUE;
+		for (int round = 0; round < ROUNDS; round++) {
+			mb.buildOrder(new Stuborder(13, skill, false, Order.Builder.Prim));
+			mb.floorplan.initialize();
+			mb.generateRooms();
+			final long start = System.nanoTime();
+			mb.generatePathways();
+			best = Math.min(best, System.nanoTime() - start);
+		}
+		return best / 1e6;
+	}
+
+	/**
+	 * Gives the fraction of dead ends and the average length of corridors
+	 * between nodes of the junction graph over perfect mazes of several seeds.
+	 */
+	private static String statistics(MazeBuilder mb, int skill) {
+		long deadEnds = 0;
+		long cells = 0;
+		long weights = 0;
+		long corridors = 0;
+		for (int seed = 0; seed < SEEDS; seed++) {
+			mb.buildOrder(new Stuborder(seed, skill, true, Order.Builder.Prim));
+			mb.floorplan.initialize();
+			mb.generatePathways();
+			JunctionGraph graph = new JunctionGraph(mb.floorplan, mb.width, mb.height);
+			for (int v = 0; v < graph.getNumberOfNodes(); v++) {
+				if (graph.getDegree(v) == 1)
+					deadEnds++;
+			}
+			for (int e = 0; e < graph.getNumberOfEdges(); e++)
+				weights += graph.getCorridorWeight(e);
+			corridors += graph.getNumberOfEdges();
+			cells += mb.width*mb.height;
+		}
+		return String.format("dead ends %.4f of cells, average corridor length %.3f", (double) deadEnds / cells, (double) weights / corridors);
+	}
+}
@@ -0,0 +1,43 @@
+//package generation;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static generation.MazeBuilderAssertions.*;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that Prim's algorithm with constant time removal of candidates
+ * still produces perfect mazes as spanning trees and keeps the typical
+ * structure of Prim mazes with many short dead ends.
+ */
+class MazeBuilderPrimTest {
+
+	private MazeBuilderPrim build(int seed, int skill) {
+		return MazeBuilderAssertions.build(new MazeBuilderPrim(), new Stuborder(seed, skill, true, Order.Builder.Prim));
+	}
+
+	@Test
+	void testSpanningTree() {
+		for (int skill = 0; skill <= 9; skill++) {
+			assertSpanningTree(build(13, skill), "skill " + skill);
+		}
+	}
+
+	@Test
+	void testDeadEnds() {
+		// Prim mazes have about one dead end per three cells, a DFS maze about one per ten
+		long deadEnds = 0;
+		long cells = 0;
+		for (int seed = 0; seed < 5; seed++) {
+			MazeBuilderPrim mb = build(seed, 9);
+			JunctionGraph graph = new JunctionGraph(mb.floorplan, mb.width, mb.height);
+			for (int v = 0; v < graph.getNumberOfNodes(); v++) {
+				if (graph.getDegree(v) == 1)
+					deadEnds++;
+			}
+			cells += mb.width*mb.height;
+		}
+		double fraction = (double) deadEnds / cells;
+		assertTrue(0.29 < fraction && fraction < 0.36, "fraction of dead ends " + fraction);
+	}
+}
@@ -0,0 +1,85 @@
+//package generation;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import gui.Constants;
+
+/**
+ * Compares how the layout of a maze drives the cost of the BSP tree
+ * for recursive division and the depth first search, Prim's and Boruvka's algorithm.
+ * Reports the number of walls that the ListOfWallsBuilder extracts, the number
+ * of nodes of the BSP tree and the fastest time for the BSPBuilder to build it
+ * for a maze with rooms at each skill level.
+ * Not a unit test, run its main method, optionally with the highest skill level as argument.
+ */
+public class MazeBuilderRecursiveDivisionBenchmark {
+
+	static final int ROUNDS = 3;
+	static final Order.Builder[] BUILDERS = {Order.Builder.DFS, Order.Builder.Prim, Order.Builder.Boruvka, Order.Builder.RecursiveDivision};
+
+	public static void main(String[] args) throws InterruptedException {
+		final int maxSkill = (args.length > 0) ? Integer.parseInt(args[0]) : 9;
+		// builders print a line when they are created, so create them before any results
+		final MazeBuilder[] builders = new MazeBuilder[BUILDERS.length];
+		for (int i = 0; i < BUILDERS.length; i++)
+			builders[i] = createBuilder(BUILDERS[i]);
+		final List<String> lines = new ArrayList<>();
+		for (int skill = 0; skill <= maxSkill; skill++) {
+			for (int i = 0; i < BUILDERS.length; i++) {
+				lines.add(String.format("%5d %4dx%-4d %18s %s", skill, Constants.SKILL_X[skill], Constants.SKILL_Y[skill],
+						BUILDERS[i], measure(builders[i], BUILDERS[i], skill)));
+			}
+		}
+		System.out.println("skill    size              builder    walls    nodes   bsp ms");
+		for (String line : lines) {
+			System.out.println(line);
+		}
+	}
+
+	private static MazeBuilder createBuilder(Order.Builder builder) {
+		switch (builder) {
+		case Prim:
+			return new MazeBuilderPrim();
+		case Boruvka:
+			return new MazeBuilderBoruvka();
+		case RecursiveDivision:
+			return new MazeBuilderRecursiveDivision();
+		default:
+			return new MazeBuilder();
+		}
+	}
+
+	/**
+	 * Gives the number of walls, the number of BSP nodes and the fastest time in ms
+	 * to build the BSP tree for a maze with rooms, formatted as a row of the table.
+	 */
+	private static String measure(MazeBuilder mb, Order.Builder builder, int skill) throws InterruptedException {
+		long best = Long.MAX_VALUE;
+		final long[] walls = new long[1];
+		int nodes = 0;
+		for (int round = 0; round < ROUNDS; round++) {
+			mb.buildOrder(new Stuborder(13, skill, false, builder));
+			mb.floorplan.initialize();
+			mb.generateRooms();
+			mb.generatePathways();
+			mb.dists.computeDistances(mb.floorplan);
+			walls[0] = 0;
+			new ListOfWallsBuilder(mb.width, mb.height, mb.floorplan, mb.dists, 0).generateWalls(w -> walls[0]++);
+			// without an order, the BSPBuilder does not report progress
+			final BSPBuilder bsp = new BSPBuilder(null, mb.dists, mb.floorplan, mb.width, mb.height, 0, 1);
+			final long start = System.nanoTime();
+			final BSPNode root = bsp.generateBSPNodes();
+			best = Math.min(best, System.nanoTime() - start);
+			nodes = countNodes(root);
+		}
+		return String.format("%8d %8d %8.1f", walls[0], nodes, best / 1e6);
+	}
+
+	private static int countNodes(BSPNode node) {
+		if (node.isIsleaf())
+			return 1;
+		final BSPBranch branch = (BSPBranch) node;
+		return 1 + countNodes(branch.getLeftBranch()) + countNodes(branch.getRightBranch());
+	}
+}
@@ -0,0 +1,41 @@
+//package generation;
+
+import static generation.MazeBuilderAssertions.*;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that recursive division produces perfect mazes as spanning trees,
+ * reaches all cells in mazes with rooms and gives the same maze
+ * for any number of threads.
+ */
+class MazeBuilderRecursiveDivisionTest {
+
+	private MazeBuilder build(int threads, int skill, boolean perfect) {
+		return MazeBuilderAssertions.build(new MazeBuilderRecursiveDivision(threads),
+				new Stuborder(13, skill, perfect, Order.Builder.RecursiveDivision));
+	}
+
+	@Test
+	void testSpanningTree() {
+		for (int skill = 0; skill <= 9; skill++) {
+			assertSpanningTree(build(2, skill, true), "skill " + skill);
+		}
+	}
+
+	@Test
+	void testAllReachableWithRooms() {
+		for (int skill = 0; skill <= 9; skill++) {
+			assertAllReached(build(2, skill, false), "skill " + skill);
+		}
+	}
+
+	@Test
+	void testIndependentOfThreads() {
+		MazeBuilder expected = build(1, 9, false);
+		for (int threads : new int[] {2, 3, 8}) {
+			assertSameFloorplan(expected, build(threads, 9, false), "threads " + threads);
+		}
+	}
+
+}
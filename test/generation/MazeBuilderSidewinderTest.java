@@ -0,0 +1,71 @@
+//package generation;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static generation.MazeBuilderAssertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that the sidewinder algorithm produces perfect mazes as spanning trees
+ * in a floorplan, also for tall mazes in its streaming mode, and that
+ * the binary format of a stream gives the same maze as the floorplan.
+ */
+class MazeBuilderSidewinderTest {
+
+	private MazeBuilderSidewinder build(int seed, int skill, boolean perfect) {
+		return MazeBuilderAssertions.build(new MazeBuilderSidewinder(), new Stuborder(seed, skill, perfect, Order.Builder.Sidewinder));
+	}
+
+	@Test
+	void testSpanningTree() {
+		for (int skill = 0; skill <= 9; skill++) {
+			// no rooms even if the order asks for them
+			MazeBuilderSidewinder mb = build(13, skill, false);
+			assertNoRooms(mb, "skill " + skill);
+			assertSpanningTree(mb, "skill " + skill);
+		}
+	}
+
+	@Test
+	void testStreamingTallMaze() throws IOException {
+		final int width = 20;
+		final int height = 50000;
+		final IntDisjointSet components = new IntDisjointSet(width*height);
+		long[] openings = new long[1];
+		new MazeBuilderSidewinder().generateRows(3, width, height, (y, cells) -> {
+			for (int x = 0; x < width; x++) {
+				if ((cells[x] & Floorplan.CW_RIGHT) == 0) {
+					assertTrue(components.union(y*width + x, y*width + x + 1), "cycle at " + x + "," + y);
+					openings[0]++;
+				}
+				if ((cells[x] & Floorplan.CW_BOT) == 0) {
+					assertTrue(components.union(y*width + x, (y+1)*width + x), "cycle at " + x + "," + y);
+					openings[0]++;
+				}
+			}
+		});
+		assertEquals((long) width*height - 1, openings[0]);
+	}
+
+	@Test
+	void testBinaryWriter() throws IOException {
+		// a width that is not a multiple of 4 leaves unused bits in the last byte of a row
+		MazeBuilderSidewinder mb = build(7, 6, true);
+		assertNotEquals(0, mb.width % 4);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		new MazeBuilderSidewinder().generateRows(7, mb.width, mb.height, RowSink.binaryWriter(out, mb.width));
+		byte[] bytes = out.toByteArray();
+		final int bytesPerRow = (mb.width + 3) / 4;
+		assertEquals(bytesPerRow*mb.height, bytes.length);
+		for (int y = 0; y < mb.height; y++) {
+			for (int x = 0; x < mb.width; x++) {
+				int bits = bytes[y*bytesPerRow + x/4] >> (2*(x % 4));
+				assertEquals(mb.floorplan.hasNoWall(x, y, CardinalDirection.East), (bits & 1) != 0, x + "," + y);
+				assertEquals(mb.floorplan.hasNoWall(x, y, CardinalDirection.South), (bits & 2) != 0, x + "," + y);
+			}
+		}
+	}
+}
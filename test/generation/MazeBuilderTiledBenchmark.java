@@ -0,0 +1,69 @@
+//package generation;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measures how generation in tiles scales with the number of threads
+ * compared to the sequential builders for perfect mazes from the size
+ * of the highest skill level, 300x240, up to 4000x4000.
+ * Reports the fastest time to generate pathways with the depth first search
+ * of {@link MazeBuilder}, {@link MazeBuilderCompactDFS}, {@link MazeBuilderKruskal}
+ * and with tiles on 1, 2, 4 and 8 threads, and the speedup over a single thread.
+ * The largest maze needs about 1GB of heap, e.g. run with -Xmx2g.
+ * Not a unit test, run its main method, optionally with the largest width as argument.
+ */
+public class MazeBuilderTiledBenchmark {
+
+	static final int ROUNDS = 3;
+	static final int[][] SIZES = { {300, 240}, {1000, 1000}, {2000, 2000}, {4000, 4000} };
+	static final int[] THREADS = {1, 2, 4, 8};
+
+	public static void main(String[] args) {
+		final int maxWidth = (args.length > 0) ? Integer.parseInt(args[0]) : 4000;
+		// builders print a line when they are created, so create them before any results
+		final MazeBuilder dfs = new MazeBuilder();
+		final MazeBuilder compact = new MazeBuilderCompactDFS();
+		final MazeBuilder kruskal = new MazeBuilderKruskal();
+		final MazeBuilder[] tiled = new MazeBuilder[THREADS.length];
+		for (int i = 0; i < THREADS.length; i++) {
+			tiled[i] = new MazeBuilderTiled(THREADS[i], MazeBuilderTiled.DEFAULT_TILE_SIZE);
+		}
+		final List<String> lines = new ArrayList<>();
+		for (int[] size : SIZES) {
+			if (size[0] > maxWidth)
+				break;
+			final double dfsTime = time(dfs, size[0], size[1]);
+			final double compactTime = time(compact, size[0], size[1]);
+			final double kruskalTime = time(kruskal, size[0], size[1]);
+			double single = 0;
+			for (int i = 0; i < THREADS.length; i++) {
+				final double parallel = time(tiled[i], size[0], size[1]);
+				if (i == 0)
+					single = parallel;
+				lines.add(String.format("%4dx%-4d %9.1f %11.1f %10.1f %8d %10.1f %8.2f",
+						size[0], size[1], dfsTime, compactTime, kruskalTime, THREADS[i], parallel, single / parallel));
+			}
+		}
+		System.out.println("processors: " + Runtime.getRuntime().availableProcessors());
+		System.out.println("     size     dfs ms  compact ms  kruskal ms  threads   tiled ms  speedup");
+		for (String line : lines) {
+			System.out.println(line);
+		}
+	}
+
+	/**
+	 * Gives the fastest time in ms to generate pathways for a perfect maze of the given size.
+	 */
+	private static double time(MazeBuilder mb, int width, int height) {
+		long best = Long.MAX_VALUE;
+		for (int round = 0; round < ROUNDS; round++) {
+			mb.buildOrder(new Stuborder(13, 0, true, Order.Builder.DFS), width, height);
+			mb.floorplan.initialize();
+			final long start = System.nanoTime();
+			mb.generatePathways();
+			best = Math.min(best, System.nanoTime() - start);
+		}
+		return best / 1e6;
+	}
+}
@@ -0,0 +1,43 @@
+//package generation;
+
+import static generation.MazeBuilderAssertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import gui.Constants;
+
+/**
+ * Tests that generation in tiles produces perfect mazes as spanning trees
+ * with tiles of any size, reaches all cells in mazes with rooms and
+ * gives the same maze for any number of threads.
+ */
+class MazeBuilderTiledTest {
+
+	private MazeBuilder build(int threads, int tileSize, int skill, boolean perfect, int width, int height) {
+		return MazeBuilderAssertions.build(new MazeBuilderTiled(threads, tileSize),
+				new Stuborder(13, skill, perfect, Order.Builder.DFS), width, height);
+	}
+
+	@Test
+	void testSpanningTree() {
+		// tiles that do not fit the maze, a single tile and tiles of single cells
+		for (int tileSize : new int[] {7, 16, 1000, 1}) {
+			assertSpanningTree(build(2, tileSize, 0, true, 61, 45), "tile size " + tileSize);
+		}
+	}
+
+	@Test
+	void testAllReachableWithRooms() {
+		for (int skill = 0; skill <= 9; skill++) {
+			assertAllReached(build(2, 16, skill, false, Constants.SKILL_X[skill], Constants.SKILL_Y[skill]), "skill " + skill);
+		}
+	}
+
+	@Test
+	void testIndependentOfThreads() {
+		MazeBuilder expected = build(1, 32, 9, false, 300, 240);
+		for (int threads : new int[] {2, 3, 8}) {
+			assertSameFloorplan(expected, build(threads, 32, 9, false, 300, 240), "threads " + threads);
+		}
+	}
+}
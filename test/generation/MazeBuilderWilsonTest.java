@@ -0,0 +1,51 @@
+//package generation;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static generation.MazeBuilderAssertions.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that Wilson's algorithm produces perfect mazes as spanning trees
+ * and that all spanning trees are equally likely.
+ */
+class MazeBuilderWilsonTest {
+
+	@Test
+	void testSpanningTree() {
+		for (int skill = 0; skill <= 9; skill++) {
+			assertSpanningTree(build(new MazeBuilderWilson(), new Stuborder(13, skill, true, Order.Builder.Wilson)), "skill " + skill);
+		}
+	}
+
+	@Test
+	void testUniform() {
+		// a 3x3 grid has 192 spanning trees, each should show up about equally often
+		final int trees = 192;
+		final int samples = 1000*trees;
+		MazeBuilderWilson mb = new MazeBuilderWilson();
+		mb.buildOrder(new Stuborder(13, 0, true, Order.Builder.Wilson), 3, 3);
+		Map<Integer, Integer> counts = new HashMap<>();
+		for (int i = 0; i < samples; i++) {
+			mb.floorplan.initialize();
+			mb.generatePathways();
+			int key = 0;
+			for (int index = 0; index < 9; index++) {
+				key = (key << 2) | (mb.floorplan.hasWall(index, CardinalDirection.East.ordinal()) ? 1 : 0)
+						| (mb.floorplan.hasWall(index, CardinalDirection.South.ordinal()) ? 2 : 0);
+			}
+			counts.merge(key, 1, Integer::sum);
+		}
+		assertEquals(trees, counts.size());
+		// chi-square statistic with 191 degrees of freedom has a mean of 191 and a standard deviation of about 20
+		// a random walk of a few steps before Wilson's algorithm already gives about 1000
+		double chiSquare = 0;
+		for (int count : counts.values()) {
+			chiSquare += (count - 1000.0)*(count - 1000.0)/1000.0;
+		}
+		assertTrue(chiSquare < 300, "chi-square " + chiSquare);
+	}
+}
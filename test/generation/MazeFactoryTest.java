@@ -99,12 +99,15 @@ class MazeFactoryTest {
 	
 	@Test
 	void testOrderOtherBuilderReturn() {
-	/* no buildThread is running so we proceed; order's builder that
-	 * we get from order.getBuilder() is Kruskal (or another builder)
-	 * so we assert that the return value is false
+	/* no buildThread is running so we proceed; every builder that
+	 * order.getBuilder() can return has an implementation now
+	 * so we assert that the return value is true for each of them
 	 */ 
-		Stuborder temp = new Stuborder(seed,skill,perfect,Order.Builder.Kruskal);
-		assertFalse(mazefactory.order(temp));
+		for (Order.Builder builder : Order.Builder.values()) {
+			Stuborder temp = new Stuborder(seed,skill,perfect,builder);
+			assertTrue(mazefactory.order(temp), builder.toString());
+			mazefactory.waitTillDelivered();
+		}
 	}
 	
 	@Test
@@ -0,0 +1,96 @@
+//package generation;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that the sorted grading gives the same grades as the walls themselves
+ * for lists that are small enough to be graded without sampling
+ * and that BSP trees with either grading keep all walls.
+ */
+class SortedGradingTest {
+
+	private MazeBuilder build(int skill) {
+		MazeBuilder mb = new MazeBuilder();
+		mb.buildOrder(new Stuborder(13, skill, false, Order.Builder.DFS));
+		mb.floorplan.initialize();
+		mb.generateRooms();
+		mb.generatePathways();
+		mb.dists.computeDistances(mb.floorplan);
+		return mb;
+	}
+
+	private List<Wall> walls(MazeBuilder mb) {
+		return new ListOfWallsBuilder(mb.width, mb.height, mb.floorplan, mb.dists, 0).generateWalls();
+	}
+
+	@Test
+	void testSameGradeWithoutSampling() {
+		final Random rnd = new Random(13);
+		for (int skill = 0; skill <= 5; skill++) {
+			final List<Wall> all = walls(build(skill));
+			for (int round = 0; round < 20; round++) {
+				// Wall.calculateGrade samples lists of 100 walls and more
+				Collections.shuffle(all, rnd);
+				final List<Wall> walls = new ArrayList<>(all.subList(0, Math.min(all.size(), 1 + rnd.nextInt(99))));
+				final SortedGrading grades = new SortedGrading(walls);
+				for (Wall splitter : all) {
+					assertEquals(splitter.calculateGrade(walls), grades.grade(splitter), "skill " + skill + ", splitter at " + splitter.getStartPositionX() + "," + splitter.getStartPositionY());
+				}
+			}
+		}
+	}
+
+	@Test
+	void testTreeKeepsWalls() throws InterruptedException {
+		for (int skill = 0; skill <= 5; skill++) {
+			final MazeBuilder mb = build(skill);
+			final long length = totalLength(walls(mb));
+			for (BSPBuilder.Grading grading : BSPBuilder.Grading.values()) {
+				final BSPBuilder bsp = new BSPBuilder(null, mb.dists, mb.floorplan, mb.width, mb.height, 0, 1);
+				bsp.setGrading(grading);
+				final List<Wall> leaves = new ArrayList<>();
+				collectLeafWalls(bsp.generateBSPNodes(), leaves);
+				// splitters cut walls into parts but neither add nor drop any
+				assertEquals(length, totalLength(leaves), "skill " + skill + ", " + grading);
+				for (Wall wall : leaves) {
+					assertTrue(wall.isPartition(), "leaf wall not partitioned at " + wall.getStartPositionX() + "," + wall.getStartPositionY());
+				}
+			}
+		}
+	}
+
+	@Test
+	void testFactoryDelivers() {
+		MazeFactory factory = new MazeFactory();
+		Stuborder order = new Stuborder(13, 3, false, Order.Builder.DFS);
+		order.setGrading(BSPBuilder.Grading.Sorted);
+		assertTrue(factory.order(order));
+		factory.waitTillDelivered();
+		assertNotNull(order.maze);
+	}
+
+	private static long totalLength(List<Wall> walls) {
+		long result = 0;
+		for (Wall wall : walls) {
+			result += Math.abs(wall.getExtensionX()) + Math.abs(wall.getExtensionY());
+		}
+		return result;
+	}
+
+	private static void collectLeafWalls(BSPNode node, List<Wall> walls) {
+		if (node.isIsleaf()) {
+			walls.addAll(((BSPLeaf) node).getAllWalls());
+			return;
+		}
+		final BSPBranch branch = (BSPBranch) node;
+		collectLeafWalls(branch.getLeftBranch(), walls);
+		collectLeafWalls(branch.getRightBranch(), walls);
+	}
+}